@@ -10,12 +10,15 @@ import java.util.HashMap;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
 import com.galaxy.merchant.guide.domain.InterGalacticInterpreter;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 import com.galaxy.merchant.guide.exceptions.NoInputProvidedException;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
 
 /**
- * Main class that reads notes from a file and interprets it
+ * Main class that reads notes from a file and interprets it, optionally trading the earth materials listed in a
+ * second file, one per line
  *
  * @author Gayathri Thiyagarajan
  */
@@ -29,6 +32,10 @@ public class InterGalacticApp {
         return fileName -> (endsWith(fileName.toLowerCase(), ".txt"));
     }
 
+    private static Predicate<String[]> fileContainingMaterialsSpecified() {
+        return args -> (args.length > 1 && isNotEmpty(args[1]));
+    }
+
     public static void main(String[] args) {
 
         if(fileContainingNotesSpecified().test(args)) {
@@ -41,7 +48,12 @@ public class InterGalacticApp {
 
                     linesOfText = stream.toArray(String[]::new);
 
-                    InterGalacticInterpreter interGalacticInterpreter = new InterGalacticInterpreter();
+                    EarthMaterialCatalogue earthMaterialCatalogue = fileContainingMaterialsSpecified().test(args)
+                            ? EarthMaterialCatalogue.fromLines(Files.readAllLines(Paths.get(args[1])))
+                            : EarthMaterialCatalogue.DEFAULT;
+
+                    InterGalacticInterpreter interGalacticInterpreter = new InterGalacticInterpreter(RomanNumeralRules.CLASSIC,
+                            false, earthMaterialCatalogue);
                     HashMap<String, String> queriesAndAnswers = interGalacticInterpreter.interpret(linesOfText);
 
                     if(queriesAndAnswers != null && queriesAndAnswers.size() != 0) {
@@ -1,5 +1,10 @@
 package com.galaxy.merchant.guide.constants;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.List;
+
 /**
  * Constants that are common across the app
  *
@@ -10,7 +15,8 @@ public class InterGalacticAppConstants {
     public static final String DEFAULT_ANSWER = "I have no idea what you are talking about";
     public static final String PLACEHOLDER_FOR_UNPARSEABLE_QUESTIONS = "";
 
-    public static final String EARTH_MATERIALS_PART = "(silver|gold|iron){1}";
+    //Earth materials traded when no catalogue of materials is given, matched ignoring case
+    public static final List<String> EARTH_MATERIALS = unmodifiableList(asList("silver", "gold", "iron"));
 
 
 }
@@ -0,0 +1,101 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+
+/**
+ * Converter to convert an arabic numeric back into an Intergalactic phrase in the merchant's own vocabulary
+ * e.g. 42 = "pish tegj glob glob".
+ * The phrases of 1 to 3999 are precomputed for the vocabulary when the converter is created,
+ * so a conversion is a single table lookup.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ArabicToInterGalacticConverter {
+
+    //Intergalactic phrase of each number, indexed by the number; null where the vocabulary lacks a roman letter it needs
+    private final String[] interGalacticPhrases = new String[CanonicalRomanNumerals.LARGEST_CANONICAL_VALUE + 1];
+
+    /**
+     * @param interGalacticConversionUnits Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I,
+     *                                     as parsed by InterGalacticNumeralNotesParser
+     */
+    public ArabicToInterGalacticConverter(HashMap<String, String> interGalacticConversionUnits) {
+
+        //The word for each roman letter; when several words mean the same letter the first in alphabetical order is used
+        String[] interGalacticUnitOfLetter = new String[RomanSegmentDecoder.M + 1];
+        for (Map.Entry<String, String> unit : new TreeMap<>(interGalacticConversionUnits).entrySet()) {
+            String romanEquivalent = unit.getValue();
+            if (romanEquivalent == null || romanEquivalent.length() != 1)
+                continue;
+
+            int letter = RomanSegmentDecoder.indexOfLetter(romanEquivalent.charAt(0));
+            if (letter >= 0 && interGalacticUnitOfLetter[letter] == null)
+                interGalacticUnitOfLetter[letter] = unit.getKey();
+        }
+
+        StringBuilder interGalacticPhrase = new StringBuilder();
+        for (int numericValue = 1; numericValue <= CanonicalRomanNumerals.LARGEST_CANONICAL_VALUE; numericValue++) {
+            interGalacticPhrases[numericValue] = interGalacticPhraseOf(
+                    CanonicalRomanNumerals.canonicalFormOf(numericValue), interGalacticUnitOfLetter, interGalacticPhrase);
+        }
+    }
+
+    /**
+     * Converts a numeric value into an Intergalactic phrase
+     *
+     * @param numericValue number from 1 to 3999 e.g. 42
+     * @return equivalent Intergalactic phrase e.g. "pish tegj glob glob"
+     * @throws InvalidInputFormatException if the number is out of range or the vocabulary has no word for a roman letter it needs
+     */
+    public String convertNumericValueIntoInterGalacticPhrase(int numericValue) throws InvalidInputFormatException {
+
+        String interGalacticPhrase = interGalacticPhraseOf(numericValue);
+
+        if (interGalacticPhrase == null)
+            throw new InvalidInputFormatException("Input value cannot be expressed in intergalactic units");
+
+        return interGalacticPhrase;
+    }
+
+    /**
+     * Writes the Intergalactic phrase of a numeric value straight to the output
+     *
+     * @param numericValue number from 1 to 3999 e.g. 42
+     * @param output where the phrase is written e.g. "pish tegj glob glob"
+     * @return false, with nothing written, if the number is out of range or the vocabulary has no word for a roman letter it needs
+     * @throws IOException if the output cannot be written to
+     */
+    public boolean writeInterGalacticPhrase(int numericValue, Appendable output) throws IOException {
+
+        String interGalacticPhrase = interGalacticPhraseOf(numericValue);
+
+        if (interGalacticPhrase == null)
+            return false;
+
+        output.append(interGalacticPhrase);
+        return true;
+    }
+
+    private String interGalacticPhraseOf(int numericValue) {
+        return (numericValue < 1 || numericValue > CanonicalRomanNumerals.LARGEST_CANONICAL_VALUE) ? null : interGalacticPhrases[numericValue];
+    }
+
+    private static String interGalacticPhraseOf(String romanSegment, String[] interGalacticUnitOfLetter, StringBuilder interGalacticPhrase) {
+        interGalacticPhrase.setLength(0);
+        for (int i = 0; i < romanSegment.length(); i++) {
+            String interGalacticUnit = interGalacticUnitOfLetter[RomanSegmentDecoder.indexOfLetter(romanSegment.charAt(i))];
+            if (interGalacticUnit == null)
+                return null;
+
+            if (i > 0)
+                interGalacticPhrase.append(' ');
+            interGalacticPhrase.append(interGalacticUnit);
+        }
+        return interGalacticPhrase.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.io.IOException;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+
+/**
+ * Converter to convert an arabic numeric into its canonical roman numeric.
+ * The roman numerals of 1 to 3999 are precomputed, so a conversion is a single table lookup.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ArabicToRomanConverter {
+
+    /**
+     * Converts a numeric value into its canonical roman segment
+     *
+     * @param numericValue number from 1 to 3999 e.g. 42
+     * @return equivalent roman segment e.g. "XLII"
+     * @throws InvalidInputFormatException if the number cannot be written in roman numerals
+     */
+    public String convertNumericValueIntoRomanSegment(int numericValue) throws InvalidInputFormatException {
+
+        String romanSegment = CanonicalRomanNumerals.canonicalFormOf(numericValue);
+
+        if (romanSegment == null)
+            throw new InvalidInputFormatException("Input value is out of range");
+
+        return romanSegment;
+    }
+
+    /**
+     * Writes the canonical roman segment of a numeric value straight to the output
+     *
+     * @param numericValue number from 1 to 3999 e.g. 42
+     * @param output where the roman segment is written e.g. "XLII"
+     * @return false, with nothing written, if the number cannot be written in roman numerals
+     * @throws IOException if the output cannot be written to
+     */
+    public boolean writeRomanSegment(int numericValue, Appendable output) throws IOException {
+
+        String romanSegment = CanonicalRomanNumerals.canonicalFormOf(numericValue);
+
+        if (romanSegment == null)
+            return false;
+
+        output.append(romanSegment);
+        return true;
+    }
+}
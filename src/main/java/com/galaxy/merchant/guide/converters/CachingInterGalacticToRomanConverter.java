@@ -0,0 +1,156 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.HashMap;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+
+/**
+ * InterGalacticToRomanConverter with bounded caches in front of its conversions, for streams of queries where the same
+ * few intergalactic phrases keep coming back. The primitive conversions, by characters, tokens or IDs, look the phrase
+ * up by the packed IDs of its words so that nothing is boxed; phrases with unknown words are not cached.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class CachingInterGalacticToRomanConverter extends InterGalacticToRomanConverter {
+
+    //Roman segment of each intergalactic phrase or the exception it was rejected with, keyed by the phrase as given
+    private final ConversionCache<String, Object> conversionCache;
+
+    //Numeric value or status code of each packed phrase, without and with the vinculum
+    private final PackedPhraseCache numericValues;
+    private final PackedPhraseCache extendedNumericValues;
+
+    public CachingInterGalacticToRomanConverter(HashMap<String, String> interGalacticConversionUnits, int cacheCapacity) {
+        this(interGalacticConversionUnits, RomanNumeralRules.CLASSIC, cacheCapacity);
+    }
+
+    public CachingInterGalacticToRomanConverter(HashMap<String, String> interGalacticConversionUnits,
+                                                RomanNumeralRules romanNumeralRules, int cacheCapacity) {
+        super(interGalacticConversionUnits, romanNumeralRules);
+        conversionCache = new ConversionCache<>(cacheCapacity);
+        numericValues = new PackedPhraseCache(cacheCapacity);
+        extendedNumericValues = new PackedPhraseCache(cacheCapacity);
+    }
+
+    /**
+     * Puts caches in front of a converter compiled already, e.g. one handed out by InterGalacticToRomanConverterRegistry,
+     * sharing its vocabulary rather than compiling it again
+     */
+    public CachingInterGalacticToRomanConverter(InterGalacticToRomanConverter compiledConverter, int cacheCapacity) {
+        super(compiledConverter);
+        conversionCache = new ConversionCache<>(cacheCapacity);
+        numericValues = new PackedPhraseCache(cacheCapacity);
+        extendedNumericValues = new PackedPhraseCache(cacheCapacity);
+    }
+
+    /**
+     * Converts an Intergalactic phrase into a roman segment, looking the outcome up in the cache first
+     *
+     * @param interGalacticPhrase e.g. "glob glob"
+     * @return Equivalent roman segment parsed using Intergalactic units "II"
+     * @throws InvalidInputFormatException if the Intergalactic Phrase does not contain a valid inter galactic units from interGalacticConversionUnits
+     */
+    @Override
+    public String convertInterGalacticPhraseIntoRomanSegment(String interGalacticPhrase) throws InvalidInputFormatException {
+
+        if (interGalacticPhrase == null)
+            return super.convertInterGalacticPhraseIntoRomanSegment(null);
+
+        Object outcome = conversionCache.get(interGalacticPhrase);
+        if (outcome == null) {
+            try {
+                outcome = super.convertInterGalacticPhraseIntoRomanSegment(interGalacticPhrase);
+            } catch (InvalidInputFormatException e) {
+                outcome = e;
+            }
+            conversionCache.put(interGalacticPhrase, outcome);
+        }
+
+        if (outcome instanceof InvalidInputFormatException)
+            throw (InvalidInputFormatException) outcome;
+
+        return (String) outcome;
+    }
+
+    /**
+     * As InterGalacticToRomanConverter.toArabic(CharSequence, int, int), looking the numeric value up in the cache first.
+     * Tokenized phrases are converted through this method too.
+     */
+    @Override
+    public int toArabic(CharSequence interGalacticPhrase, int from, int to) {
+        long packedPhrase = getVocabulary().packedPhraseOf(interGalacticPhrase, from, to);
+        if (packedPhrase == InterGalacticVocabulary.NOT_PACKABLE)
+            return super.toArabic(interGalacticPhrase, from, to);
+
+        long numericValue = numericValues.get(packedPhrase);
+        if (numericValue == PackedPhraseCache.NOT_CACHED) {
+            numericValue = super.toArabic(interGalacticPhrase, from, to);
+            numericValues.put(packedPhrase, numericValue);
+        }
+        return (int) numericValue;
+    }
+
+    /**
+     * As InterGalacticToRomanConverter.toArabicExtended(CharSequence, int, int), looking the numeric value up in the cache first.
+     * Tokenized phrases are converted through this method too.
+     */
+    @Override
+    public long toArabicExtended(CharSequence interGalacticPhrase, int from, int to) {
+        long packedPhrase = getVocabulary().packedPhraseOf(interGalacticPhrase, from, to);
+        if (packedPhrase == InterGalacticVocabulary.NOT_PACKABLE)
+            return super.toArabicExtended(interGalacticPhrase, from, to);
+
+        long numericValue = extendedNumericValues.get(packedPhrase);
+        if (numericValue == PackedPhraseCache.NOT_CACHED) {
+            numericValue = super.toArabicExtended(interGalacticPhrase, from, to);
+            extendedNumericValues.put(packedPhrase, numericValue);
+        }
+        return numericValue;
+    }
+
+    /**
+     * As InterGalacticToRomanConverter.toArabic(int[], int, int), looking the numeric value up in the cache first
+     */
+    @Override
+    public int toArabic(int[] interGalacticPhrase, int from, int to) {
+        long packedPhrase = getVocabulary().packedPhraseOf(interGalacticPhrase, from, to);
+        if (packedPhrase == InterGalacticVocabulary.NOT_PACKABLE)
+            return super.toArabic(interGalacticPhrase, from, to);
+
+        long numericValue = numericValues.get(packedPhrase);
+        if (numericValue == PackedPhraseCache.NOT_CACHED) {
+            numericValue = super.toArabic(interGalacticPhrase, from, to);
+            numericValues.put(packedPhrase, numericValue);
+        }
+        return (int) numericValue;
+    }
+
+    /**
+     * As InterGalacticToRomanConverter.toArabicExtended(int[], int, int), looking the numeric value up in the cache first
+     */
+    @Override
+    public long toArabicExtended(int[] interGalacticPhrase, int from, int to) {
+        long packedPhrase = getVocabulary().packedPhraseOf(interGalacticPhrase, from, to);
+        if (packedPhrase == InterGalacticVocabulary.NOT_PACKABLE)
+            return super.toArabicExtended(interGalacticPhrase, from, to);
+
+        long numericValue = extendedNumericValues.get(packedPhrase);
+        if (numericValue == PackedPhraseCache.NOT_CACHED) {
+            numericValue = super.toArabicExtended(interGalacticPhrase, from, to);
+            extendedNumericValues.put(packedPhrase, numericValue);
+        }
+        return numericValue;
+    }
+
+    public ConversionCache<String, Object> getConversionCache() {
+        return conversionCache;
+    }
+
+    public PackedPhraseCache getNumericValues() {
+        return numericValues;
+    }
+
+    public PackedPhraseCache getExtendedNumericValues() {
+        return extendedNumericValues;
+    }
+}
@@ -0,0 +1,54 @@
+package com.galaxy.merchant.guide.converters;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+
+/**
+ * RomanToArabicConverter with a bounded cache in front of convertRomanSegmentIntoNumericValue,
+ * for streams of input where the same few roman segments keep coming back.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class CachingRomanToArabicConverter extends RomanToArabicConverter {
+
+    //Numeric value of each roman segment or the exception it was rejected with
+    private final ConversionCache<String, Object> conversionCache;
+
+    public CachingRomanToArabicConverter(int cacheCapacity) {
+        this(RomanNumeralRules.CLASSIC, cacheCapacity);
+    }
+
+    public CachingRomanToArabicConverter(RomanNumeralRules romanNumeralRules, int cacheCapacity) {
+        super(romanNumeralRules);
+        conversionCache = new ConversionCache<>(cacheCapacity);
+    }
+
+    /**
+     * Converts a roman segment into its numeric value, looking the outcome up in the cache first
+     *
+     * @param romanSegment valid roman segment
+     * @return equivalent numeric value
+     * @throws InvalidInputFormatException if the roman segment does not satisfy roman numeric rules
+     */
+    @Override
+    public Integer convertRomanSegmentIntoNumericValue(String romanSegment) throws InvalidInputFormatException {
+
+        Object outcome = conversionCache.get(romanSegment);
+        if (outcome == null) {
+            try {
+                outcome = super.convertRomanSegmentIntoNumericValue(romanSegment);
+            } catch (InvalidInputFormatException e) {
+                outcome = e;
+            }
+            conversionCache.put(romanSegment, outcome);
+        }
+
+        if (outcome instanceof InvalidInputFormatException)
+            throw (InvalidInputFormatException) outcome;
+
+        return (Integer) outcome;
+    }
+
+    public ConversionCache<String, Object> getConversionCache() {
+        return conversionCache;
+    }
+}
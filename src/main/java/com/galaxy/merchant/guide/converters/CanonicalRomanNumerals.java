@@ -0,0 +1,99 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.Arrays;
+
+/**
+ * Table of the canonical roman numerals from I to MMMCMXCIX, built once when the class is initialised.
+ * The numerals are held in a trie of primitive arrays so that looking up a segment is a single walk
+ * over its letters, without any allocation.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+final class CanonicalRomanNumerals {
+
+    //Returned when a segment is not the canonical form of any number from 1 to 3999
+    static final int NOT_CANONICAL = -1;
+
+    static final int LARGEST_CANONICAL_VALUE = 3999;
+
+    private static final int NUMBER_OF_LETTERS = 7;
+
+    private static final String[] THOUSANDS = {"", "M", "MM", "MMM"};
+    private static final String[] HUNDREDS = {"", "C", "CC", "CCC", "CD", "D", "DC", "DCC", "DCCC", "CM"};
+    private static final String[] TENS = {"", "X", "XX", "XXX", "XL", "L", "LX", "LXX", "LXXX", "XC"};
+    private static final String[] UNITS = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
+
+    //Node reached from each node by each letter, 0 when there is none (the root is never reached again)
+    private static int[] nextNode = new int[NUMBER_OF_LETTERS];
+
+    //Numeric value of the numeral ending at each node, 0 when no numeral ends there
+    private static int[] valueAtNode = new int[1];
+
+    private static int numberOfNodes = 1;
+
+    //Canonical form of each number, indexed by the number
+    private static final String[] CANONICAL_FORMS = new String[LARGEST_CANONICAL_VALUE + 1];
+
+    static {
+        for (int value = 1; value <= LARGEST_CANONICAL_VALUE; value++) {
+            CANONICAL_FORMS[value] = THOUSANDS[value / 1000] + HUNDREDS[value / 100 % 10] + TENS[value / 10 % 10] + UNITS[value % 10];
+            addToTheTable(CANONICAL_FORMS[value], value);
+        }
+        nextNode = Arrays.copyOf(nextNode, numberOfNodes * NUMBER_OF_LETTERS);
+        valueAtNode = Arrays.copyOf(valueAtNode, numberOfNodes);
+    }
+
+    private CanonicalRomanNumerals() {
+    }
+
+    /**
+     * Looks up the value of a canonical roman segment
+     *
+     * @param romanSegment characters holding the roman segment
+     * @param from index of the first letter of the segment
+     * @param to index after the last letter of the segment
+     * @return numeric value of the segment or NOT_CANONICAL if it is not in the table
+     */
+    static int valueOf(CharSequence romanSegment, int from, int to) {
+        int node = 0;
+        for (int i = from; i < to; i++) {
+            int letter = RomanSegmentDecoder.indexOfLetter(romanSegment.charAt(i));
+            if (letter < 0)
+                return NOT_CANONICAL;
+
+            node = nextNode[node * NUMBER_OF_LETTERS + letter];
+            if (node == 0)
+                return NOT_CANONICAL;
+        }
+        return valueAtNode[node] == 0 ? NOT_CANONICAL : valueAtNode[node];
+    }
+
+    /**
+     * @param value number from 1 to 3999
+     * @return canonical roman form of the number e.g. 1994 = MCMXCIV or null if the number is out of range
+     */
+    static String canonicalFormOf(int value) {
+        return (value < 1 || value > LARGEST_CANONICAL_VALUE) ? null : CANONICAL_FORMS[value];
+    }
+
+    private static void addToTheTable(String romanSegment, int value) {
+        int node = 0;
+        for (int i = 0; i < romanSegment.length(); i++) {
+            int transition = node * NUMBER_OF_LETTERS + RomanSegmentDecoder.indexOfLetter(romanSegment.charAt(i));
+            if (nextNode[transition] == 0) {
+                int addedNode = newNode();
+                nextNode[transition] = addedNode;
+            }
+            node = nextNode[transition];
+        }
+        valueAtNode[node] = value;
+    }
+
+    private static int newNode() {
+        if (numberOfNodes == valueAtNode.length) {
+            valueAtNode = Arrays.copyOf(valueAtNode, numberOfNodes * 2);
+            nextNode = Arrays.copyOf(nextNode, numberOfNodes * 2 * NUMBER_OF_LETTERS);
+        }
+        return numberOfNodes++;
+    }
+}
@@ -0,0 +1,120 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of conversion outcomes that evicts, once it is full, the eldest entry not used since the clock hand last passed it.
+ * Outcomes are cached whether the conversion succeeded or not, so repeated junk is as cheap as repeated valid input.
+ * Outcomes are read without a lock, so concurrent readers never queue on one another; only putting an outcome takes a lock.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ConversionCache<K, V> {
+
+    private final int capacity;
+
+    private final ConcurrentHashMap<K, Outcome<V>> outcomes;
+
+    //Inputs in the order they were put, the clock hand being the first one; guarded by itself
+    private final ArrayDeque<K> inputsInOrderOfArrival = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ConversionCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be at least 1");
+
+        this.capacity = capacity;
+        this.outcomes = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+    }
+
+    /**
+     * @param input input of the conversion e.g. "glob prok"
+     * @return cached outcome of converting the input or null if it is not cached
+     */
+    V get(K input) {
+        Outcome<V> outcome = outcomes.get(input);
+        if (outcome == null) {
+            misses.increment();
+            return null;
+        }
+        //Only written when it changes, so that readers of a hot outcome do not keep invalidating each other's cache line
+        if (!outcome.used) {
+            outcome.used = true;
+        }
+        hits.increment();
+        return outcome.value;
+    }
+
+    /**
+     * Looks an outcome up again without counting it as a hit or a miss, e.g. after a miss to see whether another
+     * thread has just put it
+     */
+    V peek(K input) {
+        Outcome<V> outcome = outcomes.get(input);
+        return outcome == null ? null : outcome.value;
+    }
+
+    /**
+     * Puts an outcome unless one is cached already for the input, e.g. by another thread that missed at the same time
+     *
+     * @param input input of the conversion e.g. "glob prok"
+     * @param outcome outcome of converting the input, never null
+     */
+    void put(K input, V outcome) {
+        synchronized (inputsInOrderOfArrival) {
+            if (outcomes.putIfAbsent(input, new Outcome<>(outcome)) != null)
+                return;
+            inputsInOrderOfArrival.addLast(input);
+
+            //Used entries get a second chance at the back, so a full turn of the hand always finds one to evict
+            while (inputsInOrderOfArrival.size() > capacity) {
+                K eldest = inputsInOrderOfArrival.pollFirst();
+                Outcome<V> eldestOutcome = outcomes.get(eldest);
+                if (eldestOutcome.used) {
+                    eldestOutcome.used = false;
+                    inputsInOrderOfArrival.addLast(eldest);
+                } else {
+                    outcomes.remove(eldest);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return outcomes.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static final class Outcome<V> {
+
+        private final V value;
+
+        //Whether the outcome was read since the clock hand last passed it
+        private volatile boolean used;
+
+        private Outcome(V value) {
+            this.value = value;
+        }
+    }
+}
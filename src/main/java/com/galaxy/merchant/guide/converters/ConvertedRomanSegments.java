@@ -0,0 +1,50 @@
+package com.galaxy.merchant.guide.converters;
+
+/**
+ * Outcome of converting a batch of roman segments: the numeric value of every segment
+ * and, at the same index, the status of its conversion.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ConvertedRomanSegments {
+
+    private final int[] numericValues;
+
+    private final int[] statuses;
+
+    ConvertedRomanSegments(int numberOfSegments) {
+        this.numericValues = new int[numberOfSegments];
+        this.statuses = new int[numberOfSegments];
+    }
+
+    void record(int index, int numericValueOrStatus) {
+        if (numericValueOrStatus >= 0) {
+            numericValues[index] = numericValueOrStatus;
+            statuses[index] = RomanToArabicConverter.CONVERTED;
+        } else {
+            statuses[index] = numericValueOrStatus;
+        }
+    }
+
+    /**
+     * @return numeric value of each segment, 0 where the segment could not be converted
+     */
+    public int[] getNumericValues() {
+        return numericValues;
+    }
+
+    /**
+     * @return status of each segment: CONVERTED, INVALID_SEGMENT or ABSENT_SEGMENT from RomanToArabicConverter
+     */
+    public int[] getStatuses() {
+        return statuses;
+    }
+
+    public boolean isConverted(int index) {
+        return statuses[index] == RomanToArabicConverter.CONVERTED;
+    }
+
+    public int size() {
+        return statuses.length;
+    }
+}
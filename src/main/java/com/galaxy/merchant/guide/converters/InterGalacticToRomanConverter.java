@@ -1,16 +1,11 @@
 package com.galaxy.merchant.guide.converters;
 
-import static org.apache.commons.lang3.StringUtils.EMPTY;
-import static org.apache.commons.lang3.StringUtils.SPACE;
 import static org.apache.commons.lang3.StringUtils.isNoneBlank;
-import static org.apache.commons.lang3.StringUtils.replaceEach;
 
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
 
 /**
  * Converter to convert InterGalactic numeric into Roman numeric
@@ -19,11 +14,39 @@ import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
  */
 public class InterGalacticToRomanConverter {
 
-    //Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
-    private HashMap<String, String> interGalacticConversionUnits = new HashMap<>();
+    //Returned by the primitive conversion when a phrase contains words that are not intergalactic units
+    public static final int UNKNOWN_INTER_GALACTIC_UNIT = -2;
+
+    //The same units compiled into IDs, so that words are looked up without a substring and phrases decoded by ID
+    private final InterGalacticVocabulary vocabulary;
+
+    //Decoder compiled from the roman numeral rules of this vocabulary
+    private final RomanSegmentDecoder decoder;
 
     public InterGalacticToRomanConverter(HashMap<String, String> interGalacticConversionUnits) {
-        this.interGalacticConversionUnits = interGalacticConversionUnits;
+        this(interGalacticConversionUnits, RomanNumeralRules.CLASSIC);
+    }
+
+    public InterGalacticToRomanConverter(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules) {
+        this(interGalacticConversionUnits, romanNumeralRules, VocabularyLayout.HASHED);
+    }
+
+    /**
+     * The units are compiled into a vocabulary of the given layout and the map is not kept, so that a vocabulary of
+     * millions of units can be front coded without a string per unit staying around
+     */
+    public InterGalacticToRomanConverter(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules,
+                                         VocabularyLayout layout) {
+        this.vocabulary = new InterGalacticVocabulary(interGalacticConversionUnits, layout);
+        this.decoder = romanNumeralRules.decoder();
+    }
+
+    /**
+     * Shares the vocabulary and decoder another converter compiled, as neither of them is ever changed
+     */
+    protected InterGalacticToRomanConverter(InterGalacticToRomanConverter compiledConverter) {
+        this.vocabulary = compiledConverter.vocabulary;
+        this.decoder = compiledConverter.decoder;
     }
 
     /**
@@ -35,40 +58,197 @@ public class InterGalacticToRomanConverter {
      */
     public String convertInterGalacticPhraseIntoRomanSegment(String interGalacticPhrase) throws InvalidInputFormatException {
 
-        checkInterGalacticPhraseContainsValidInterGalacticUnits(interGalacticPhrase);
+        if(!isNoneBlank(interGalacticPhrase))
+            throw new InvalidInputFormatException("Input phrase is absent");
 
-        String splitPhrase = interGalacticPhrase.replaceAll(SPACE, EMPTY);
+        //Whole words are looked up, so that a unit is never mistaken for part of a longer one e.g. glob in globx
+        int to = interGalacticPhrase.length();
+        StringBuilder romanSegment = new StringBuilder(to);
+        int startOfWord = Tokenizer.skipSeparators(interGalacticPhrase, 0, to);
 
-        String[] galacticStringsToSearch = new String[interGalacticConversionUnits.size()];
-        galacticStringsToSearch = interGalacticConversionUnits.keySet().toArray(galacticStringsToSearch);
+        while (startOfWord < to) {
+            int endOfWord = Tokenizer.skipToken(interGalacticPhrase, startOfWord, to);
 
-        String[] numericStringsToReplace = new String[interGalacticConversionUnits.size()];
-        numericStringsToReplace = interGalacticConversionUnits.values().toArray(numericStringsToReplace);
+            int id = vocabulary.idOf(interGalacticPhrase, startOfWord, endOfWord);
+            if (id == InterGalacticVocabulary.UNKNOWN_WORD)
+                throw new InvalidInputFormatException("Input format is invalid");
 
-        return replaceEach(splitPhrase, galacticStringsToSearch, numericStringsToReplace);
+            vocabulary.appendRomanEquivalentOf(id, romanSegment);
+            startOfWord = Tokenizer.skipSeparators(interGalacticPhrase, endOfWord, to);
+        }
+        return romanSegment.toString();
     }
 
     /**
-     * Checks that the Intergalactic phrase contains valid inter galactic units like glob, pish etc
+     * Converts the Intergalactic phrase between from and to straight into its numeric value, without allocating anything.
+     * Words are separated by runs of spaces and tabs, as in convertInterGalacticPhraseIntoRomanSegment.
      *
-     * @param interGalacticPhrase e.g. "glob glob"
-     * @throws InvalidInputFormatException if the interGalacticPhrase is null, empty/blank, whitespace
-     * or contains words that are not one of interGalacticConversionUnits list
+     * @param interGalacticPhrase characters holding the phrase e.g. "glob prok"
+     * @param from index of the first character of the phrase
+     * @param to index after the last character of the phrase
+     * @return equivalent numeric value e.g. 4, UNKNOWN_INTER_GALACTIC_UNIT if the phrase contains words that are not one of
+     * interGalacticConversionUnits or RomanToArabicConverter.INVALID_SEGMENT if the phrase is empty or the equivalent
+     * roman segment does not satisfy roman numeric rules
      */
-    private void checkInterGalacticPhraseContainsValidInterGalacticUnits(String interGalacticPhrase) throws InvalidInputFormatException {
+    public int toArabic(CharSequence interGalacticPhrase, int from, int to) {
+        return decode(interGalacticPhrase, from, to, null, 0, 0);
+    }
 
-        if(!isNoneBlank(interGalacticPhrase))
-            throw new InvalidInputFormatException("Input phrase is absent");
+    /**
+     * Converts the Intergalactic phrase between from and to straight into its numeric value, allowing units whose roman
+     * equivalent carries a vinculum (e.g. "_V" = 5000) so that quantities go beyond 3999. Nothing is allocated.
+     *
+     * @param interGalacticPhrase characters holding the phrase e.g. "vorp glob"
+     * @param from index of the first character of the phrase
+     * @param to index after the last character of the phrase
+     * @return equivalent numeric value e.g. 5001, UNKNOWN_INTER_GALACTIC_UNIT if the phrase contains words that are not one of
+     * interGalacticConversionUnits or RomanToArabicConverter.INVALID_SEGMENT if the phrase is empty or the equivalent
+     * roman segment does not satisfy roman numeric rules
+     */
+    public long toArabicExtended(CharSequence interGalacticPhrase, int from, int to) {
+        return decodeExtended(interGalacticPhrase, from, to, null, 0, 0);
+    }
 
-        String[] arr = interGalacticPhrase.split(SPACE);
-        List aList = Arrays.stream(arr).filter(s -> !interGalacticConversionUnits.containsKey(s)).collect(Collectors.toList());
+    /**
+     * Converts the words from fromToken up to, not including, toToken of a tokenized line straight into their numeric value
+     *
+     * @param tokens words of a line e.g. "how much is pish tegj glob glob ?"
+     * @param fromToken first word of the phrase e.g. 3
+     * @param toToken word after the last word of the phrase e.g. 7
+     * @return as toArabic(CharSequence, int, int)
+     */
+    public int toArabic(Tokenizer tokens, int fromToken, int toToken) {
+        if (fromToken >= toToken)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+        return toArabic(tokens.getText(), tokens.start(fromToken), tokens.end(toToken - 1));
+    }
+
+    /**
+     * Converts the words from fromToken up to, not including, toToken of a tokenized line straight into their numeric value,
+     * allowing units whose roman equivalent carries a vinculum
+     *
+     * @param tokens words of a line e.g. "glob vorp silver is 34 credits"
+     * @param fromToken first word of the phrase e.g. 0
+     * @param toToken word after the last word of the phrase e.g. 2
+     * @return as toArabicExtended(CharSequence, int, int)
+     */
+    public long toArabicExtended(Tokenizer tokens, int fromToken, int toToken) {
+        if (fromToken >= toToken)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+        return toArabicExtended(tokens.getText(), tokens.start(fromToken), tokens.end(toToken - 1));
+    }
+
+    /**
+     * Converts a phrase given as the IDs of its words in the vocabulary of this converter straight into its numeric value
+     *
+     * @param interGalacticPhrase IDs of the words e.g. as returned by getVocabulary().idsOf("glob prok")
+     * @param from index of the first word of the phrase
+     * @param to index after the last word of the phrase
+     * @return as toArabic(CharSequence, int, int)
+     */
+    public int toArabic(int[] interGalacticPhrase, int from, int to) {
+        return decode(null, 0, 0, interGalacticPhrase, from, to);
+    }
+
+    /**
+     * Converts a phrase given as the IDs of its words in the vocabulary of this converter straight into its numeric value,
+     * allowing units whose roman equivalent carries a vinculum
+     *
+     * @param interGalacticPhrase IDs of the words e.g. as returned by getVocabulary().idsOf("vorp glob")
+     * @param from index of the first word of the phrase
+     * @param to index after the last word of the phrase
+     * @return as toArabicExtended(CharSequence, int, int)
+     */
+    public long toArabicExtended(int[] interGalacticPhrase, int from, int to) {
+        return decodeExtended(null, 0, 0, interGalacticPhrase, from, to);
+    }
+
+    public InterGalacticVocabulary getVocabulary() {
+        return vocabulary;
+    }
 
-        if(aList.size() != 0)
-            throw new InvalidInputFormatException("Input format is invalid");
+    /**
+     * Decodes a phrase given either as characters, looking the ID of each word up, or as IDs when ids is not null
+     */
+    private int decode(CharSequence characters, int from, int to, int[] ids, int fromId, int toId) {
+
+        int position = ids == null ? Tokenizer.skipSeparators(characters, from, to) : fromId;
+        int end = ids == null ? to : toId;
+        if (position >= end)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+
+        long state = RomanSegmentDecoder.START;
+
+        while (position < end) {
+            int id;
+            if (ids == null) {
+                int endOfWord = Tokenizer.skipToken(characters, position, to);
+                id = vocabulary.idOf(characters, position, endOfWord);
+                position = Tokenizer.skipSeparators(characters, endOfWord, to);
+            } else {
+                id = ids[position++];
+            }
+            if (id < 0 || id >= vocabulary.size())
+                return UNKNOWN_INTER_GALACTIC_UNIT;
+
+            //Letters with a vinculum are beyond the classic range
+            for (int index = vocabulary.firstCodedLetterOf(id); index < vocabulary.firstCodedLetterOf(id + 1); index++) {
+                int codedLetter = vocabulary.codedLetterAt(index);
+                int letter = RomanSegmentDecoder.barsOf(codedLetter) == 0 ? RomanSegmentDecoder.letterOf(codedLetter) : -1;
+                state = decoder.next(state, letter);
+            }
+        }
+
+        return RomanSegmentDecoder.valueOf(state);
+    }
+
+    /**
+     * Decodes a phrase that may use the vinculum, given either as characters or as IDs when ids is not null
+     */
+    private long decodeExtended(CharSequence characters, int from, int to, int[] ids, int fromId, int toId) {
+
+        int position = ids == null ? Tokenizer.skipSeparators(characters, from, to) : fromId;
+        int end = ids == null ? to : toId;
+        if (position >= end)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+
+        long numericValue = 0;
+        long stateOfGroup = RomanSegmentDecoder.START;
+        int barsOfGroup = -1;
+
+        while (position < end) {
+            int id;
+            if (ids == null) {
+                int endOfWord = Tokenizer.skipToken(characters, position, to);
+                id = vocabulary.idOf(characters, position, endOfWord);
+                position = Tokenizer.skipSeparators(characters, endOfWord, to);
+            } else {
+                id = ids[position++];
+            }
+            if (id < 0 || id >= vocabulary.size())
+                return UNKNOWN_INTER_GALACTIC_UNIT;
+
+            //Same grouping of letters by their bars as RomanSegmentDecoder.decodeExtended
+            for (int index = vocabulary.firstCodedLetterOf(id); index < vocabulary.firstCodedLetterOf(id + 1); index++) {
+                int codedLetter = vocabulary.codedLetterAt(index);
+                int bars = RomanSegmentDecoder.barsOf(codedLetter);
+                if (codedLetter >= 0 && bars != barsOfGroup) {
+                    numericValue = RomanSegmentDecoder.addGroup(numericValue, stateOfGroup, barsOfGroup, bars);
+                    stateOfGroup = RomanSegmentDecoder.START;
+                    barsOfGroup = bars;
+                }
+                stateOfGroup = decoder.next(stateOfGroup, RomanSegmentDecoder.letterOf(codedLetter));
+                if (numericValue < 0 || stateOfGroup == RomanSegmentDecoder.REJECTED)
+                    return RomanToArabicConverter.INVALID_SEGMENT;
+            }
+        }
+
+        return RomanSegmentDecoder.addGroup(numericValue, stateOfGroup, barsOfGroup, -1);
     }
 
+    //Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I, made again from the vocabulary
     HashMap<String, String> getInterGalacticConversionUnits() {
-        return interGalacticConversionUnits;
+        return vocabulary.interGalacticConversionUnits();
     }
 
 }
\ No newline at end of file
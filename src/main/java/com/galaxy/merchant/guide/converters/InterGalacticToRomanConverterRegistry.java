@@ -0,0 +1,207 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry handing out one compiled InterGalacticToRomanConverter per distinct vocabulary and roman numeral rules,
+ * so that merchants uploading the same units share a converter instead of each compiling their own.
+ * Vocabularies are keyed by a digest of their content, whatever map they come in, and the least recently used converter
+ * is evicted once the registry is full, so memory grows with the number of distinct vocabularies and not with merchants.
+ * Converters are immutable once compiled, so a shared one can be used by any number of threads.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class InterGalacticToRomanConverterRegistry {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final InterGalacticToRomanConverterRegistry SHARED = new InterGalacticToRomanConverterRegistry(DEFAULT_CAPACITY);
+
+    private final ConversionCache<VocabularyDigest, InterGalacticToRomanConverter> compiledConverters;
+
+    //Vocabularies being compiled, so callers asking for one meanwhile wait for it instead of compiling it again
+    private final ConcurrentHashMap<VocabularyDigest, CompletableFuture<InterGalacticToRomanConverter>> compilations
+            = new ConcurrentHashMap<>();
+
+    public InterGalacticToRomanConverterRegistry(int capacity) {
+        this.compiledConverters = new ConversionCache<>(capacity);
+    }
+
+    /**
+     * @return registry shared by the whole process
+     */
+    public static InterGalacticToRomanConverterRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Looks up the converter of a vocabulary, compiling it the first time the vocabulary is seen.
+     * The converter keeps its own copy of the units, so the map may be changed afterwards without affecting it.
+     *
+     * @param interGalacticConversionUnits Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
+     * @param romanNumeralRules rules the roman segments have to satisfy
+     * @return converter shared by every caller with the same units and rules
+     */
+    public InterGalacticToRomanConverter converterFor(Map<String, String> interGalacticConversionUnits,
+                                                      RomanNumeralRules romanNumeralRules) {
+        return converterFor(interGalacticConversionUnits, romanNumeralRules, VocabularyLayout.HASHED);
+    }
+
+    /**
+     * Looks up the converter of a vocabulary kept in the given layout, compiling it the first time it is seen,
+     * e.g. PERFECT_HASHED for a large vocabulary that stays the same once its notes are parsed.
+     * The vocabulary is compiled without holding any lock, so a large one only holds up the callers waiting for it;
+     * callers asking for the same vocabulary meanwhile wait for that one compilation.
+     *
+     * @param interGalacticConversionUnits Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
+     * @param romanNumeralRules rules the roman segments have to satisfy
+     * @param layout how the words of the vocabulary are kept
+     * @return converter shared by every caller with the same units, rules and layout
+     */
+    public InterGalacticToRomanConverter converterFor(Map<String, String> interGalacticConversionUnits,
+                                                      RomanNumeralRules romanNumeralRules, VocabularyLayout layout) {
+        VocabularyDigest vocabulary = new VocabularyDigest(interGalacticConversionUnits, romanNumeralRules, layout);
+
+        InterGalacticToRomanConverter converter = compiledConverters.get(vocabulary);
+        if (converter != null)
+            return compiledFrom(converter, interGalacticConversionUnits, romanNumeralRules, layout);
+
+        CompletableFuture<InterGalacticToRomanConverter> compilation = new CompletableFuture<>();
+        CompletableFuture<InterGalacticToRomanConverter> compilationUnderWay = compilations.putIfAbsent(vocabulary, compilation);
+        if (compilationUnderWay != null)
+            return compiledFrom(converterCompiledBy(compilationUnderWay), interGalacticConversionUnits, romanNumeralRules, layout);
+
+        try {
+            //A compilation may have been done with since the converter was looked up
+            converter = compiledConverters.peek(vocabulary);
+            if (converter == null || !converter.getVocabulary().hasTheSameUnitsAs(interGalacticConversionUnits))
+                converter = new InterGalacticToRomanConverter(new HashMap<>(interGalacticConversionUnits), romanNumeralRules, layout);
+            //Cached before the compilation is done with, so a later caller finds it in one or the other
+            compiledConverters.put(vocabulary, converter);
+            compilation.complete(converter);
+            return converter;
+        } catch (RuntimeException | Error e) {
+            compilation.completeExceptionally(e);
+            throw e;
+        } finally {
+            compilations.remove(vocabulary, compilation);
+        }
+    }
+
+    /**
+     * @return the cache of compiled converters, e.g. to read how often a vocabulary was shared
+     */
+    public ConversionCache<?, InterGalacticToRomanConverter> getCompiledConverters() {
+        return compiledConverters;
+    }
+
+    //Number of vocabularies being compiled
+    int compilationsUnderWay() {
+        return compilations.size();
+    }
+
+    /**
+     * A converter found under the digest of a vocabulary is only handed out once its units are found to be the same, as
+     * units may be picked to give the digest of another vocabulary. Otherwise the vocabulary gets a converter of its own,
+     * which is not cached since the digest already stands for the other one.
+     */
+    private static InterGalacticToRomanConverter compiledFrom(InterGalacticToRomanConverter converter,
+                                                              Map<String, String> interGalacticConversionUnits,
+                                                              RomanNumeralRules romanNumeralRules, VocabularyLayout layout) {
+        if (converter.getVocabulary().hasTheSameUnitsAs(interGalacticConversionUnits))
+            return converter;
+        return new InterGalacticToRomanConverter(new HashMap<>(interGalacticConversionUnits), romanNumeralRules, layout);
+    }
+
+    //Waits for a compilation started by another caller, failing as it did
+    private static InterGalacticToRomanConverter converterCompiledBy(CompletableFuture<InterGalacticToRomanConverter> compilation) {
+        try {
+            return compilation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Digest of the content of a vocabulary, whatever map it comes in, which is all the registry keeps of it.
+     * Each unit and its roman equivalent is hashed into two independent 64 bit lanes and the lanes of all of them are
+     * added up, so the digest takes one pass over the map without sorting or copying it. The lanes are not a
+     * cryptographic digest and units can be picked to give the same digest as another vocabulary, so the digest only
+     * finds a candidate converter and the units of the candidate are compared before it is handed out.
+     */
+    static final class VocabularyDigest {
+
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+        private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+        private final long firstLane;
+        private final long secondLane;
+        private final int size;
+        private final RomanNumeralRules romanNumeralRules;
+        private final VocabularyLayout layout;
+
+        VocabularyDigest(Map<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules,
+                         VocabularyLayout layout) {
+            long firstLane = 0;
+            long secondLane = 0;
+            for (Map.Entry<String, String> unit : interGalacticConversionUnits.entrySet()) {
+                //The unit and its roman equivalent are hashed as one text, a character that cannot be in a word between them
+                long firstHash = FNV_OFFSET_BASIS;
+                long secondHash = 0;
+                String interGalacticUnit = unit.getKey();
+                for (int i = 0; i < interGalacticUnit.length(); i++) {
+                    firstHash = (firstHash ^ interGalacticUnit.charAt(i)) * FNV_PRIME;
+                    secondHash = (secondHash + interGalacticUnit.charAt(i)) * GOLDEN_GAMMA;
+                }
+                firstHash = (firstHash ^ ' ') * FNV_PRIME;
+                secondHash = (secondHash + ' ') * GOLDEN_GAMMA;
+                String romanEquivalent = unit.getValue();
+                for (int i = 0; i < romanEquivalent.length(); i++) {
+                    firstHash = (firstHash ^ romanEquivalent.charAt(i)) * FNV_PRIME;
+                    secondHash = (secondHash + romanEquivalent.charAt(i)) * GOLDEN_GAMMA;
+                }
+                firstLane += mix(firstHash);
+                secondLane += mix(secondHash);
+            }
+            this.firstLane = firstLane;
+            this.secondLane = secondLane;
+            this.size = interGalacticConversionUnits.size();
+            this.romanNumeralRules = romanNumeralRules;
+            this.layout = layout;
+        }
+
+        //Spreads every bit of a hash over all the bits, as MurmurHash3 finalizes its hashes
+        private static long mix(long hash) {
+            hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+            hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return hash ^ (hash >>> 33);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+            if (!(other instanceof VocabularyDigest))
+                return false;
+
+            VocabularyDigest vocabulary = (VocabularyDigest) other;
+            return firstLane == vocabulary.firstLane
+                    && secondLane == vocabulary.secondLane
+                    && size == vocabulary.size
+                    && romanNumeralRules == vocabulary.romanNumeralRules
+                    && layout == vocabulary.layout;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) firstLane;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.galaxy.merchant.guide.tokenizers.AsciiCase;
+import com.galaxy.merchant.guide.tokenizers.FrontCodedWordIndex;
+import com.galaxy.merchant.guide.tokenizers.FuzzyWordIndex;
+import com.galaxy.merchant.guide.tokenizers.PerfectHashWordIndex;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import com.galaxy.merchant.guide.tokenizers.WordIndex;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
+
+/**
+ * The intergalactic units of a merchant compiled once into small integer IDs, so that phrases can be carried around
+ * as IDs and words are hashed and compared only once, when they are first looked up.
+ * IDs go from 0 to size() - 1 in alphabetical order of the words ignoring case, so two equal vocabularies give out
+ * the same IDs whatever their layout. Words are matched ignoring the case of ASCII letters, e.g. Glob and GLOB are both glob.
+ * The roman equivalents are kept one after another in primitive arrays, so a unit costs no object besides its word.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class InterGalacticVocabulary {
+
+    //ID of a word that is not an intergalactic unit
+    public static final int UNKNOWN_WORD = WordLookup.UNKNOWN_WORD;
+
+    //Packed phrase of a phrase that has unknown words or too many words to fit in a long
+    public static final long NOT_PACKABLE = -1L;
+
+    //Alphabetical order ignoring case, words differing only in case in their natural order
+    private static final Comparator<String> ORDER_OF_IDS = (a, b) -> {
+        int order = AsciiCase.compare(a, b);
+        return order != 0 ? order : a.compareTo(b);
+    };
+
+    //Roman equivalents of all IDs one after another, the one of an ID being from its start to the next one's
+    private final char[] romanLetters;
+    private final int[] startOfRomanEquivalent;
+
+    //Roman letters of all IDs coded as by RomanSegmentDecoder.codeLetters, one after another likewise
+    private final byte[] codedLetters;
+    private final int[] startOfCodedLetters;
+
+    //ID of each word, and how the words are kept to look them up
+    private final WordLookup interGalacticUnits;
+    private final VocabularyLayout layout;
+
+    //Words a misspelled word may have been meant to be; built the first time a word is corrected, as most vocabularies never are
+    private volatile FuzzyWordIndex misspelledInterGalacticUnits;
+
+    //IDs + 1 are packed into a long this many bits at a time, leaving the sign bit clear
+    private final int bitsPerPackedWord;
+    private final int maxWordsInPackedPhrase;
+
+    public InterGalacticVocabulary(Map<String, String> interGalacticConversionUnits) {
+        this(interGalacticConversionUnits, VocabularyLayout.HASHED);
+    }
+
+    /**
+     * @param interGalacticConversionUnits intergalactic units and their roman equivalent e.g. glob-I
+     * @param layout how the words are kept in memory
+     */
+    public InterGalacticVocabulary(Map<String, String> interGalacticConversionUnits, VocabularyLayout layout) {
+
+        int size = interGalacticConversionUnits.size();
+        String[] interGalacticUnitOfId = interGalacticConversionUnits.keySet().toArray(new String[size]);
+        Arrays.sort(interGalacticUnitOfId, ORDER_OF_IDS);
+
+        int numberOfRomanLetters = 0;
+        for (String interGalacticUnit : interGalacticUnitOfId) {
+            numberOfRomanLetters += interGalacticConversionUnits.get(interGalacticUnit).length();
+        }
+        romanLetters = new char[numberOfRomanLetters];
+        startOfRomanEquivalent = new int[size + 1];
+        codedLetters = new byte[numberOfRomanLetters + size];
+        startOfCodedLetters = new int[size + 1];
+
+        for (int id = 0; id < size; id++) {
+            String romanEquivalent = interGalacticConversionUnits.get(interGalacticUnitOfId[id]);
+            romanEquivalent.getChars(0, romanEquivalent.length(), romanLetters, startOfRomanEquivalent[id]);
+            startOfRomanEquivalent[id + 1] = startOfRomanEquivalent[id] + romanEquivalent.length();
+
+            int[] codedLettersOfId = RomanSegmentDecoder.codeLetters(romanEquivalent);
+            for (int letter = 0; letter < codedLettersOfId.length; letter++) {
+                codedLetters[startOfCodedLetters[id] + letter] = (byte) codedLettersOfId[letter];
+            }
+            startOfCodedLetters[id + 1] = startOfCodedLetters[id] + codedLettersOfId.length;
+        }
+
+        this.layout = layout;
+        switch (layout) {
+            case FRONT_CODED:
+                interGalacticUnits = new FrontCodedWordIndex(interGalacticUnitOfId);
+                break;
+            case PERFECT_HASHED:
+                interGalacticUnits = new PerfectHashWordIndex(interGalacticUnitOfId);
+                break;
+            default:
+                interGalacticUnits = new WordIndex(interGalacticUnitOfId);
+        }
+
+        bitsPerPackedWord = 32 - Integer.numberOfLeadingZeros(size);
+        maxWordsInPackedPhrase = 63 / Math.max(1, bitsPerPackedWord);
+    }
+
+    public VocabularyLayout getLayout() {
+        return layout;
+    }
+
+    public int size() {
+        return interGalacticUnits.size();
+    }
+
+    /**
+     * Looks up the ID of the word spelt by the characters between from and to, without a substring and ignoring case
+     *
+     * @return ID of the word or UNKNOWN_WORD if it is not an intergalactic unit
+     */
+    public int idOf(CharSequence characters, int from, int to) {
+        return interGalacticUnits.idOf(characters, from, to);
+    }
+
+    /**
+     * Looks up the ID of the word the characters between from and to were meant to be, correcting one letter substituted,
+     * inserted, deleted or swapped with the next one
+     *
+     * @return ID of the word, of the closest word within one edit or UNKNOWN_WORD if there is none
+     */
+    public int idOfClosest(CharSequence characters, int from, int to) {
+        int id = idOf(characters, from, to);
+        if (id != UNKNOWN_WORD)
+            return id;
+
+        //Built at most a few times if threads race for it, any of the equal indexes will do
+        FuzzyWordIndex misspelledWords = misspelledInterGalacticUnits;
+        if (misspelledWords == null) {
+            String[] interGalacticUnitOfId = new String[size()];
+            for (int word = 0; word < interGalacticUnitOfId.length; word++) {
+                interGalacticUnitOfId[word] = interGalacticUnitOf(word);
+            }
+            misspelledWords = new FuzzyWordIndex(interGalacticUnitOfId);
+            misspelledInterGalacticUnits = misspelledWords;
+        }
+        return misspelledWords.idOfClosest(characters, from, to);
+    }
+
+    /**
+     * @param interGalacticPhrase e.g. "glob prok"
+     * @return ID of each word of the phrase, UNKNOWN_WORD for words that are not intergalactic units
+     */
+    public int[] idsOf(CharSequence interGalacticPhrase) {
+        Tokenizer words = new Tokenizer().tokenize(interGalacticPhrase);
+        int[] ids = new int[words.size()];
+        for (int word = 0; word < ids.length; word++) {
+            ids[word] = idOf(interGalacticPhrase, words.start(word), words.end(word));
+        }
+        return ids;
+    }
+
+    /**
+     * Packs the IDs of the words of a phrase into a single long, which identifies the phrase within this vocabulary
+     *
+     * @param interGalacticPhrase characters holding the phrase e.g. "glob prok"
+     * @param from index of the first character of the phrase
+     * @param to index after the last character of the phrase
+     * @return the packed phrase or NOT_PACKABLE if the phrase has unknown words or too many words
+     */
+    public long packedPhraseOf(CharSequence interGalacticPhrase, int from, int to) {
+        long packedPhrase = 0;
+        int numberOfWords = 0;
+
+        int startOfWord = Tokenizer.skipSeparators(interGalacticPhrase, from, to);
+        while (startOfWord < to) {
+            int endOfWord = Tokenizer.skipToken(interGalacticPhrase, startOfWord, to);
+
+            int id = idOf(interGalacticPhrase, startOfWord, endOfWord);
+            if (id == UNKNOWN_WORD || ++numberOfWords > maxWordsInPackedPhrase)
+                return NOT_PACKABLE;
+
+            packedPhrase = (packedPhrase << bitsPerPackedWord) | (id + 1);
+            startOfWord = Tokenizer.skipSeparators(interGalacticPhrase, endOfWord, to);
+        }
+        return packedPhrase;
+    }
+
+    /**
+     * Packs a phrase given as the IDs of its words, into the same long as packedPhraseOf its characters
+     *
+     * @param ids IDs of the words e.g. as returned by idsOf("glob prok")
+     * @param from index of the first word of the phrase
+     * @param to index after the last word of the phrase
+     * @return the packed phrase or NOT_PACKABLE if the phrase has unknown words or too many words
+     */
+    public long packedPhraseOf(int[] ids, int from, int to) {
+        if (to - from > maxWordsInPackedPhrase)
+            return NOT_PACKABLE;
+
+        long packedPhrase = 0;
+        for (int word = from; word < to; word++) {
+            if (ids[word] < 0 || ids[word] >= size())
+                return NOT_PACKABLE;
+            packedPhrase = (packedPhrase << bitsPerPackedWord) | (ids[word] + 1);
+        }
+        return packedPhrase;
+    }
+
+    /**
+     * @return the word of an ID, as it was written whatever the layout
+     */
+    public String interGalacticUnitOf(int id) {
+        return interGalacticUnits.wordOf(id);
+    }
+
+    /**
+     * Whether this vocabulary was compiled from the same units as a map, each written the same and standing for the same
+     * roman equivalent, in one pass over the map without sorting or copying it
+     *
+     * @param interGalacticConversionUnits intergalactic units and their roman equivalent e.g. glob-I
+     */
+    public boolean hasTheSameUnitsAs(Map<String, String> interGalacticConversionUnits) {
+        if (interGalacticConversionUnits.size() != size())
+            return false;
+
+        for (Map.Entry<String, String> unit : interGalacticConversionUnits.entrySet()) {
+            String interGalacticUnit = unit.getKey();
+            int id = idOf(interGalacticUnit, 0, interGalacticUnit.length());
+            //Units differing only in case share a lookup, so those are compared as whole maps
+            if (id == UNKNOWN_WORD || !interGalacticUnitOf(id).equals(interGalacticUnit))
+                return interGalacticConversionUnits.equals(interGalacticConversionUnits());
+            if (!isRomanEquivalentOf(id, unit.getValue()))
+                return false;
+        }
+        return true;
+    }
+
+    public String romanEquivalentOf(int id) {
+        return new String(romanLetters, startOfRomanEquivalent[id], startOfRomanEquivalent[id + 1] - startOfRomanEquivalent[id]);
+    }
+
+    //Whether the roman equivalent of an ID is spelt as the given one, without making a string of it
+    private boolean isRomanEquivalentOf(int id, String romanEquivalent) {
+        int start = startOfRomanEquivalent[id];
+        if (startOfRomanEquivalent[id + 1] - start != romanEquivalent.length())
+            return false;
+        for (int i = 0; i < romanEquivalent.length(); i++) {
+            if (romanLetters[start + i] != romanEquivalent.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Map of the units and their roman equivalent e.g. glob-I, made again from the IDs each time it is asked for
+     */
+    public HashMap<String, String> interGalacticConversionUnits() {
+        HashMap<String, String> interGalacticConversionUnits = new HashMap<>();
+        for (int id = 0; id < size(); id++) {
+            interGalacticConversionUnits.put(interGalacticUnitOf(id), romanEquivalentOf(id));
+        }
+        return interGalacticConversionUnits;
+    }
+
+    //Appends the roman equivalent of an ID without making a string of it
+    void appendRomanEquivalentOf(int id, StringBuilder romanSegment) {
+        romanSegment.append(romanLetters, startOfRomanEquivalent[id], startOfRomanEquivalent[id + 1] - startOfRomanEquivalent[id]);
+    }
+
+    //Index of the first coded roman letter of an ID; its letters go up to the first one of the next ID
+    int firstCodedLetterOf(int id) {
+        return startOfCodedLetters[id];
+    }
+
+    //A roman letter coded as by RomanSegmentDecoder.codeLetters
+    int codedLetterAt(int index) {
+        return codedLetters[index];
+    }
+}
@@ -0,0 +1,96 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the numeric values of intergalactic phrases packed into a long, for the primitive conversions.
+ * Each phrase has a single slot, picked by hashing it, and a phrase put into a slot taken by another one replaces it.
+ * Nothing is locked or boxed: a slot holds an immutable entry, so a reader sees either a whole entry or none, and an entry
+ * put by another thread that is not seen yet is merely a miss.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class PackedPhraseCache {
+
+    //Returned by get for a phrase that is not cached, as it is no numeric value nor status code of a conversion
+    public static final long NOT_CACHED = Long.MIN_VALUE;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Entry[] slots;
+    private final int bitsPerSlot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity how many phrases may be cached, rounded up to a power of two
+     */
+    public PackedPhraseCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Cache capacity must be between 1 and 2^30");
+
+        bitsPerSlot = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        slots = new Entry[1 << bitsPerSlot];
+    }
+
+    /**
+     * @param packedPhrase phrase as packed by InterGalacticVocabulary.packedPhraseOf
+     * @return cached numeric value or status code of the phrase, or NOT_CACHED
+     */
+    long get(long packedPhrase) {
+        Entry entry = slots[slotOf(packedPhrase)];
+        if (entry == null || entry.packedPhrase != packedPhrase) {
+            misses.increment();
+            return NOT_CACHED;
+        }
+        hits.increment();
+        return entry.numericValue;
+    }
+
+    /**
+     * @param packedPhrase phrase as packed by InterGalacticVocabulary.packedPhraseOf
+     * @param numericValue numeric value or status code the phrase converts into
+     */
+    void put(long packedPhrase, long numericValue) {
+        int slot = slotOf(packedPhrase);
+        Entry entry = slots[slot];
+        if (entry != null && entry.packedPhrase != packedPhrase) {
+            evictions.increment();
+        }
+        slots[slot] = new Entry(packedPhrase, numericValue);
+    }
+
+    private int slotOf(long packedPhrase) {
+        return bitsPerSlot == 0 ? 0 : (int) ((packedPhrase * GOLDEN_GAMMA) >>> (64 - bitsPerSlot));
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    //Its fields are final, so an entry is seen whole by any thread that sees it at all
+    private static final class Entry {
+
+        private final long packedPhrase;
+        private final long numericValue;
+
+        private Entry(long packedPhrase, long numericValue) {
+            this.packedPhrase = packedPhrase;
+            this.numericValue = numericValue;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.galaxy.merchant.guide.converters;
+
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.C;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.D;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.I;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.L;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.M;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.V;
+import static com.galaxy.merchant.guide.converters.RomanSegmentDecoder.X;
+
+/**
+ * A set of rules a roman segment has to satisfy, declared as data and compiled once into a decoder.
+ * A vocabulary picks its rule set when its converters are created; converting never compiles anything.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class RomanNumeralRules {
+
+    /**
+     * Canonical numerals only e.g. XIV, not XIIV
+     */
+    public static final RomanNumeralRules STRICT = new RomanNumeralRules("strict",
+            new int[] {3, 1, 4, 1, 4, 1, 4},
+            3,
+            new int[] {
+                    bits(L, C, D, M),       //I can be subtracted from V and X only
+                    bits(X, L, C, D, M),    //V can never be subtracted
+                    bits(D, M),             //X can be subtracted from L and C only
+                    bits(C, D, M),          //L can never be subtracted
+                    0,                      //C can be subtracted from D and M
+                    bits(M),                //D can never be subtracted
+                    0
+            },
+            true, true);
+
+    /**
+     * The rules the guide has always applied; canonical numerals and a few others e.g. XIIV = 15
+     */
+    public static final RomanNumeralRules CLASSIC = new RomanNumeralRules("classic",
+            new int[] {4, 1, 4, 1, 4, 1, 4},
+            3,
+            STRICT.lettersNotAllowedAfter,
+            true, false);
+
+    /**
+     * The classic rules with a letter repeated four times in succession, as on clock faces e.g. IIII = 4, MMMM = 4000
+     */
+    public static final RomanNumeralRules LENIENT = new RomanNumeralRules("lenient",
+            CLASSIC.maxOccurrencesOfLetter,
+            4,
+            CLASSIC.lettersNotAllowedAfter,
+            true, false);
+
+    /**
+     * Medieval numerals without any subtraction, letters never increase e.g. VIIII = 9, XXXX = 40
+     */
+    public static final RomanNumeralRules ADDITIVE = new RomanNumeralRules("additive",
+            new int[] {4, 1, 4, 1, 4, 1, 4},
+            4,
+            new int[] {
+                    bits(V, X, L, C, D, M),
+                    bits(X, L, C, D, M),
+                    bits(L, C, D, M),
+                    bits(C, D, M),
+                    bits(D, M),
+                    bits(M),
+                    0
+            },
+            false, false);
+
+    private static final RomanNumeralRules[] RULE_SETS = {STRICT, CLASSIC, LENIENT, ADDITIVE};
+
+    private final String name;
+
+    //Kept so that rule sets can be declared in terms of each other
+    private final int[] maxOccurrencesOfLetter;
+    private final int[] lettersNotAllowedAfter;
+
+    private final RomanSegmentDecoder decoder;
+
+    //Whether every canonical numeral satisfies these rules, so that the canonical table can be used as a shortcut
+    private final boolean acceptsCanonicalNumerals;
+
+    /**
+     * @param maxOccurrencesOfLetter most times each letter, in the order I, V, X, L, C, D, M, may appear in a segment
+     * @param maxRunOfALetter most times a letter may be repeated in succession
+     * @param lettersNotAllowedAfter bit mask of the letters that may not directly follow each letter
+     * @param rejectsOddBalls rejects segments starting with I[IVX] followed by another letter (other than III...) or starting with VI*X
+     * @param keepsCanonicalOrder rejects segments that are not in canonical order e.g. XIIV, XIXI
+     */
+    private RomanNumeralRules(String name, int[] maxOccurrencesOfLetter, int maxRunOfALetter, int[] lettersNotAllowedAfter,
+                              boolean rejectsOddBalls, boolean keepsCanonicalOrder) {
+        this.name = name;
+        this.maxOccurrencesOfLetter = maxOccurrencesOfLetter;
+        this.lettersNotAllowedAfter = lettersNotAllowedAfter;
+
+        decoder = new RomanSegmentDecoder(maxOccurrencesOfLetter, maxRunOfALetter, lettersNotAllowedAfter,
+                rejectsOddBalls, keepsCanonicalOrder);
+
+        boolean acceptsEveryCanonicalNumeral = true;
+        for (int value = 1; value <= CanonicalRomanNumerals.LARGEST_CANONICAL_VALUE && acceptsEveryCanonicalNumeral; value++) {
+            String canonicalForm = CanonicalRomanNumerals.canonicalFormOf(value);
+            acceptsEveryCanonicalNumeral = decoder.decode(canonicalForm, 0, canonicalForm.length()) == value;
+        }
+        acceptsCanonicalNumerals = acceptsEveryCanonicalNumeral;
+    }
+
+    /**
+     * Looks a rule set up by its name
+     *
+     * @param name one of strict, classic, lenient or additive, in any case
+     * @return the rule set
+     * @throws IllegalArgumentException if there is no rule set by that name
+     */
+    public static RomanNumeralRules named(String name) {
+        for (RomanNumeralRules romanNumeralRules : RULE_SETS) {
+            if (romanNumeralRules.name.equalsIgnoreCase(name))
+                return romanNumeralRules;
+        }
+        throw new IllegalArgumentException("Unknown roman numeral rules " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    RomanSegmentDecoder decoder() {
+        return decoder;
+    }
+
+    boolean acceptsCanonicalNumerals() {
+        return acceptsCanonicalNumerals;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int bits(int... letters) {
+        int mask = 0;
+        for (int letter : letters) {
+            mask |= 1 << letter;
+        }
+        return mask;
+    }
+}
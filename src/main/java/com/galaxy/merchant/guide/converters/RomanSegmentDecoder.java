@@ -0,0 +1,284 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.Arrays;
+
+import com.galaxy.merchant.guide.domain.RomanNumerals;
+
+/**
+ * Single pass state machine that validates a roman segment and computes its value, one letter at a time.
+ * The whole state of the machine is packed into a long so that callers can feed it letters from any source
+ * (roman characters, intergalactic words) without allocating anything.
+ *
+ * <p>The state carries, from one letter to the next, everything the rules of a RomanNumeralRules need:
+ *  <ul>
+ *      <li>the number of occurrences of each letter, e.g. so that "D", "L" and "V" are never repeated
+ *      and "I", "X", "C" and "M" appear four times at most</li>
+ *      <li>the length of the current run, e.g. so that no letter is repeated more than three times in succession</li>
+ *      <li>the previous letter, e.g. so that "I" is subtracted from "V" and "X" only, "X" from "L" and "C" only
+ *      and "V", "L" and "D" are never subtracted</li>
+ *      <li>the leading letters, to catch the odd balls that can't be caught by the rules above
+ *      i.e. segments starting with I[IVX] followed by another letter (other than III...) or starting with VI*X</li>
+ *      <li>the letter before the previous one and whether the previous letter ended a subtraction, so that
+ *      letters can be kept in canonical order</li>
+ *  </ul>
+ * A letter that is smaller than the letter following it is subtracted, every other letter is added.
+ * Each rule set is compiled into a decoder once, the decoder itself never changes.
+ *
+ * <p>Beyond 3999, numerals are written with a vinculum: a bar over a letter multiplies it by 1000.
+ * In notes a bar is written as an underscore before the letter, e.g. "_V" = 5000, "__I" = 1000000, "_X_LII" = 40002.
+ * Letters with the same number of bars form a group that has to be a valid numeral on its own, groups have to come
+ * in decreasing number of bars and the value is computed in long arithmetic.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+final class RomanSegmentDecoder {
+
+    //State before the first letter
+    static final long START = 0L;
+
+    //State once any rule is broken; it is never left
+    static final long REJECTED = -1L;
+
+    //Letters of the decoder in the order I, V, X, L, C, D, M; each index also selects a 3 bit occurrence counter
+    static final int I = 0, V = 1, X = 2, L = 3, C = 4, D = 5, M = 6;
+
+    private static final int[] VALUE_OF_LETTER = {
+            RomanNumerals.I.numericValue(), RomanNumerals.V.numericValue(), RomanNumerals.X.numericValue(),
+            RomanNumerals.L.numericValue(), RomanNumerals.C.numericValue(), RomanNumerals.D.numericValue(),
+            RomanNumerals.M.numericValue()
+    };
+
+    //Layout of the state: occurrences | previous letter + 1 | first letter | run length | position | leading V flag
+    //| letter before the previous one + 1 | subtraction flag | value
+    private static final int PREVIOUS_SHIFT = 21, FIRST_SHIFT = 24, RUN_SHIFT = 27, POSITION_SHIFT = 30, LEADING_V_SHIFT = 32;
+    private static final int BEFORE_PREVIOUS_SHIFT = 33, SUBTRACTION_SHIFT = 36;
+    private static final int VALUE_SHIFT = 37;
+    private static final long OCCURRENCES_MASK = (1L << PREVIOUS_SHIFT) - 1;
+
+    //Written before a letter once per bar of its vinculum
+    static final char VINCULUM = '_';
+
+    //The largest number of bars a letter may carry, so that any numeral fits in a long
+    static final int MAX_BARS_OF_VINCULUM = 5;
+
+    private static final long[] MULTIPLIER_OF_BARS = {1L, 1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L, 1_000_000_000_000_000L};
+
+    //Letters with a vinculum are coded as bars * 8 + index of the letter
+    private static final int BARS_SHIFT = 3;
+
+    //The rules this decoder was compiled from
+    private final int[] maxOccurrencesOfLetter;
+    private final int maxRunOfALetter;
+    private final int[] lettersNotAllowedAfter;
+    private final boolean rejectsOddBalls;
+    private final boolean keepsCanonicalOrder;
+
+    RomanSegmentDecoder(int[] maxOccurrencesOfLetter, int maxRunOfALetter, int[] lettersNotAllowedAfter,
+                        boolean rejectsOddBalls, boolean keepsCanonicalOrder) {
+        this.maxOccurrencesOfLetter = maxOccurrencesOfLetter.clone();
+        this.maxRunOfALetter = maxRunOfALetter;
+        this.lettersNotAllowedAfter = lettersNotAllowedAfter.clone();
+        this.rejectsOddBalls = rejectsOddBalls;
+        this.keepsCanonicalOrder = keepsCanonicalOrder;
+    }
+
+    /**
+     * Moves the state machine on by one letter
+     *
+     * @param state state after the letters seen so far
+     * @param letter index of the next letter, as returned by indexOfLetter
+     * @return state after the letter, REJECTED if the letter is not a roman letter or breaks any of the rules
+     */
+    long next(long state, int letter) {
+
+        if(state == REJECTED || letter < 0)
+            return REJECTED;
+
+        //Repetition rules
+        long occurrences = (state & OCCURRENCES_MASK) + (1L << (3 * letter));
+        if(((occurrences >>> (3 * letter)) & 7) > maxOccurrencesOfLetter[letter])
+            return REJECTED;
+
+        int previousLetter = (int) ((state >>> PREVIOUS_SHIFT) & 7) - 1;
+        int runLength = (letter == previousLetter) ? (int) ((state >>> RUN_SHIFT) & 7) + 1 : 1;
+        if(runLength > maxRunOfALetter)
+            return REJECTED;
+
+        //Subtraction rules
+        if(previousLetter >= 0 && (lettersNotAllowedAfter[previousLetter] & (1 << letter)) != 0)
+            return REJECTED;
+
+        //Odd balls
+        int position = (int) ((state >>> POSITION_SHIFT) & 3);
+        int firstLetter = (int) ((state >>> FIRST_SHIFT) & 7);
+        boolean onlyIsSinceLeadingV = ((state >>> LEADING_V_SHIFT) & 1) != 0;
+        if(position == 0) {
+            firstLetter = letter;
+            onlyIsSinceLeadingV = letter == V;
+        } else if(onlyIsSinceLeadingV) {
+            if(letter == X && rejectsOddBalls)
+                return REJECTED;
+            onlyIsSinceLeadingV = letter == I;
+        }
+        if(rejectsOddBalls && position == 2 && firstLetter == I && previousLetter <= X
+                && !(previousLetter == I && letter == I))
+            return REJECTED;
+
+        //Canonical order: a letter is only subtracted from the letter following it if nothing smaller than that
+        //letter comes before it, and only letters smaller than the subtracted letter come after the subtraction
+        int letterBeforePrevious = (int) ((state >>> BEFORE_PREVIOUS_SHIFT) & 7) - 1;
+        boolean afterSubtraction = ((state >>> SUBTRACTION_SHIFT) & 1) != 0;
+        boolean subtraction = previousLetter >= 0 && previousLetter < letter;
+        if(keepsCanonicalOrder && ((afterSubtraction && letter >= letterBeforePrevious)
+                || (subtraction && letterBeforePrevious >= 0 && letterBeforePrevious < letter)))
+            return REJECTED;
+
+        //Add the letter, taking back twice the previous letter if it turns out to have been a subtraction
+        long numericValue = (state >>> VALUE_SHIFT) + VALUE_OF_LETTER[letter];
+        if(subtraction)
+            numericValue -= 2 * VALUE_OF_LETTER[previousLetter];
+
+        return (numericValue << VALUE_SHIFT)
+                | (subtraction ? 1L << SUBTRACTION_SHIFT : 0L)
+                | ((long) (previousLetter + 1) << BEFORE_PREVIOUS_SHIFT)
+                | (onlyIsSinceLeadingV ? 1L << LEADING_V_SHIFT : 0L)
+                | ((long) Math.min(position + 1, 3) << POSITION_SHIFT)
+                | ((long) runLength << RUN_SHIFT)
+                | ((long) firstLetter << FIRST_SHIFT)
+                | ((long) (letter + 1) << PREVIOUS_SHIFT)
+                | occurrences;
+    }
+
+    /**
+     * @param state state after the last letter of a segment
+     * @return numeric value of the segment or RomanToArabicConverter.INVALID_SEGMENT if it was rejected or empty
+     */
+    static int valueOf(long state) {
+        if(state == REJECTED || state == START)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+        return (int) (state >>> VALUE_SHIFT);
+    }
+
+    /**
+     * Validates and computes the numeric value of the roman segment between from and to in a single left to right pass
+     *
+     * @param romanSegment characters holding the roman segment
+     * @param from index of the first letter of the segment
+     * @param to index after the last letter of the segment
+     * @return numeric value of the segment or RomanToArabicConverter.INVALID_SEGMENT if it is empty or breaks any of the rules
+     */
+    int decode(CharSequence romanSegment, int from, int to) {
+        long state = START;
+        for(int i = from; i < to && state != REJECTED; i++) {
+            state = next(state, indexOfLetter(romanSegment.charAt(i)));
+        }
+        return valueOf(state);
+    }
+
+    /**
+     * Validates and computes the numeric value of a roman segment that may use the vinculum, in a single left to right pass
+     *
+     * @param romanSegment characters holding the roman segment e.g. "_X_LII"
+     * @param from index of the first letter of the segment
+     * @param to index after the last letter of the segment
+     * @return numeric value of the segment or RomanToArabicConverter.INVALID_SEGMENT if it is empty or breaks any of the rules
+     */
+    long decodeExtended(CharSequence romanSegment, int from, int to) {
+        long numericValue = 0;
+        long stateOfGroup = START;
+        int barsOfGroup = -1;
+        int bars = 0;
+
+        for(int i = from; i < to; i++) {
+            char romanLetter = romanSegment.charAt(i);
+            if(romanLetter == VINCULUM) {
+                bars++;
+                continue;
+            }
+
+            if(bars != barsOfGroup) {
+                numericValue = addGroup(numericValue, stateOfGroup, barsOfGroup, bars);
+                if(numericValue < 0)
+                    return RomanToArabicConverter.INVALID_SEGMENT;
+                stateOfGroup = START;
+                barsOfGroup = bars;
+            }
+
+            stateOfGroup = next(stateOfGroup, indexOfLetter(romanLetter));
+            if(stateOfGroup == REJECTED)
+                return RomanToArabicConverter.INVALID_SEGMENT;
+            bars = 0;
+        }
+
+        //A segment ending with a bar or with no letters at all
+        if(bars != 0 || barsOfGroup < 0)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+
+        return addGroup(numericValue, stateOfGroup, barsOfGroup, -1);
+    }
+
+    /**
+     * Adds the value of a finished group of letters to the value of the groups before it
+     *
+     * @param numericValue value of the groups before
+     * @param stateOfGroup state after the last letter of the group
+     * @param barsOfGroup bars over the letters of the group, -1 before the first group
+     * @param barsOfNextGroup bars over the letters of the group that follows, -1 at the end of the segment
+     * @return value of the groups so far or RomanToArabicConverter.INVALID_SEGMENT if the group is not a valid numeral
+     * or the next group does not have fewer bars
+     */
+    static long addGroup(long numericValue, long stateOfGroup, int barsOfGroup, int barsOfNextGroup) {
+        if(barsOfNextGroup > MAX_BARS_OF_VINCULUM)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+
+        if(barsOfGroup < 0)
+            return numericValue;
+
+        int valueOfGroup = valueOf(stateOfGroup);
+        if(valueOfGroup < 0 || barsOfNextGroup >= barsOfGroup)
+            return RomanToArabicConverter.INVALID_SEGMENT;
+
+        return numericValue + valueOfGroup * MULTIPLIER_OF_BARS[barsOfGroup];
+    }
+
+    /**
+     * Codes the letters of a roman equivalent, with their vinculum, once so that they can be fed to the decoder directly
+     *
+     * @param romanEquivalent e.g. "I", "_V"
+     * @return bars * 8 + index of each letter or -1 for characters that are not roman letters
+     */
+    static int[] codeLetters(String romanEquivalent) {
+        int[] codedLetters = new int[romanEquivalent.length()];
+        int numberOfLetters = 0;
+        int bars = 0;
+        for(int i = 0; i < romanEquivalent.length(); i++) {
+            char romanLetter = romanEquivalent.charAt(i);
+            if(romanLetter == VINCULUM) {
+                bars++;
+                continue;
+            }
+            int letter = indexOfLetter(romanLetter);
+            codedLetters[numberOfLetters++] = (letter < 0 || bars > MAX_BARS_OF_VINCULUM) ? -1 : (bars << BARS_SHIFT) | letter;
+            bars = 0;
+        }
+        if(bars != 0 || numberOfLetters == 0)
+            return new int[] {-1};
+        return Arrays.copyOf(codedLetters, numberOfLetters);
+    }
+
+    //Bars over a coded letter
+    static int barsOf(int codedLetter) {
+        return codedLetter >>> BARS_SHIFT;
+    }
+
+    //Index of a coded letter, -1 if it is not a roman letter
+    static int letterOf(int codedLetter) {
+        return codedLetter < 0 ? -1 : codedLetter & 7;
+    }
+
+    //Index of a roman letter in the order I, V, X, L, C, D, M or -1 if it is not a roman letter
+    static int indexOfLetter(char romanLetter) {
+        //The ordinals follow the sentinel Z, which is what any other character maps to
+        return RomanNumerals.ordinalOf(romanLetter) - 1;
+    }
+}
@@ -1,23 +1,13 @@
 package com.galaxy.merchant.guide.converters;
 
-import static com.galaxy.merchant.guide.domain.RomanNumerals.C;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.D;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.I;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.L;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.M;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.V;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.X;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.Z;
-import static com.galaxy.merchant.guide.domain.RomanNumerals.valueOf;
-import static org.apache.commons.lang3.StringUtils.countMatches;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNoneBlank;
 
-import java.util.Arrays;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import com.galaxy.merchant.guide.domain.RomanNumerals;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
-import org.apache.commons.lang3.ArrayUtils;
 
 /**
  * Converter to convert a roman numeric into arabic numeric.
@@ -26,155 +16,173 @@ import org.apache.commons.lang3.ArrayUtils;
  */
 public class RomanToArabicConverter {
 
-    private static String MORE_THAN_3_IN_A_ROW_I = "(I{4,}+)";
-    private static String MORE_THAN_3_IN_A_ROW_X = "(X{4,}+)";
-    private static String MORE_THAN_3_IN_A_ROW_C = "(C{4,}+)";
-    private static String MORE_THAN_3_IN_A_ROW_M = "(M{4,}+)";
+    //Status of a segment in a batch that was converted successfully
+    public static final int CONVERTED = 0;
 
-    private static String I_CANNOT_BE_SUBTRACTED_FROM_L_C_D_M = "I[LCDM]";
-    private static String X_CANNOT_BE_SUBTRACTED_FROM_D_M = "X[DM]";
-    private static String V_CANNOT_BE_SUBTRACTED_FROM_ANYTHING = "V[XLCDM]";
-    private static String L_CANNOT_BE_SUBTRACTED_FROM_ANYTHING = "L[CDM]";
-    private static String D_CANNOT_BE_SUBTRACTED_FROM_ANYTHING = "D[M]";
+    //Returned by the primitive conversions when a segment breaks any of the roman numeric rules
+    public static final int INVALID_SEGMENT = -1;
 
-    private static String AN_ODD_BALL = "(^(?!III)I[IVX][IVXLCDM])|(^VI*X[IVXLCDM]*)";
+    //Status of a segment in a batch that is null, empty or blank
+    public static final int ABSENT_SEGMENT = -3;
+
+    //Batches up to this many segments are converted on the calling thread
+    public static final int DEFAULT_PARALLEL_BATCH_THRESHOLD = 8192;
+
+    //Batches larger than this are split into chunks of at most this many segments and converted in the fork/join pool
+    private final int parallelBatchThreshold;
+
+    private final ForkJoinPool forkJoinPool;
+
+    //Rules the roman segments have to satisfy
+    private final RomanNumeralRules romanNumeralRules;
+
+    private final RomanSegmentDecoder decoder;
+
+    public RomanToArabicConverter() {
+        this(RomanNumeralRules.CLASSIC);
+    }
+
+    public RomanToArabicConverter(RomanNumeralRules romanNumeralRules) {
+        this(romanNumeralRules, DEFAULT_PARALLEL_BATCH_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public RomanToArabicConverter(int parallelBatchThreshold, ForkJoinPool forkJoinPool) {
+        this(RomanNumeralRules.CLASSIC, parallelBatchThreshold, forkJoinPool);
+    }
+
+    public RomanToArabicConverter(RomanNumeralRules romanNumeralRules, int parallelBatchThreshold, ForkJoinPool forkJoinPool) {
+        if (parallelBatchThreshold < 1)
+            throw new IllegalArgumentException("Parallel batch threshold must be at least 1");
+
+        this.romanNumeralRules = romanNumeralRules;
+        this.decoder = romanNumeralRules.decoder();
+        this.parallelBatchThreshold = parallelBatchThreshold;
+        this.forkJoinPool = forkJoinPool;
+    }
 
     /**
      * Converts a roman segment into its numeric value.
      *
      * @param romanSegment valid roman segment
      * @return equivalent numeric value
-     * @throws InvalidInputFormatException if the roman segment does not satisfy roman numeric rules
+     * @throws InvalidInputFormatException if the roman segment does not satisfy the roman numeral rules of this converter
      */
     public Integer convertRomanSegmentIntoNumericValue(String romanSegment) throws InvalidInputFormatException {
 
-        checkForValidRomanSegment(romanSegment);
-        verifyRepetitionRulesOnTheSegment(romanSegment);
-        verifySubtractionRulesOnTheSegment(romanSegment);
-        verifyTheSegmentIsNotAnOddBall(romanSegment);
-
-        Character[] romanLettersFromTheSegment = ArrayUtils.toObject(romanSegment.toCharArray());
-        return computeNumericValueOfARomanSegment(romanLettersFromTheSegment);
+        if(!isNoneBlank(romanSegment))
+            throw new InvalidInputFormatException("Input segment is absent");
 
-    }
+        int numericValue = toArabic(romanSegment, 0, romanSegment.length());
 
-    //Catch all other combinations that can't be caught by the rules
-    private void verifyTheSegmentIsNotAnOddBall(String romanSegment) throws InvalidInputFormatException {
-        //Odd ball pattern
-        if(Pattern.compile(AN_ODD_BALL).matcher(romanSegment).find())
+        if(numericValue == INVALID_SEGMENT)
             throw new InvalidInputFormatException("Input segment is invalid");
+
+        return numericValue;
     }
 
     /**
-     * Checks that the roman segment is not null, blank or empty
-     * @param romanSegment Roman numeric segment
-     * @throws InvalidInputFormatException  if the roman segment is null, blank or empty
+     * Converts the roman segment between from and to into its numeric value without allocating anything.
+     *
+     * @param romanSegment characters holding the roman segment e.g. "MCMXCIV"
+     * @param from index of the first letter of the segment
+     * @param to index after the last letter of the segment
+     * @return equivalent numeric value or INVALID_SEGMENT if the segment is empty or does not satisfy the roman numeral rules
      */
-    private void checkForValidRomanSegment(String romanSegment) throws InvalidInputFormatException {
-        if(!isNoneBlank(romanSegment))
-            throw new InvalidInputFormatException("Input segment is absent");
+    public int toArabic(CharSequence romanSegment, int from, int to) {
 
-        Character[] romanLettersFromTheSegment = ArrayUtils.toObject(romanSegment.toCharArray());
+        //Canonical numerals are looked up if the rules accept them, anything else is left to the decoder to validate and compute
+        int numericValue = CanonicalRomanNumerals.NOT_CANONICAL;
+        if(romanNumeralRules.acceptsCanonicalNumerals())
+            numericValue = CanonicalRomanNumerals.valueOf(romanSegment, from, to);
+        if(numericValue == CanonicalRomanNumerals.NOT_CANONICAL)
+            numericValue = decoder.decode(romanSegment, from, to);
 
-        try {
-            Arrays.stream(romanLettersFromTheSegment).forEach(r -> valueOf(r.toString()).numericValue());
-        } catch (IllegalArgumentException e) {
-            throw new InvalidInputFormatException("Input segment is invalid");
-        }
+        return numericValue;
     }
 
     /**
-     * Verifies the following rules of a valid roman numeric
-     *  <ul>
-     *      <li>The symbols"D", "L", and "V" can never be repeated</li>
-     *      <li>The symbols"I", "X", "C", and "M" can be repeated three times in succession, but no more</li>
-     *      <li>They may appear four times if the third and fourth are separated by a smaller value</li>
-     *  </ul>
-     * @param romanSegment Roman numeric Segment
-     * @throws InvalidInputFormatException if the roman numeric violates any of the rules of repetition
+     * Converts the roman segment between from and to into its numeric value, allowing letters with a vinculum
+     * written as a leading underscore per bar e.g. "_V" = 5000, so that values go beyond 3999. Nothing is allocated.
+     *
+     * @param romanSegment characters holding the roman segment e.g. "_X_LII"
+     * @param from index of the first letter of the segment
+     * @param to index after the last letter of the segment
+     * @return equivalent numeric value e.g. 40002 or INVALID_SEGMENT if the segment is empty or does not satisfy roman numeric rules
      */
-    private void verifyRepetitionRulesOnTheSegment(String romanSegment) throws InvalidInputFormatException {
-        //"D", "L", and "V" can never be repeated.
-        if (countMatches(romanSegment, D.name()) > 1 ||
-                countMatches(romanSegment, L.name()) > 1 ||
-                countMatches(romanSegment, V.name()) > 1) {
-            throw new InvalidInputFormatException("Input segment is invalid");
-        }
+    public long toArabicExtended(CharSequence romanSegment, int from, int to) {
+        return decoder.decodeExtended(romanSegment, from, to);
+    }
 
-        //"D", "L", and "V" can never be repeated.
-        if (countMatches(romanSegment, I.name()) > 4 ||
-                countMatches(romanSegment, X.name()) > 4 ||
-                countMatches(romanSegment, C.name()) > 4 ||
-                countMatches(romanSegment, M.name()) > 4) {
-            throw new InvalidInputFormatException("Input segment is invalid");
-        }
+    /**
+     * Converts a batch of roman segments into their numeric values.
+     * Batches larger than the parallel batch threshold are split across the fork/join pool.
+     *
+     * @param romanSegments roman segments e.g. a ledger of numerals
+     * @return numeric value and status of each segment, in the order of the segments
+     */
+    public ConvertedRomanSegments convertRomanSegmentsIntoNumericValues(CharSequence[] romanSegments) {
 
-        //"I", "X", "C", and "M" can be repeated three times in succession, but no more.
-        if(Pattern.compile(MORE_THAN_3_IN_A_ROW_I).matcher(romanSegment).find() ||
-                Pattern.compile(MORE_THAN_3_IN_A_ROW_X).matcher(romanSegment).find() ||
-                Pattern.compile(MORE_THAN_3_IN_A_ROW_C).matcher(romanSegment).find() ||
-                Pattern.compile(MORE_THAN_3_IN_A_ROW_M).matcher(romanSegment).find())
-            throw new InvalidInputFormatException("Input segment is invalid");
+        ConvertedRomanSegments convertedRomanSegments = new ConvertedRomanSegments(romanSegments.length);
 
+        if (romanSegments.length <= parallelBatchThreshold) {
+            convertRange(romanSegments, 0, romanSegments.length, convertedRomanSegments);
+        } else {
+            forkJoinPool.invoke(new ConvertRangeOfSegments(romanSegments, 0, romanSegments.length, convertedRomanSegments));
+        }
+        return convertedRomanSegments;
     }
 
     /**
-     * Verifies the following subtraction rules of a valid roman numeric
-     *  <ul>
-     *      <li>"I" can be subtracted from "V" and "X" only.  </li>
-     *      <li>"X" can be subtracted from "L" and "C" only.</li>
-     *      <li>"C" can be subtracted from "D" and "M" only. </li>
-     *      <li>"V", "L", and "D" can never be subtracted. </li>
-     *  </ul>
-     * @param romanSegment
-     * @throws InvalidInputFormatException if the roman numeric violates any of the rules of repetition
+     * Converts a batch of roman segments into their numeric values.
+     *
+     * @param romanSegments roman segments e.g. a ledger of numerals
+     * @return numeric value and status of each segment, in the order of the segments
+     * @see #convertRomanSegmentsIntoNumericValues(CharSequence[])
      */
-    private void verifySubtractionRulesOnTheSegment(String romanSegment) throws InvalidInputFormatException {
-
-        if(Pattern.compile(I_CANNOT_BE_SUBTRACTED_FROM_L_C_D_M).matcher(romanSegment).find() ||
-                Pattern.compile(X_CANNOT_BE_SUBTRACTED_FROM_D_M).matcher(romanSegment).find() ||
-                Pattern.compile(V_CANNOT_BE_SUBTRACTED_FROM_ANYTHING).matcher(romanSegment).find() ||
-                Pattern.compile(L_CANNOT_BE_SUBTRACTED_FROM_ANYTHING).matcher(romanSegment).find() ||
-                Pattern.compile(D_CANNOT_BE_SUBTRACTED_FROM_ANYTHING).matcher(romanSegment).find()
-                )
-            throw new InvalidInputFormatException("Input segment is invalid");
+    public ConvertedRomanSegments convertRomanSegmentsIntoNumericValues(List<? extends CharSequence> romanSegments) {
+        return convertRomanSegmentsIntoNumericValues(romanSegments.toArray(new CharSequence[romanSegments.size()]));
+    }
+
+    private void convertRange(CharSequence[] romanSegments, int from, int to, ConvertedRomanSegments convertedRomanSegments) {
+        for (int i = from; i < to; i++) {
+            CharSequence romanSegment = romanSegments[i];
+            if (isBlank(romanSegment)) {
+                convertedRomanSegments.record(i, ABSENT_SEGMENT);
+            } else {
+                convertedRomanSegments.record(i, toArabic(romanSegment, 0, romanSegment.length()));
+            }
+        }
     }
 
     /**
-     * Computes the numeric value from the roman letters and its numerical equivalent by applying the addition/subtraction rules.
-     *
-     * @param romanLettersFromTheSegment Roman segment split into roman characters
-     * @return numericEquivalent of the Roman numeric segment
+     * Converts a range of a batch, halving it until it is no larger than the parallel batch threshold
      */
-    private Integer computeNumericValueOfARomanSegment(Character[] romanLettersFromTheSegment) {
-        //Init the sum to zero as there is no zero in roman numeric
-        Integer numericValue = 0;
-        RomanNumerals letterAtCurrentPos;
-        RomanNumerals letterAtNextPos = Z;
-
-        Integer valueToAdd;
+    private class ConvertRangeOfSegments extends RecursiveAction {
 
-        int j;
+        private static final long serialVersionUID = 1L;
 
-        //Iterate through the segment two chars at a time  - to compare and subtract if need be
-        for(int i =0; i < romanLettersFromTheSegment.length; i += j) {
-            letterAtCurrentPos = valueOf(romanLettersFromTheSegment[i].toString());
+        private final CharSequence[] romanSegments;
+        private final int from;
+        private final int to;
+        private final ConvertedRomanSegments convertedRomanSegments;
 
-            if((i + 1) < romanLettersFromTheSegment.length)
-                letterAtNextPos = valueOf(romanLettersFromTheSegment[i + 1].toString());
+        ConvertRangeOfSegments(CharSequence[] romanSegments, int from, int to, ConvertedRomanSegments convertedRomanSegments) {
+            this.romanSegments = romanSegments;
+            this.from = from;
+            this.to = to;
+            this.convertedRomanSegments = convertedRomanSegments;
+        }
 
-            //If letter at i is less than letter at i + 1, then subtract before adding to the cumulative value
-            if(letterAtCurrentPos.compare(letterAtNextPos)) {
-                valueToAdd = letterAtNextPos.numericValue() - letterAtCurrentPos.numericValue();
-                j = 2;       //skip the next character as it has already been subtracted
+        @Override
+        protected void compute() {
+            if (to - from <= parallelBatchThreshold) {
+                convertRange(romanSegments, from, to, convertedRomanSegments);
             } else {
-                valueToAdd = letterAtCurrentPos.numericValue();
-                j = 1;
+                int middle = (from + to) >>> 1;
+                invokeAll(new ConvertRangeOfSegments(romanSegments, from, middle, convertedRomanSegments),
+                        new ConvertRangeOfSegments(romanSegments, middle, to, convertedRomanSegments));
             }
-
-            numericValue += valueToAdd;
         }
-        return numericValue;
     }
 
 }
@@ -0,0 +1,28 @@
+package com.galaxy.merchant.guide.converters;
+
+/**
+ * How the words of an InterGalacticVocabulary are kept in memory. All layouts give out the same IDs and convert
+ * the same; they only trade memory and the time it takes to build the vocabulary against the time it takes to look
+ * a word up.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public enum VocabularyLayout {
+
+    /**
+     * A string per word in a hash table; quick to build and to look words up in, about fifty bytes per word
+     */
+    HASHED,
+
+    /**
+     * Words front coded in lower case in a few primitive arrays, for vocabularies of millions of words; a word is
+     * looked up by binary search, costing a few bytes per word plus its letters not shared with the word before it
+     */
+    FRONT_CODED,
+
+    /**
+     * Words hashed without collisions by a hash compiled for the vocabulary, for large stable vocabularies; a word is
+     * looked up in a single slot without probing, at the cost of compiling the hash when the vocabulary is built
+     */
+    PERFECT_HASHED
+}
@@ -0,0 +1,40 @@
+package com.galaxy.merchant.guide.credits;
+
+/**
+ * How the prices of the transactions noted for the same earth material are put together into its price. Each one is
+ * worked out as the notes stream in, keeping the same few numbers per material however many transactions are noted.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public enum PriceAggregation {
+
+    /**
+     * The price of the last transaction noted
+     */
+    LATEST,
+
+    /**
+     * The mean of the prices of the transactions, each transaction counting the same
+     */
+    MEAN,
+
+    /**
+     * All the credits noted divided by all the quantity noted, so large transactions count for more
+     */
+    VOLUME_WEIGHTED_MEAN,
+
+    /**
+     * The lowest price noted
+     */
+    MIN,
+
+    /**
+     * The highest price noted
+     */
+    MAX,
+
+    /**
+     * The median of the prices noted, within PriceSketch.RELATIVE_ACCURACY of it
+     */
+    MEDIAN
+}
@@ -0,0 +1,188 @@
+package com.galaxy.merchant.guide.credits;
+
+import java.math.BigInteger;
+
+/**
+ * Price of an earth material aggregated from the transactions noted for it, updated as each one is noted. Only what
+ * the aggregation needs is kept, the same few numbers however many transactions there are, and aggregators of parts
+ * of a ledger can be merged.
+ *
+ * <p>Prices are exact but for the median, read from a PriceSketch, which is the exact price noted when all the prices
+ * noted are the same. The mean is summed as an exact fraction, in longs until it no longer fits in them; its quantity
+ * divides the least common multiple of the quantities noted, so it grows with how many different quantities there
+ * are, not with how many transactions. A mean that does not fit in longs is the closest fraction of longs to it.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class PriceAggregator {
+
+    private final PriceAggregation priceAggregation;
+
+    private long numberOfPrices;
+    private UnitPrice latestPrice;
+    private UnitPrice lowestPrice;
+    private UnitPrice highestPrice;
+
+    //Sum of the prices for the mean in lowest terms, in BigIntegers once it no longer fits in longs
+    private long creditsOfSumOfPrices;
+    private long quantityOfSumOfPrices = 1;
+    private BigInteger largeCreditsOfSumOfPrices;
+    private BigInteger largeQuantityOfSumOfPrices;
+
+    //All the credits and quantity for the volume weighted mean
+    private long totalCredits;
+    private long totalQuantity;
+
+    //Prices noted for the median only
+    private final PriceSketch priceSketch;
+
+    public PriceAggregator(PriceAggregation priceAggregation) {
+        this.priceAggregation = priceAggregation;
+        this.priceSketch = priceAggregation == PriceAggregation.MEDIAN ? new PriceSketch() : null;
+    }
+
+    /**
+     * Notes the price of a transaction
+     *
+     * @param credits credits of the transaction, not negative
+     * @param quantity quantity of the material transacted, positive
+     * @throws ArithmeticException if the credits or quantity noted altogether are more than a long can count
+     */
+    public void add(long credits, long quantity) {
+        UnitPrice price = UnitPrice.of(credits, quantity);
+
+        switch (priceAggregation) {
+            case MEAN:
+                addToSumOfPrices(price.getCredits(), price.getQuantity());
+                break;
+            case VOLUME_WEIGHTED_MEAN:
+                totalCredits = Math.addExact(totalCredits, credits);
+                totalQuantity = Math.addExact(totalQuantity, quantity);
+                break;
+            case MEDIAN:
+                priceSketch.add(price.doubleValue());
+                break;
+            default:
+                break;
+        }
+
+        numberOfPrices++;
+        latestPrice = price;
+        if (lowestPrice == null || price.compareTo(lowestPrice) < 0)
+            lowestPrice = price;
+        if (highestPrice == null || price.compareTo(highestPrice) > 0)
+            highestPrice = price;
+    }
+
+    /**
+     * Adds the prices of another aggregator to this one, as if they had been noted after the ones noted in this one
+     *
+     * @throws IllegalArgumentException if the other aggregator aggregates prices differently
+     * @throws ArithmeticException if the credits or quantity noted altogether are more than a long can count
+     */
+    public void merge(PriceAggregator other) {
+        if (other.priceAggregation != priceAggregation)
+            throw new IllegalArgumentException("Cannot merge the " + other.priceAggregation + " of prices into their " + priceAggregation);
+        if (other.numberOfPrices == 0)
+            return;
+
+        if (priceAggregation == PriceAggregation.MEAN) {
+            if (other.largeQuantityOfSumOfPrices == null)
+                addToSumOfPrices(other.creditsOfSumOfPrices, other.quantityOfSumOfPrices);
+            else
+                addToSumOfPrices(other.largeCreditsOfSumOfPrices, other.largeQuantityOfSumOfPrices);
+        }
+        totalCredits = Math.addExact(totalCredits, other.totalCredits);
+        totalQuantity = Math.addExact(totalQuantity, other.totalQuantity);
+        if (priceSketch != null)
+            priceSketch.merge(other.priceSketch);
+
+        numberOfPrices += other.numberOfPrices;
+        latestPrice = other.latestPrice;
+        if (lowestPrice == null || other.lowestPrice.compareTo(lowestPrice) < 0)
+            lowestPrice = other.lowestPrice;
+        if (highestPrice == null || other.highestPrice.compareTo(highestPrice) > 0)
+            highestPrice = other.highestPrice;
+    }
+
+    /**
+     * @return the price aggregated from the prices noted so far, or null if none was noted
+     */
+    public UnitPrice price() {
+        if (numberOfPrices == 0)
+            return null;
+        if (lowestPrice.equals(highestPrice))
+            return lowestPrice;
+
+        switch (priceAggregation) {
+            case MEAN:
+                if (largeQuantityOfSumOfPrices == null)
+                    return UnitPrice.of(BigInteger.valueOf(creditsOfSumOfPrices),
+                            BigInteger.valueOf(quantityOfSumOfPrices).multiply(BigInteger.valueOf(numberOfPrices)));
+                return UnitPrice.of(largeCreditsOfSumOfPrices, largeQuantityOfSumOfPrices.multiply(BigInteger.valueOf(numberOfPrices)));
+            case VOLUME_WEIGHTED_MEAN:
+                return UnitPrice.of(totalCredits, totalQuantity);
+            case MIN:
+                return lowestPrice;
+            case MAX:
+                return highestPrice;
+            case MEDIAN:
+                //Kept between the lowest and highest prices noted, which the middle of their buckets may not be
+                double median = priceSketch.quantile(0.5);
+                if (median <= lowestPrice.doubleValue())
+                    return lowestPrice;
+                if (median >= highestPrice.doubleValue())
+                    return highestPrice;
+                return UnitPrice.of(median);
+            default:
+                return latestPrice;
+        }
+    }
+
+    public long getNumberOfPrices() {
+        return numberOfPrices;
+    }
+
+    public PriceAggregation getPriceAggregation() {
+        return priceAggregation;
+    }
+
+    private void addToSumOfPrices(long credits, long quantity) {
+        if (largeQuantityOfSumOfPrices == null) {
+            long divisor = greatestCommonDivisor(quantityOfSumOfPrices, quantity);
+            try {
+                long creditsOfSum = Math.addExact(Math.multiplyExact(creditsOfSumOfPrices, quantity / divisor),
+                        Math.multiplyExact(credits, quantityOfSumOfPrices / divisor));
+                long quantityOfSum = Math.multiplyExact(quantityOfSumOfPrices, quantity / divisor);
+                long reducing = greatestCommonDivisor(creditsOfSum, quantityOfSum);
+                creditsOfSumOfPrices = creditsOfSum / reducing;
+                quantityOfSumOfPrices = quantityOfSum / reducing;
+                return;
+            } catch (ArithmeticException e) {
+                //Summed in BigIntegers from now on
+            }
+        }
+        addToSumOfPrices(BigInteger.valueOf(credits), BigInteger.valueOf(quantity));
+    }
+
+    private void addToSumOfPrices(BigInteger credits, BigInteger quantity) {
+        if (largeQuantityOfSumOfPrices == null) {
+            largeCreditsOfSumOfPrices = BigInteger.valueOf(creditsOfSumOfPrices);
+            largeQuantityOfSumOfPrices = BigInteger.valueOf(quantityOfSumOfPrices);
+        }
+        BigInteger creditsOfSum = largeCreditsOfSumOfPrices.multiply(quantity).add(credits.multiply(largeQuantityOfSumOfPrices));
+        BigInteger quantityOfSum = largeQuantityOfSumOfPrices.multiply(quantity);
+        BigInteger reducing = creditsOfSum.gcd(quantityOfSum);
+        largeCreditsOfSumOfPrices = creditsOfSum.divide(reducing);
+        largeQuantityOfSumOfPrices = quantityOfSum.divide(reducing);
+    }
+
+    private static long greatestCommonDivisor(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,125 @@
+package com.galaxy.merchant.guide.credits;
+
+/**
+ * Sketch of the prices noted for a material, telling their quantiles e.g. the median within RELATIVE_ACCURACY of a
+ * price noted, without keeping the prices themselves.
+ *
+ * <p>Prices are counted in buckets growing geometrically, bucket i holding the prices from GAMMA^(i-1) exclusive to
+ * GAMMA^i, so any price of a bucket is within the relative accuracy of the middle of it. Only the buckets from the
+ * lowest to the highest price noted are kept, and never more than MAX_BUCKETS of them: prices so far apart that they
+ * need more are counted together in the lowest bucket kept, giving up the accuracy of the lowest quantiles first.
+ * Two sketches are merged by adding up their buckets, so sketches of parts of a ledger can be put together.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class PriceSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.001;
+
+    //Prices from one to the next bucket grow by GAMMA; MAX_BUCKETS of them cover prices about 10^14 times apart
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_OF_GAMMA = Math.log(GAMMA);
+    private static final int MAX_BUCKETS = 1 << 14;
+    private static final int INITIAL_BUCKETS = 16;
+
+    //Number of prices in each bucket from indexOfFirstBucket on, and of prices of zero, which no bucket holds
+    private long[] countOfBucket;
+    private int indexOfFirstBucket;
+    private long countOfZeros;
+    private long count;
+
+    /**
+     * @param price a price noted, not negative
+     */
+    public void add(double price) {
+        if (price == 0)
+            countOfZeros++;
+        else
+            addToBucket(bucketOf(price), 1);
+        count++;
+    }
+
+    /**
+     * Adds the prices of another sketch to this one, as if they had all been noted in this one
+     */
+    public void merge(PriceSketch other) {
+        countOfZeros += other.countOfZeros;
+        count += other.count;
+        if (other.countOfBucket == null)
+            return;
+
+        for (int bucket = 0; bucket < other.countOfBucket.length; bucket++) {
+            if (other.countOfBucket[bucket] != 0)
+                addToBucket(other.indexOfFirstBucket + bucket, other.countOfBucket[bucket]);
+        }
+    }
+
+    /**
+     * @param quantile from 0 to 1, e.g. 0.5 for the median
+     * @return the price at the quantile, within RELATIVE_ACCURACY, or NaN if no price was noted
+     */
+    public double quantile(double quantile) {
+        if (count == 0)
+            return Double.NaN;
+
+        double rank = quantile * (count - 1);
+        long pricesSoFar = countOfZeros;
+        if (pricesSoFar > rank)
+            return 0;
+
+        for (int bucket = 0; bucket < countOfBucket.length; bucket++) {
+            pricesSoFar += countOfBucket[bucket];
+            if (pricesSoFar > rank)
+                return 2 * Math.pow(GAMMA, indexOfFirstBucket + bucket) / (GAMMA + 1);
+        }
+        return 2 * Math.pow(GAMMA, indexOfFirstBucket + countOfBucket.length - 1) / (GAMMA + 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private static int bucketOf(double price) {
+        return (int) Math.ceil(Math.log(price) / LOG_OF_GAMMA);
+    }
+
+    private void addToBucket(int bucket, long prices) {
+        if (countOfBucket == null) {
+            countOfBucket = new long[INITIAL_BUCKETS];
+            indexOfFirstBucket = bucket - INITIAL_BUCKETS / 2;
+        }
+        if (bucket < indexOfFirstBucket || bucket >= indexOfFirstBucket + countOfBucket.length)
+            cover(bucket);
+
+        //A bucket below the ones kept is counted in the lowest one
+        countOfBucket[Math.max(bucket, indexOfFirstBucket) - indexOfFirstBucket] += prices;
+    }
+
+    /**
+     * Grows the buckets kept to reach the given one, doubling them so growing costs little overall, or once
+     * MAX_BUCKETS are needed counts the lowest ones together so the highest ones reach it
+     */
+    private void cover(int bucket) {
+        int lowestBucket = Math.min(bucket, indexOfFirstBucket);
+        int highestBucket = Math.max(bucket, indexOfFirstBucket + countOfBucket.length - 1);
+        int buckets = highestBucket - lowestBucket + 1;
+
+        if (buckets <= MAX_BUCKETS) {
+            int length = Math.min(MAX_BUCKETS, Math.max(buckets, countOfBucket.length * 2));
+            int indexOfFirstBucketCovering = bucket < indexOfFirstBucket ? highestBucket - length + 1 : lowestBucket;
+            long[] grown = new long[length];
+            System.arraycopy(countOfBucket, 0, grown, indexOfFirstBucket - indexOfFirstBucketCovering, countOfBucket.length);
+            countOfBucket = grown;
+            indexOfFirstBucket = indexOfFirstBucketCovering;
+            return;
+        }
+
+        int indexOfFirstBucketCovering = highestBucket - MAX_BUCKETS + 1;
+        long[] collapsed = new long[MAX_BUCKETS];
+        for (int i = 0; i < countOfBucket.length; i++) {
+            collapsed[Math.max(indexOfFirstBucket + i, indexOfFirstBucketCovering) - indexOfFirstBucketCovering] += countOfBucket[i];
+        }
+        countOfBucket = collapsed;
+        indexOfFirstBucket = indexOfFirstBucketCovering;
+    }
+}
@@ -0,0 +1,282 @@
+package com.galaxy.merchant.guide.credits;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Exact price of one unit of an earth material, kept as the credits noted for a quantity of it in lowest terms
+ * e.g. 3910 credits for 20 units is 391/2. The credits of a transaction are worked out by multiplying and dividing
+ * longs and are rounded once, at the end, so there is no drift however large the quantity. Only a product too large
+ * for a long goes through BigDecimal.
+ *
+ * <p>Dividing longs takes several times longer than multiplying doubles, so a product of up to 52 bits, as that of
+ * any price noted in the notes and a quantity up to 3999, is divided by multiplying it with the reciprocal of the
+ * quantity instead. The quotient is then at most one off, which its remainder, worked out exactly, tells and corrects.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class UnitPrice implements Comparable<UnitPrice> {
+
+    //Status code of a transaction worth more credits than a long can count
+    public static final long TOO_MANY_CREDITS = -20L;
+
+    //Bits of the significand of a double, the implicit leading one included
+    private static final int SIGNIFICAND_BITS = 53;
+
+    //Largest product divided by multiplying with the reciprocal of the quantity
+    private static final long LARGEST_SMALL_PRODUCT = (1L << (SIGNIFICAND_BITS - 1)) - 1;
+
+    private static final BigDecimal MOST_CREDITS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final long credits;
+    private final long quantity;
+    private final double reciprocalOfQuantity;
+
+    //Largest quantity of material whose product with the credits is small enough to be divided by the reciprocal
+    private final long largestQuantityOfSmallProduct;
+
+    private UnitPrice(long credits, long quantity) {
+        this.credits = credits;
+        this.quantity = quantity;
+        this.reciprocalOfQuantity = 1d / quantity;
+        this.largestQuantityOfSmallProduct = credits == 0 ? Long.MAX_VALUE : LARGEST_SMALL_PRODUCT / credits;
+    }
+
+    /**
+     * @param credits credits noted for the quantity, e.g. 3910
+     * @param quantity quantity of the material noted, e.g. 20
+     * @return price of one unit, in lowest terms
+     * @throws IllegalArgumentException if the credits are negative or the quantity is not positive
+     */
+    public static UnitPrice of(long credits, long quantity) {
+        if (credits < 0 || quantity <= 0)
+            throw new IllegalArgumentException("Price of " + credits + " credits for " + quantity + " units");
+
+        long divisor = greatestCommonDivisor(credits, quantity);
+        return new UnitPrice(credits / divisor, quantity / divisor);
+    }
+
+    /**
+     * @param credits credits noted for the quantity, e.g. the sum of several prices
+     * @param quantity quantity of the material noted
+     * @return price of one unit, in lowest terms if they fit in longs, else the closest fraction of longs to it
+     * @throws IllegalArgumentException if the credits are negative, the quantity is not positive or the price is more
+     * than a long can count
+     */
+    public static UnitPrice of(BigInteger credits, BigInteger quantity) {
+        if (credits.signum() < 0 || quantity.signum() <= 0)
+            throw new IllegalArgumentException("Price of " + credits + " credits for " + quantity + " units");
+
+        BigInteger divisor = credits.gcd(quantity);
+        BigInteger reducedCredits = credits.divide(divisor);
+        BigInteger reducedQuantity = quantity.divide(divisor);
+        if (reducedCredits.bitLength() < Long.SIZE && reducedQuantity.bitLength() < Long.SIZE)
+            return new UnitPrice(reducedCredits.longValue(), reducedQuantity.longValue());
+        return convergentOf(reducedCredits, reducedQuantity, Double.NaN);
+    }
+
+    /**
+     * @param credits credits for one unit, taken to be the first convergent of its continued fraction that is the
+     *                same double e.g. 195.5 is 391/2 and 1.0 / 3999 is 1/3999, or for a price too small for that the
+     *                closest fraction of longs
+     * @return the same price as a fraction
+     * @throws IllegalArgumentException if the credits are negative, not finite or more than a long can count
+     */
+    public static UnitPrice of(double credits) {
+        if (credits == 0)
+            return new UnitPrice(0, 1);
+        if (!(credits > 0) || Double.isInfinite(credits))
+            throw new IllegalArgumentException("Price of " + credits + " credits");
+
+        //A double is exactly its significand times two to the power of its exponent
+        int exponent = Math.getExponent(credits) - (SIGNIFICAND_BITS - 1);
+        BigInteger significand = BigInteger.valueOf((long) Math.scalb(credits, -exponent));
+        if (exponent >= 0)
+            return convergentOf(significand.shiftLeft(exponent), BigInteger.ONE, credits);
+        return convergentOf(significand, BigInteger.ONE.shiftLeft(-exponent), credits);
+    }
+
+    /**
+     * @param quantityOfMaterial quantity transacted, not negative
+     * @param roundingMode how credits between two whole numbers are rounded; never UNNECESSARY
+     * @return credits the quantity is worth, rounded, or TOO_MANY_CREDITS if that is more than a long can count
+     */
+    public long creditsFor(long quantityOfMaterial, RoundingMode roundingMode) {
+        long product = credits * quantityOfMaterial;
+        long creditsFor;
+
+        if (quantityOfMaterial <= largestQuantityOfSmallProduct) {
+            //Both the product and the quotient are within a unit in the last place of a double of the exact ones
+            creditsFor = (long) (product * reciprocalOfQuantity);
+        } else if (product / quantityOfMaterial != credits) {
+            return creditsOfALargeTransaction(quantityOfMaterial, roundingMode);
+        } else {
+            creditsFor = product / quantity;
+        }
+
+        long remainder = product - creditsFor * quantity;
+        if (remainder < 0) {
+            creditsFor--;
+            remainder += quantity;
+        } else if (remainder >= quantity) {
+            creditsFor++;
+            remainder -= quantity;
+        }
+
+        //Rounded half up without a branch, which would be mispredicted on every other transaction: the sign bit is
+        //set once the remainder is half the quantity or more
+        if (roundingMode == RoundingMode.HALF_UP)
+            return creditsFor + ((quantity - remainder - remainder - 1) >>> (Long.SIZE - 1));
+        return remainder == 0 ? creditsFor : creditsFor + roundUp(creditsFor, remainder, quantity, roundingMode);
+    }
+
+    /**
+     * @return the price as the nearest double e.g. to show it
+     */
+    public double doubleValue() {
+        return (double) credits / quantity;
+    }
+
+    public long getCredits() {
+        return credits;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Compares prices exactly, by cross multiplying them
+     */
+    @Override
+    public int compareTo(UnitPrice other) {
+        if (((credits | quantity | other.credits | other.quantity) >>> 31) == 0)
+            return Long.compare(credits * other.quantity, other.credits * quantity);
+        return BigInteger.valueOf(credits).multiply(BigInteger.valueOf(other.quantity))
+                .compareTo(BigInteger.valueOf(other.credits).multiply(BigInteger.valueOf(quantity)));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof UnitPrice))
+            return false;
+        UnitPrice price = (UnitPrice) other;
+        return credits == price.credits && quantity == price.quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(credits) * 31 + Long.hashCode(quantity);
+    }
+
+    @Override
+    public String toString() {
+        return quantity == 1 ? String.valueOf(credits) : credits + "/" + quantity;
+    }
+
+    private long creditsOfALargeTransaction(long quantityOfMaterial, RoundingMode roundingMode) {
+        BigDecimal creditsFor = BigDecimal.valueOf(credits).multiply(BigDecimal.valueOf(quantityOfMaterial))
+                .divide(BigDecimal.valueOf(quantity), 0, roundingMode);
+        return creditsFor.compareTo(MOST_CREDITS) <= 0 ? creditsFor.longValue() : TOO_MANY_CREDITS;
+    }
+
+    /**
+     * Works out whether a quotient of positive numbers with a remainder is rounded up to the next whole number
+     *
+     * @return 1 if it is rounded up, 0 if it is rounded down
+     */
+    private static long roundUp(long quotient, long remainder, long divisor, RoundingMode roundingMode) {
+        switch (roundingMode) {
+            case UP:
+            case CEILING:
+                return 1;
+            case DOWN:
+            case FLOOR:
+                return 0;
+            case HALF_UP:
+            case HALF_DOWN:
+            case HALF_EVEN:
+                //Compared without doubling the remainder, which could overflow
+                long beyondHalf = remainder - (divisor - remainder);
+                if (beyondHalf != 0)
+                    return beyondHalf > 0 ? 1 : 0;
+                return roundingMode == RoundingMode.HALF_UP || roundingMode == RoundingMode.HALF_EVEN && (quotient & 1) != 0 ? 1 : 0;
+            default:
+                throw new ArithmeticException("Credits have to be rounded to a whole number");
+        }
+    }
+
+    /**
+     * Works out the convergents of the continued fraction of a price, which are the closest fractions to it for the
+     * size of their quantity, up to the first one that is the same double, or the price itself if it fits in longs.
+     * When none of them fits in longs before, the price is taken to be the closest fraction of longs to it.
+     *
+     * @param sameDoubleAs the double the convergent has to be, NaN to stop only at the price itself
+     * @throws IllegalArgumentException if the price is more than a long can count
+     */
+    private static UnitPrice convergentOf(BigInteger credits, BigInteger quantity, double sameDoubleAs) {
+        BigInteger dividend = credits;
+        BigInteger divisor = quantity;
+
+        //The last two convergents, starting from the conventional 1/0 and 0/1
+        long creditsOfLast = 1;
+        long quantityOfLast = 0;
+        long creditsBeforeLast = 0;
+        long quantityBeforeLast = 1;
+
+        while (divisor.signum() != 0) {
+            BigInteger[] quotientAndRemainder = dividend.divideAndRemainder(divisor);
+            BigInteger term = quotientAndRemainder[0];
+
+            //Largest term that keeps the next convergent in longs
+            long largestTerm = creditsOfLast == 0 ? Long.MAX_VALUE : (Long.MAX_VALUE - creditsBeforeLast) / creditsOfLast;
+            if (quantityOfLast != 0)
+                largestTerm = Math.min(largestTerm, (Long.MAX_VALUE - quantityBeforeLast) / quantityOfLast);
+
+            if (term.compareTo(BigInteger.valueOf(largestTerm)) > 0) {
+                if (quantityOfLast == 0)
+                    throw new IllegalArgumentException("Price of " + credits + "/" + quantity + " credits is more than can be counted");
+                if (largestTerm == 0)
+                    return new UnitPrice(creditsOfLast, quantityOfLast);
+                return closestTo(credits, quantity, new UnitPrice(creditsOfLast, quantityOfLast),
+                        new UnitPrice(largestTerm * creditsOfLast + creditsBeforeLast, largestTerm * quantityOfLast + quantityBeforeLast));
+            }
+
+            long creditsOfNext = term.longValue() * creditsOfLast + creditsBeforeLast;
+            long quantityOfNext = term.longValue() * quantityOfLast + quantityBeforeLast;
+            creditsBeforeLast = creditsOfLast;
+            quantityBeforeLast = quantityOfLast;
+            creditsOfLast = creditsOfNext;
+            quantityOfLast = quantityOfNext;
+            if ((double) creditsOfLast / quantityOfLast == sameDoubleAs)
+                break;
+
+            dividend = divisor;
+            divisor = quotientAndRemainder[1];
+        }
+        return new UnitPrice(creditsOfLast, quantityOfLast);
+    }
+
+    //The one of two prices closest to credits / quantity, the first one if they are as close
+    private static UnitPrice closestTo(BigInteger credits, BigInteger quantity, UnitPrice price, UnitPrice otherPrice) {
+        BigInteger distance = BigInteger.valueOf(price.credits).multiply(quantity)
+                .subtract(credits.multiply(BigInteger.valueOf(price.quantity))).abs()
+                .multiply(BigInteger.valueOf(otherPrice.quantity));
+        BigInteger otherDistance = BigInteger.valueOf(otherPrice.credits).multiply(quantity)
+                .subtract(credits.multiply(BigInteger.valueOf(otherPrice.quantity))).abs()
+                .multiply(BigInteger.valueOf(price.quantity));
+        return otherDistance.compareTo(distance) < 0 ? otherPrice : price;
+    }
+
+    private static long greatestCommonDivisor(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
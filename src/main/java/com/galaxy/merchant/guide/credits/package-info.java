@@ -0,0 +1,7 @@
+/**
+ * This package has the exact prices of earth materials, kept as the credits noted for a quantity,
+ * and the arithmetic that turns them into the credits of a transaction
+ *
+ * @author Gayathri Thiyagarajan
+ */
+package com.galaxy.merchant.guide.credits;
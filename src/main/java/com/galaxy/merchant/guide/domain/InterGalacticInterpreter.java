@@ -2,20 +2,27 @@ package com.galaxy.merchant.guide.domain;
 
 import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.DEFAULT_ANSWER;
 import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.PLACEHOLDER_FOR_UNPARSEABLE_QUESTIONS;
-import static java.util.Arrays.stream;
 
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.PriceAggregation;
+import com.galaxy.merchant.guide.credits.UnitPrice;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 import com.galaxy.merchant.guide.exceptions.InvalidQueryException;
 import com.galaxy.merchant.guide.exceptions.NoInputProvidedException;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
 import com.galaxy.merchant.guide.parsers.InterGalacticNumeralNotesParser;
 import com.galaxy.merchant.guide.parsers.TransactionNotesParser;
+import com.galaxy.merchant.guide.tokenizers.AsciiCase;
 
 /**
  * InterGalacticInterpreter interprets the lines of notes to extract the relevant conversion map
@@ -32,12 +39,76 @@ public class InterGalacticInterpreter {
 
     private HashMap<String, String> interGalacticToRomanConversionMap;
     private HashMap<String, Double> creditsPerEarthMaterial;
+    private UnitPrice[] priceOfEarthMaterial;
     private LinkedHashMap<String, String> queriesAndTheirAnswers = new LinkedHashMap<>();
 
-    private static String INTER_GALACTIC_UNIT_NOTES_PATTERN = "^\\w+\\sis\\s[IVXLCDM]$";
-    private static String TRANSACTION_NOTES_PATTERN = "^(\\w).*\\sis\\s\\d+\\s[cC]redits$";
-    private static String QUERY_PATTERN = "^how\\s(much|many)\\s\\w.*?$";
+    //Rules the quantities in the notes and queries have to satisfy
+    private final RomanNumeralRules romanNumeralRules;
 
+    //Whether misspelled units in queries are corrected, the answer telling what was asked
+    private final boolean correctsMisspelledUnits;
+
+    //Earth materials that can be transacted
+    private final EarthMaterialCatalogue earthMaterialCatalogue;
+
+    //How the credits of a transaction between two whole numbers are rounded in the answers
+    private final RoundingMode roundingMode;
+
+    //How the prices of several transactions of the same earth material are put together
+    private final PriceAggregation priceAggregation;
+
+    //How the units are kept while the notes are parsed and the queries answered
+    private final VocabularyLayout vocabularyLayout;
+
+    //A unit may stand for several roman letters e.g. "nova is IV". The patterns do not depend on the units, so they
+    //are compiled once for all interpreters; the units themselves are compiled once per vocabulary by the registry
+    private static final Pattern INTER_GALACTIC_UNIT_NOTES_PATTERN = Pattern.compile("^\\w+\\sis\\s(_{0,5}[IVXLCDM])+$");
+    private static final Pattern TRANSACTION_NOTES_PATTERN = Pattern.compile("^(\\w).*\\sis\\s\\d+\\s[cC]redits$");
+    private static final Pattern QUERY_PATTERN = Pattern.compile("^how\\s(much|many)\\s\\w.*?$");
+
+    public InterGalacticInterpreter() {
+        this(RomanNumeralRules.CLASSIC);
+    }
+
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules) {
+        this(romanNumeralRules, false);
+    }
+
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules, boolean correctsMisspelledUnits) {
+        this(romanNumeralRules, correctsMisspelledUnits, EarthMaterialCatalogue.DEFAULT);
+    }
+
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules, boolean correctsMisspelledUnits,
+                                    EarthMaterialCatalogue earthMaterialCatalogue) {
+        this(romanNumeralRules, correctsMisspelledUnits, earthMaterialCatalogue, RoundingMode.HALF_UP);
+    }
+
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules, boolean correctsMisspelledUnits,
+                                    EarthMaterialCatalogue earthMaterialCatalogue, RoundingMode roundingMode) {
+        this(romanNumeralRules, correctsMisspelledUnits, earthMaterialCatalogue, roundingMode, PriceAggregation.LATEST);
+    }
+
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules, boolean correctsMisspelledUnits,
+                                    EarthMaterialCatalogue earthMaterialCatalogue, RoundingMode roundingMode,
+                                    PriceAggregation priceAggregation) {
+        this(romanNumeralRules, correctsMisspelledUnits, earthMaterialCatalogue, roundingMode, priceAggregation, VocabularyLayout.HASHED);
+    }
+
+    /**
+     * @param vocabularyLayout how the units are kept, e.g. FRONT_CODED for notes with millions of units, or PERFECT_HASHED
+     *                         for a large vocabulary that stays the same once its notes are parsed, so that every word of
+     *                         a query is looked up in a single slot; the units are compiled once for the notes and queries
+     */
+    public InterGalacticInterpreter(RomanNumeralRules romanNumeralRules, boolean correctsMisspelledUnits,
+                                    EarthMaterialCatalogue earthMaterialCatalogue, RoundingMode roundingMode,
+                                    PriceAggregation priceAggregation, VocabularyLayout vocabularyLayout) {
+        this.romanNumeralRules = romanNumeralRules;
+        this.correctsMisspelledUnits = correctsMisspelledUnits;
+        this.earthMaterialCatalogue = earthMaterialCatalogue;
+        this.roundingMode = roundingMode;
+        this.priceAggregation = priceAggregation;
+        this.vocabularyLayout = vocabularyLayout;
+    }
 
     /**
      * Interprets lines of text and answers queries in the line of text
@@ -81,18 +152,23 @@ public class InterGalacticInterpreter {
      */
     void classifyLinesOfTextFromNotes(String[] linesOfText) {
 
-        bucketOfNotesOnInterGalacticNumerals = stream(linesOfText)
-                .filter(lineOfText -> lineOfText.matches(INTER_GALACTIC_UNIT_NOTES_PATTERN))
-                .collect(Collectors.toList());
-
-        bucketOfNotesOnTransactions = stream(linesOfText)
-                .filter(lineOfText -> lineOfText.matches(TRANSACTION_NOTES_PATTERN))
-                .map(String::toLowerCase)
-                .collect(Collectors.toList());
-
-        bucketOfQueries = stream(linesOfText)
-                .filter(lineOfText -> lineOfText.matches(QUERY_PATTERN))
-                .collect(Collectors.toList());
+        bucketOfNotesOnInterGalacticNumerals = new ArrayList<>();
+        bucketOfNotesOnTransactions = new ArrayList<>();
+        bucketOfQueries = new ArrayList<>();
+
+        //One matcher per pattern, reset to each line in turn
+        Matcher interGalacticUnitNote = INTER_GALACTIC_UNIT_NOTES_PATTERN.matcher("");
+        Matcher transactionNote = TRANSACTION_NOTES_PATTERN.matcher("");
+        Matcher query = QUERY_PATTERN.matcher("");
+
+        for (String lineOfText : linesOfText) {
+            if (interGalacticUnitNote.reset(lineOfText).matches())
+                bucketOfNotesOnInterGalacticNumerals.add(lineOfText);
+            if (transactionNote.reset(lineOfText).matches())
+                bucketOfNotesOnTransactions.add(lineOfText);
+            if (query.reset(lineOfText).matches())
+                bucketOfQueries.add(lineOfText);
+        }
     }
 
     /**
@@ -117,9 +193,11 @@ public class InterGalacticInterpreter {
     void interpretNumberOfCreditsPerEarthMaterial(HashMap<String, String> interGalacticToRomanConversionMap,
                                                   List<String> bucketOfNotesOnTransactions)
             throws InvalidInputFormatException {
-        TransactionNotesParser transactionNotesParser = new TransactionNotesParser(interGalacticToRomanConversionMap);
+        TransactionNotesParser transactionNotesParser = new TransactionNotesParser(interGalacticToRomanConversionMap, romanNumeralRules,
+                earthMaterialCatalogue, priceAggregation, vocabularyLayout);
         transactionNotesParser.parseNotes(bucketOfNotesOnTransactions);
         this.creditsPerEarthMaterial = transactionNotesParser.getCreditsPerEarthMaterial();
+        this.priceOfEarthMaterial = transactionNotesParser.getPriceOfEarthMaterial();
     }
 
     /**
@@ -139,22 +217,27 @@ public class InterGalacticInterpreter {
 
         if (creditsPerEarthMaterial.size() != 0) {
             QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
-                    .setCreditsForEarthMaterials(creditsPerEarthMaterial)
-                    .setInterGalacticToRomanConversionMap(interGalacticToRomanConversionMap).createQueryResponder();
-
+                    .setPricesOfEarthMaterials(earthMaterialCatalogue, priceOfEarthMaterial)
+                    .setRoundingMode(roundingMode)
+                    .setInterGalacticToRomanConversionMap(interGalacticToRomanConversionMap)
+                    .setRomanNumeralRules(romanNumeralRules)
+                    .setVocabularyLayout(vocabularyLayout)
+                    .setCorrectsMisspelledUnits(correctsMisspelledUnits).createQueryResponder();
+
+            //Queries are answered as they are, the responder matches words ignoring case
             String answerToQuery;
             for (String query : bucketOfQueries) {
-                if (query.toLowerCase().startsWith(HOW_MUCH_QUESTION_START)) {
+                if (AsciiCase.startsWith(query, HOW_MUCH_QUESTION_START)) {
                     try {
-                        answerToQuery = queryResponder.answerQueryOnInterGalacticQuantity(query.toLowerCase());
+                        answerToQuery = queryResponder.answerQueryOnInterGalacticQuantity(query);
                     } catch (InvalidQueryException e) {
                         answerToQuery = e.getErrorMessage();
                     }
                     queriesAndTheirAnswers.put(query, answerToQuery);
                 }
-                if (query.toLowerCase().startsWith(HOW_MANY_QUESTION_START)) {
+                if (AsciiCase.startsWith(query, HOW_MANY_QUESTION_START)) {
                     try {
-                        answerToQuery = queryResponder.answerQueryOnCreditsOfATransaction(query.toLowerCase());
+                        answerToQuery = queryResponder.answerQueryOnCreditsOfATransaction(query);
                     } catch (InvalidQueryException e) {
                         answerToQuery = e.getErrorMessage();
                     }
@@ -1,90 +1,136 @@
 package com.galaxy.merchant.guide.domain;
 
-import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.EARTH_MATERIALS_PART;
-import static org.apache.commons.lang3.StringUtils.replacePattern;
-import static org.apache.commons.lang3.StringUtils.substringBetween;
-import static org.apache.commons.lang3.StringUtils.trim;
+import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.DEFAULT_ANSWER;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
 
+import java.math.RoundingMode;
 import java.util.HashMap;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
-import com.galaxy.merchant.guide.constants.InterGalacticAppConstants;
 import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverter;
+import com.galaxy.merchant.guide.converters.InterGalacticVocabulary;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
 import com.galaxy.merchant.guide.converters.RomanToArabicConverter;
-import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.UnitPrice;
 import com.galaxy.merchant.guide.exceptions.InvalidQueryException;
-import org.apache.commons.lang3.StringUtils;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
+import com.galaxy.merchant.guide.tokenizers.AsciiCase;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
 
 /**
- * This class constructs response to queries passed to it by InterGalacticInterpreter
+ * This class constructs response to queries passed to it by InterGalacticInterpreter.
+ * Queries may be answered from several threads at once, also while the units and prices are reloaded.
  *
  * @author Gayathri Thiyagarajan
  */
 class QueryResponder {
 
-    private String PATTERN_OF_TRANSACTION_PART ;
+    //Units and prices queries are answered against, shared with the other responders built on them
+    private final SharedVocabulary sharedVocabulary;
 
-    //Map of earth material transactions e.g. Silver-17f
-    private HashMap<String, Double> creditsForEarthMaterials = new HashMap<>();
+    //Whether words of a quantity that are not units are corrected to the unit within one edit, instead of the query being rejected
+    private final boolean correctsMisspelledUnits;
 
-    //Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
-    private HashMap<String, String> interGalacticToRomanConversionMap = new HashMap<>();
+    //How the credits of a transaction between two whole numbers are rounded in the answer
+    private final RoundingMode roundingMode;
 
-    private RomanToArabicConverter romanToArabicConverter;
-
-    private InterGalacticToRomanConverter interGalacticToRomanConverter;
+    //Reused from one query to the next by the thread answering them, so that concurrent queries never share it
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     private static final String QUESTION_MARK = "?";
 
-    private QueryResponder(HashMap<String, Double> creditsForEarthMaterials, HashMap<String, String> interGalacticToRomanConversionMap) {
-        this.creditsForEarthMaterials = creditsForEarthMaterials;
-        this.interGalacticToRomanConversionMap = interGalacticToRomanConversionMap;
-
-        interGalacticToRomanConverter = new InterGalacticToRomanConverter(interGalacticToRomanConversionMap);
-        romanToArabicConverter = new RomanToArabicConverter();
-
-        Set<String> interGalacticUnits = interGalacticToRomanConversionMap.keySet();
-        PATTERN_OF_TRANSACTION_PART = interGalacticUnits.stream().map(e -> e).collect(Collectors.joining("|"));
+    //Reasons a query is rejected for; preallocated and stackless as a large share of the queries is junk
+    private static final InvalidQueryException QUANTITY_IS_ABSENT
+            = new InvalidQueryException(DEFAULT_ANSWER, "Query does not contain a quantity");
+    private static final InvalidQueryException QUANTITY_HAS_UNKNOWN_UNITS
+            = new InvalidQueryException(DEFAULT_ANSWER, "Quantity contains words that are not intergalactic units");
+    private static final InvalidQueryException QUANTITY_IS_NOT_A_VALID_NUMERAL
+            = new InvalidQueryException(DEFAULT_ANSWER, "Quantity does not satisfy roman numeric rules");
+    private static final InvalidQueryException EARTH_MATERIAL_IS_UNKNOWN
+            = new InvalidQueryException(DEFAULT_ANSWER, "Earth material has no known price");
+    private static final InvalidQueryException TRANSACTION_IS_WORTH_NOTHING
+            = new InvalidQueryException(DEFAULT_ANSWER, "Transaction is worth no credits");
+    private static final InvalidQueryException TRANSACTION_IS_WORTH_TOO_MANY_CREDITS
+            = new InvalidQueryException(DEFAULT_ANSWER, "Transaction is worth more credits than can be counted");
+
+    //Status codes of the transaction part of a query, on top of the converters' own
+    private static final int NO_TRANSACTION = -10;
+    private static final int UNKNOWN_EARTH_MATERIAL = -11;
+
+    private QueryResponder(SharedVocabulary sharedVocabulary, boolean correctsMisspelledUnits, RoundingMode roundingMode) {
+        this.sharedVocabulary = sharedVocabulary;
+        this.correctsMisspelledUnits = correctsMisspelledUnits;
+        this.roundingMode = roundingMode;
+    }
 
+    /**
+     * Replaces the units and prices queries are answered against, for this responder and every other one sharing them
+     *
+     * @param interGalacticToRomanConversionMap Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
+     * @param pricesForEarthMaterials Map of exact earth material prices e.g. Iron-391/2
+     * @see SharedVocabulary#reload(Map, Map)
+     */
+    public void reload(Map<String, String> interGalacticToRomanConversionMap, Map<String, UnitPrice> pricesForEarthMaterials) {
+        sharedVocabulary.reload(interGalacticToRomanConversionMap, pricesForEarthMaterials);
     }
 
     /**
      * Answers query on how much an inter galactic amount is in equivalent earth amount
      *
-     * @param query E.g. how much is pish tegj glob glob ?
-     * @return galacticAmount as numeral in answer format "pish tegj glob glob is 42"
+     * @param query E.g. how much is pish tegj glob glob ?, in any case
+     * @return galacticAmount as numeral in answer format "pish tegj glob glob is 42", in lower case,
+     * followed by " (corrected from pish tegj glub glob)" if misspelled units were corrected
      * @throws InvalidQueryException If Query is unrecognised
      */
     String answerQueryOnInterGalacticQuantity(String query) throws InvalidQueryException {
 
         String HOW_MUCH_QUERY_MASK = "how much is";
-        String galacticAmount = trim(substringBetween(query, HOW_MUCH_QUERY_MASK, QUESTION_MARK));
-        Integer numericValue;
+        Scratch scratch = SCRATCH.get();
+        Tokenizer galacticAmount = tokenizeBetween(scratch, query, HOW_MUCH_QUERY_MASK, QUESTION_MARK);
+        long numericValue;
 
-        numericValue = calculateNumericValue(galacticAmount);
-        return galacticAmount + " is " + numericValue;
+        VocabularySnapshot vocabulary = sharedVocabulary.snapshot();
+        numericValue = calculateQuantity(scratch, vocabulary, galacticAmount);
+
+        if (scratch.numberOfCorrectedWords > 0) {
+            return correctedQuantity(scratch, vocabulary, galacticAmount.size()) + " is " + numericValue
+                    + correctedFrom(galacticAmount);
+        }
+        return galacticAmount.asLowerCaseString(0, galacticAmount.size()) + " is " + numericValue;
     }
 
     /**
      * Answers query on how many credits is a particular transaction
      *
      * @param query E.g. how many Credits is glob prok Silver ?
-     * @return numberOfCredits for the transaction in answer format  "glob prok Silver is 68 Credits"
+     * @return numberOfCredits for the transaction in answer format "glob prok silver is 68 credits", in lower case,
+     * followed by " (corrected from glub prok silver)" if misspelled units were corrected
      * @throws InvalidQueryException If Query is unrecognised
      */
     String answerQueryOnCreditsOfATransaction(String query) throws InvalidQueryException {
 
         String HOW_MANY_CREDITS_QUERY_MASK = "how many credits is";
 
-        String transactionInTheQuery = trim(substringBetween(query, HOW_MANY_CREDITS_QUERY_MASK, QUESTION_MARK));
-        Integer numberOfCredits = calculateNumberOfCredits(transactionInTheQuery);
+        Scratch scratch = SCRATCH.get();
+        Tokenizer transactionInTheQuery = tokenizeBetween(scratch, query, HOW_MANY_CREDITS_QUERY_MASK, QUESTION_MARK);
+        VocabularySnapshot vocabulary = sharedVocabulary.snapshot();
+        long numberOfCredits = calculateNumberOfCreditsOrStatus(scratch, vocabulary, transactionInTheQuery);
 
-        if(numberOfCredits == 0f) {
-            throw new InvalidQueryException(InterGalacticAppConstants.DEFAULT_ANSWER);
+        if(numberOfCredits < 0) {
+            throw rejectionFor((int) numberOfCredits);
+        }
+        if(numberOfCredits == 0) {
+            throw TRANSACTION_IS_WORTH_NOTHING;
         }
 
-        return transactionInTheQuery + " is " + numberOfCredits + " credits";
+        int earthMaterial = transactionInTheQuery.size() - 1;
+        if (scratch.numberOfCorrectedWords > 0) {
+            return correctedQuantity(scratch, vocabulary, earthMaterial) + " " + transactionInTheQuery.asLowerCaseString(earthMaterial, earthMaterial + 1)
+                    + " is " + numberOfCredits + " credits" + correctedFrom(transactionInTheQuery);
+        }
+        return transactionInTheQuery.asLowerCaseString(0, transactionInTheQuery.size()) + " is " + numberOfCredits + " credits";
     }
 
     /**
@@ -95,12 +141,38 @@ class QueryResponder {
      * @throws InvalidQueryException
      */
     Integer calculateNumericValue(String galacticQuantity) throws InvalidQueryException {
-        Integer numericValue;
-        try {
-            String romanEquivalentOfGalacticAmount = interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment(galacticQuantity);
-            numericValue = romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanEquivalentOfGalacticAmount);
-        } catch (InvalidInputFormatException e) {
-            throw new InvalidQueryException(InterGalacticAppConstants.DEFAULT_ANSWER);
+
+        Tokenizer wordsOfTheQuantity = SCRATCH.get().tokenizer.tokenize(galacticQuantity == null ? EMPTY : galacticQuantity);
+        if (wordsOfTheQuantity.size() == 0) {
+            throw QUANTITY_IS_ABSENT;
+        }
+
+        int numericValue = sharedVocabulary.snapshot().getInterGalacticToRomanConverter().toArabic(wordsOfTheQuantity, 0, wordsOfTheQuantity.size());
+
+        if (numericValue < 0) {
+            throw rejectionFor(numericValue);
+        }
+        return numericValue;
+    }
+
+    /**
+     * Given the words of a galactic amount calculates the numerical value, including amounts beyond 3999 made of units with a vinculum
+     *
+     * @param vocabulary units the query is answered against
+     * @param galacticQuantity words of the galactic quantity
+     * @return numeric value
+     * @throws InvalidQueryException
+     */
+    private long calculateQuantity(Scratch scratch, VocabularySnapshot vocabulary, Tokenizer galacticQuantity) throws InvalidQueryException {
+
+        if (galacticQuantity.size() == 0) {
+            throw QUANTITY_IS_ABSENT;
+        }
+
+        long numericValue = calculateQuantityOrStatus(scratch, vocabulary, galacticQuantity, galacticQuantity.size());
+
+        if (numericValue < 0) {
+            throw rejectionFor((int) numericValue);
         }
         return numericValue;
     }
@@ -109,56 +181,270 @@ class QueryResponder {
      * Given the transaction part of a query, this method calculates the number of credits
      *
      * @param transactionInTheQuery Transaction
-     * @return Number of credits
+     * @return Number of credits, 0 if the transaction is not understood
      */
     Integer calculateNumberOfCredits(String transactionInTheQuery) {
+        Scratch scratch = SCRATCH.get();
+        Tokenizer wordsOfTheTransaction = scratch.tokenizer.tokenize(transactionInTheQuery == null ? EMPTY : transactionInTheQuery);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0,
+                calculateNumberOfCreditsOrStatus(scratch, sharedVocabulary.snapshot(), wordsOfTheTransaction)));
+    }
+
+    /**
+     * Given the words of the transaction part of a query, calculates the number of credits or the reason it cannot
+     *
+     * @param vocabulary units and prices the query is answered against
+     * @param transactionInTheQuery words of the transaction e.g. glob prok silver
+     * @return Number of credits or a negative status code telling why the transaction is not understood
+     */
+    private long calculateNumberOfCreditsOrStatus(Scratch scratch, VocabularySnapshot vocabulary, Tokenizer transactionInTheQuery) {
+
+        if (transactionInTheQuery.size() == 0) {
+            return NO_TRANSACTION;
+        }
+
+        //The material is the last word of the transaction, the quantity is every word before it
+        int earthMaterial = transactionInTheQuery.size() - 1;
+
         //Get the numerical value of the intergalactic transaction
-        Integer numberOfCredits = 0;
+        long quantityOfEarthMaterial = calculateQuantityOrStatus(scratch, vocabulary, transactionInTheQuery, earthMaterial);
 
-        try {
-            //Extract the transaction part and the material in the transaction
-            if (StringUtils.isNotEmpty(transactionInTheQuery)) {
-                String transactionPart = trim(replacePattern(transactionInTheQuery, EARTH_MATERIALS_PART, StringUtils.EMPTY));
-                String earthMaterial = trim(replacePattern(transactionInTheQuery, PATTERN_OF_TRANSACTION_PART, StringUtils.EMPTY));
+        if (quantityOfEarthMaterial < 0) {
+            return quantityOfEarthMaterial;
+        }
+        int earthMaterialId = vocabulary.earthMaterialOf(transactionInTheQuery, earthMaterial);
+        if (earthMaterialId == WordLookup.UNKNOWN_WORD) {
+            return UNKNOWN_EARTH_MATERIAL;
+        }
+        //Worked out exactly and rounded once, so the answer does not drift however large the quantity
+        return vocabulary.priceOf(earthMaterialId).creditsFor(quantityOfEarthMaterial, roundingMode);
+    }
+
+    /**
+     * Given the words of a galactic amount up to toToken calculates the numerical value, correcting misspelled units
+     * if this responder does so. How many words were corrected is left in the numberOfCorrectedWords of the scratch and their
+     * IDs in its idsOfCorrectedQuantity.
+     *
+     * @param vocabulary units the query is answered against
+     * @param words words holding the galactic quantity from the first word
+     * @param toToken index after the last word of the quantity
+     * @return numeric value or a negative status code telling why the quantity is not understood
+     */
+    private long calculateQuantityOrStatus(Scratch scratch, VocabularySnapshot vocabulary, Tokenizer words, int toToken) {
 
-                String romanEquivalentOfTheTransaction = interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment(transactionPart);
-                Integer quantityOfEarthMaterial = romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanEquivalentOfTheTransaction);
+        scratch.numberOfCorrectedWords = 0;
+        InterGalacticToRomanConverter interGalacticToRomanConverter = vocabulary.getInterGalacticToRomanConverter();
+        long numericValue = interGalacticToRomanConverter.toArabicExtended(words, 0, toToken);
 
-                if (creditsForEarthMaterials.containsKey(earthMaterial)) {
-                    numberOfCredits = (int) Math.round(creditsForEarthMaterials.get(earthMaterial) * quantityOfEarthMaterial);
+        //Correcting is only tried once the quantity is known to have words that are not units, so it costs nothing otherwise
+        if (numericValue != InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT || !correctsMisspelledUnits) {
+            return numericValue;
+        }
+
+        if (scratch.idsOfCorrectedQuantity.length < toToken) {
+            scratch.idsOfCorrectedQuantity = new int[toToken * 2];
+        }
+        int[] idsOfCorrectedQuantity = scratch.idsOfCorrectedQuantity;
+        InterGalacticVocabulary interGalacticUnits = interGalacticToRomanConverter.getVocabulary();
+        int correctedWords = 0;
+        for (int word = 0; word < toToken; word++) {
+            int id = interGalacticUnits.idOf(words.getText(), words.start(word), words.end(word));
+            if (id == InterGalacticVocabulary.UNKNOWN_WORD) {
+                id = interGalacticUnits.idOfClosest(words.getText(), words.start(word), words.end(word));
+                if (id == InterGalacticVocabulary.UNKNOWN_WORD) {
+                    return numericValue;
                 }
+                correctedWords++;
             }
-        } catch (InvalidInputFormatException e) {
-            //I have no idea what you are talking about
+            idsOfCorrectedQuantity[word] = id;
         }
-        return numberOfCredits;
+
+        numericValue = interGalacticToRomanConverter.toArabicExtended(idsOfCorrectedQuantity, 0, toToken);
+        if (numericValue >= 0) {
+            scratch.numberOfCorrectedWords = correctedWords;
+        }
+        return numericValue;
     }
 
-    HashMap<String, Double> getCreditsForEarthMaterials() {
-        return creditsForEarthMaterials;
+    //The corrected quantity with single spaces between the units, in lower case
+    private String correctedQuantity(Scratch scratch, VocabularySnapshot vocabulary, int numberOfWords) {
+        InterGalacticVocabulary interGalacticUnits = vocabulary.getInterGalacticToRomanConverter().getVocabulary();
+        StringBuilder correctedQuantity = new StringBuilder();
+        for (int word = 0; word < numberOfWords; word++) {
+            if (word > 0) {
+                correctedQuantity.append(' ');
+            }
+            String interGalacticUnit = interGalacticUnits.interGalacticUnitOf(scratch.idsOfCorrectedQuantity[word]);
+            for (int i = 0; i < interGalacticUnit.length(); i++) {
+                correctedQuantity.append(AsciiCase.toLowerCase(interGalacticUnit.charAt(i)));
+            }
+        }
+        return correctedQuantity.toString();
     }
 
-    HashMap<String, String> getInterGalacticToRomanConversionMap() {
-        return interGalacticToRomanConversionMap;
+    private static String correctedFrom(Tokenizer wordsAsAsked) {
+        return " (corrected from " + wordsAsAsked.asLowerCaseString(0, wordsAsAsked.size()) + ")";
+    }
+
+    /**
+     * Tokenizes the part of the query between the open and close strings, as substringBetween would find it ignoring case
+     *
+     * @return the tokenizer of the scratch, holding no words if either string is missing
+     */
+    private static Tokenizer tokenizeBetween(Scratch scratch, String query, String open, String close) {
+        int start = query == null ? -1 : AsciiCase.indexOf(query, open, 0);
+        int end = start < 0 ? -1 : AsciiCase.indexOf(query, close, start + open.length());
+
+        if (end < 0) {
+            return scratch.tokenizer.tokenize(EMPTY);
+        }
+        return scratch.tokenizer.tokenize(query, start + open.length(), end);
+    }
+
+    private static InvalidQueryException rejectionFor(int status) {
+        switch (status) {
+            case InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT: return QUANTITY_HAS_UNKNOWN_UNITS;
+            case RomanToArabicConverter.INVALID_SEGMENT: return QUANTITY_IS_NOT_A_VALID_NUMERAL;
+            case UNKNOWN_EARTH_MATERIAL: return EARTH_MATERIAL_IS_UNKNOWN;
+            case (int) UnitPrice.TOO_MANY_CREDITS: return TRANSACTION_IS_WORTH_TOO_MANY_CREDITS;
+            default: return QUANTITY_IS_ABSENT;
+        }
+    }
+
+    Map<String, Double> getCreditsForEarthMaterials() {
+        return sharedVocabulary.snapshot().getCreditsForEarthMaterials();
+    }
+
+    Map<String, String> getInterGalacticToRomanConversionMap() {
+        return sharedVocabulary.snapshot().getInterGalacticToRomanConversionMap();
+    }
+
+    InterGalacticToRomanConverter getInterGalacticToRomanConverter() {
+        return sharedVocabulary.snapshot().getInterGalacticToRomanConverter();
+    }
+
+    //What a thread answering a query works with, reused for its next query
+    private static final class Scratch {
+
+        private final Tokenizer tokenizer = new Tokenizer();
+
+        //IDs of the units of the last quantity that had misspelled words, and how many of its words were corrected
+        private int[] idsOfCorrectedQuantity = new int[16];
+        private int numberOfCorrectedWords;
     }
 
     static class QueryResponderBuilder {
 
         private HashMap<String, Double> creditsForEarthMaterials = new HashMap<>();
+        private Map<String, UnitPrice> pricesForEarthMaterials;
+        private EarthMaterialCatalogue earthMaterialCatalogue;
+        private UnitPrice[] priceOfEarthMaterial;
         private HashMap<String, String> interGalacticToRomanConversionMap = new HashMap<>();
+        private RomanNumeralRules romanNumeralRules = RomanNumeralRules.CLASSIC;
+        private boolean correctsMisspelledUnits;
+        private RoundingMode roundingMode = RoundingMode.HALF_UP;
+        private int conversionCacheCapacity;
+        private VocabularyLayout vocabularyLayout = VocabularyLayout.HASHED;
+        private SharedVocabulary sharedVocabulary;
 
         QueryResponder.QueryResponderBuilder setCreditsForEarthMaterials(HashMap<String, Double> creditsForEarthMaterials) {
             this.creditsForEarthMaterials = creditsForEarthMaterials;
             return this;
         }
 
+        /**
+         * Sets the exact prices of the earth materials, used instead of the credits for earth materials
+         *
+         * @param pricesForEarthMaterials Map of exact earth material prices e.g. Iron-391/2
+         */
+        QueryResponder.QueryResponderBuilder setPricesForEarthMaterials(Map<String, UnitPrice> pricesForEarthMaterials) {
+            this.pricesForEarthMaterials = pricesForEarthMaterials;
+            return this;
+        }
+
+        /**
+         * Sets the exact prices of the materials of a catalogue by their ID, e.g. as parsed from the notes, used instead
+         * of the prices and credits for earth materials
+         *
+         * @param priceOfEarthMaterial exact price of each earth material by its ID in the catalogue, null for those without one
+         */
+        QueryResponder.QueryResponderBuilder setPricesOfEarthMaterials(EarthMaterialCatalogue earthMaterialCatalogue,
+                                                                       UnitPrice[] priceOfEarthMaterial) {
+            this.earthMaterialCatalogue = earthMaterialCatalogue;
+            this.priceOfEarthMaterial = priceOfEarthMaterial;
+            return this;
+        }
+
         QueryResponder.QueryResponderBuilder setInterGalacticToRomanConversionMap(HashMap<String, String> interGalacticToRomanConversionMap) {
             this.interGalacticToRomanConversionMap = interGalacticToRomanConversionMap;
             return this;
         }
 
+        QueryResponder.QueryResponderBuilder setRomanNumeralRules(RomanNumeralRules romanNumeralRules) {
+            this.romanNumeralRules = romanNumeralRules;
+            return this;
+        }
+
+        QueryResponder.QueryResponderBuilder setCorrectsMisspelledUnits(boolean correctsMisspelledUnits) {
+            this.correctsMisspelledUnits = correctsMisspelledUnits;
+            return this;
+        }
+
+        /**
+         * @param roundingMode how the credits of a transaction between two whole numbers are rounded, HALF_UP by default
+         * @throws IllegalArgumentException for UNNECESSARY, as credits are always answered in whole numbers
+         */
+        QueryResponder.QueryResponderBuilder setRoundingMode(RoundingMode roundingMode) {
+            if (roundingMode == RoundingMode.UNNECESSARY)
+                throw new IllegalArgumentException("Credits are answered in whole numbers, so they may have to be rounded");
+            this.roundingMode = roundingMode;
+            return this;
+        }
+
+        /**
+         * Puts a cache of the values of quantities in front of the converter, for streams of queries where the same few
+         * quantities keep coming back; off by default
+         *
+         * @param conversionCacheCapacity how many quantities are cached, none if 0
+         * @throws IllegalArgumentException if it is negative
+         */
+        QueryResponder.QueryResponderBuilder setConversionCacheCapacity(int conversionCacheCapacity) {
+            if (conversionCacheCapacity < 0)
+                throw new IllegalArgumentException("Cache capacity cannot be negative");
+            this.conversionCacheCapacity = conversionCacheCapacity;
+            return this;
+        }
+
+        /**
+         * @param vocabularyLayout how the units are kept, HASHED by default, e.g. FRONT_CODED for millions of units or
+         *                         PERFECT_HASHED for a large vocabulary that stays the same once its notes are parsed
+         */
+        QueryResponder.QueryResponderBuilder setVocabularyLayout(VocabularyLayout vocabularyLayout) {
+            this.vocabularyLayout = vocabularyLayout;
+            return this;
+        }
+
+        /**
+         * Answers against units and prices shared with other responders, so that reloading them reloads them for all;
+         * the units, prices, rules, cache capacity and layout set on this builder are then not used
+         */
+        QueryResponder.QueryResponderBuilder setSharedVocabulary(SharedVocabulary sharedVocabulary) {
+            this.sharedVocabulary = sharedVocabulary;
+            return this;
+        }
+
         QueryResponder createQueryResponder() {
-            return new QueryResponder(creditsForEarthMaterials, interGalacticToRomanConversionMap);
+            if (sharedVocabulary != null) {
+                return new QueryResponder(sharedVocabulary, correctsMisspelledUnits, roundingMode);
+            }
+            if (earthMaterialCatalogue != null) {
+                return new QueryResponder(new SharedVocabulary(interGalacticToRomanConversionMap, earthMaterialCatalogue, priceOfEarthMaterial,
+                        romanNumeralRules, conversionCacheCapacity, vocabularyLayout), correctsMisspelledUnits, roundingMode);
+            }
+            Map<String, UnitPrice> prices = pricesForEarthMaterials != null ? pricesForEarthMaterials
+                    : VocabularySnapshot.exactPricesOf(creditsForEarthMaterials);
+            return new QueryResponder(new SharedVocabulary(interGalacticToRomanConversionMap, prices, romanNumeralRules, conversionCacheCapacity,
+                    vocabularyLayout), correctsMisspelledUnits, roundingMode);
         }
     }
 }
@@ -15,13 +15,26 @@ public enum RomanNumerals {
     D(500),
     M(1000);
 
-    private Integer numericValue;
+    //Ordinal of each roman letter indexed by its ASCII code; that of the sentinel Z for any other character
+    private static final byte[] ORDINAL_OF_CHARACTER = new byte[128];
 
-    RomanNumerals(Integer numericValue) {
+    static {
+        for (RomanNumerals romanNumeral : values()) {
+            if (romanNumeral == Z)
+                continue;
+
+            char romanLetter = romanNumeral.name().charAt(0);
+            ORDINAL_OF_CHARACTER[romanLetter] = (byte) romanNumeral.ordinal();
+        }
+    }
+
+    private final int numericValue;
+
+    RomanNumerals(int numericValue) {
         this.numericValue = numericValue;
     }
 
-    public Integer numericValue() {
+    public int numericValue() {
         return numericValue;
     }
 
@@ -30,4 +43,14 @@ public enum RomanNumerals {
         return this.numericValue < letterAtNextPos.numericValue;
     }
 
+    /**
+     * Looks up the ordinal of a character without going through valueOf(String)
+     *
+     * @param romanLetter e.g. 'X'
+     * @return ordinal of the letter e.g. X.ordinal() i.e. 3 or Z.ordinal() i.e. 0 if it is not a roman letter
+     */
+    public static int ordinalOf(char romanLetter) {
+        return romanLetter < ORDINAL_OF_CHARACTER.length ? ORDINAL_OF_CHARACTER[romanLetter] : 0;
+    }
+
 }
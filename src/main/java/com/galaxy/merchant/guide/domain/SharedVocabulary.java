@@ -0,0 +1,103 @@
+package com.galaxy.merchant.guide.domain;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.UnitPrice;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
+
+/**
+ * Intergalactic units and earth material prices shared by the query responders answering against them. A reload swaps
+ * in a new snapshot for all of them at once, while the queries under way keep the snapshot they started with.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class SharedVocabulary {
+
+    private final AtomicReference<VocabularySnapshot> snapshot;
+
+    //Rules the quantities in the queries have to satisfy, whatever the units are reloaded to
+    private final RomanNumeralRules romanNumeralRules;
+
+    //How many quantities the converter of each snapshot caches the value of, none if 0
+    private final int conversionCacheCapacity;
+
+    //How the units of each snapshot are kept
+    private final VocabularyLayout layout;
+
+    /**
+     * @param interGalacticToRomanConversionMap Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
+     * @param pricesForEarthMaterials Map of exact earth material prices e.g. Iron-391/2
+     * @param conversionCacheCapacity how many quantities the converter caches the value of, none if 0
+     */
+    public SharedVocabulary(Map<String, String> interGalacticToRomanConversionMap, Map<String, UnitPrice> pricesForEarthMaterials,
+                            RomanNumeralRules romanNumeralRules, int conversionCacheCapacity) {
+        this(interGalacticToRomanConversionMap, pricesForEarthMaterials, romanNumeralRules, conversionCacheCapacity, VocabularyLayout.HASHED);
+    }
+
+    /**
+     * @param layout how the units are kept, also once they are reloaded, e.g. FRONT_CODED for millions of units
+     */
+    public SharedVocabulary(Map<String, String> interGalacticToRomanConversionMap, Map<String, UnitPrice> pricesForEarthMaterials,
+                            RomanNumeralRules romanNumeralRules, int conversionCacheCapacity, VocabularyLayout layout) {
+        this(romanNumeralRules, conversionCacheCapacity, layout);
+        this.snapshot.set(new VocabularySnapshot(interGalacticToRomanConversionMap, pricesForEarthMaterials,
+                romanNumeralRules, conversionCacheCapacity, layout));
+    }
+
+    /**
+     * Answers against the prices of the materials of a catalogue by their ID, e.g. as parsed from the notes, so that a
+     * material is looked up in the same single probe as when the notes were parsed
+     *
+     * @param earthMaterialCatalogue earth materials that can be transacted
+     * @param priceOfEarthMaterial exact price of each earth material by its ID in the catalogue, null for those without one
+     */
+    public SharedVocabulary(Map<String, String> interGalacticToRomanConversionMap, EarthMaterialCatalogue earthMaterialCatalogue,
+                            UnitPrice[] priceOfEarthMaterial, RomanNumeralRules romanNumeralRules, int conversionCacheCapacity,
+                            VocabularyLayout layout) {
+        this(romanNumeralRules, conversionCacheCapacity, layout);
+        this.snapshot.set(new VocabularySnapshot(interGalacticToRomanConversionMap, earthMaterialCatalogue, priceOfEarthMaterial,
+                romanNumeralRules, conversionCacheCapacity, layout));
+    }
+
+    private SharedVocabulary(RomanNumeralRules romanNumeralRules, int conversionCacheCapacity, VocabularyLayout layout) {
+        if (conversionCacheCapacity < 0)
+            throw new IllegalArgumentException("Cache capacity cannot be negative");
+
+        this.romanNumeralRules = romanNumeralRules;
+        this.conversionCacheCapacity = conversionCacheCapacity;
+        this.layout = layout;
+        this.snapshot = new AtomicReference<>();
+    }
+
+    /**
+     * Replaces the units and prices queries are answered against, e.g. after the notes were updated.
+     * The new snapshot is compiled before it is swapped in, so queries are never held up or answered against half of it.
+     *
+     * @param interGalacticToRomanConversionMap Map of interGalactic numeral and their equivalent roman numeral e.g. glob-I
+     * @param pricesForEarthMaterials Map of exact earth material prices e.g. Iron-391/2
+     */
+    public void reload(Map<String, String> interGalacticToRomanConversionMap, Map<String, UnitPrice> pricesForEarthMaterials) {
+        snapshot.set(new VocabularySnapshot(interGalacticToRomanConversionMap, pricesForEarthMaterials,
+                romanNumeralRules, conversionCacheCapacity, layout));
+    }
+
+    /**
+     * As reload(Map, Map), with the prices of the materials of a catalogue by their ID
+     *
+     * @param earthMaterialCatalogue earth materials that can be transacted
+     * @param priceOfEarthMaterial exact price of each earth material by its ID in the catalogue, null for those without one
+     */
+    public void reload(Map<String, String> interGalacticToRomanConversionMap, EarthMaterialCatalogue earthMaterialCatalogue,
+                       UnitPrice[] priceOfEarthMaterial) {
+        snapshot.set(new VocabularySnapshot(interGalacticToRomanConversionMap, earthMaterialCatalogue, priceOfEarthMaterial,
+                romanNumeralRules, conversionCacheCapacity, layout));
+    }
+
+    //The snapshot a query is answered against from start to end
+    VocabularySnapshot snapshot() {
+        return snapshot.get();
+    }
+}
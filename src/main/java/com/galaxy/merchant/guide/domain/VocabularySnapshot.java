@@ -0,0 +1,117 @@
+package com.galaxy.merchant.guide.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.galaxy.merchant.guide.converters.CachingInterGalacticToRomanConverter;
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverter;
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverterRegistry;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.UnitPrice;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
+
+/**
+ * Intergalactic units and earth material prices a query is answered against, compiled once and never changed.
+ * The units are only kept compiled by the converter and the prices are copied, so the maps it is built from may be
+ * changed or reloaded afterwards without affecting the queries answered against this snapshot.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+final class VocabularySnapshot {
+
+    private final InterGalacticToRomanConverter interGalacticToRomanConverter;
+
+    //The earth materials, looked up ignoring case in a single probe, and the exact price of each of them by its ID
+    private final EarthMaterialCatalogue earthMaterials;
+    private final UnitPrice[] priceOfEarthMaterial;
+
+    /**
+     * @param pricesForEarthMaterials Map of exact earth material prices e.g. Iron-391/2, each material a single word
+     * @param conversionCacheCapacity how many quantities the converter of this snapshot caches the value of, none if 0
+     * @param layout how the units are kept by the converter
+     */
+    VocabularySnapshot(Map<String, String> interGalacticToRomanConversionMap, Map<String, UnitPrice> pricesForEarthMaterials,
+                       RomanNumeralRules romanNumeralRules, int conversionCacheCapacity, VocabularyLayout layout) {
+        this(interGalacticToRomanConversionMap, new EarthMaterialCatalogue(pricesForEarthMaterials.keySet()), pricesForEarthMaterials,
+                romanNumeralRules, conversionCacheCapacity, layout);
+    }
+
+    /**
+     * @param earthMaterials earth materials that can be transacted, e.g. the catalogue the notes were parsed with
+     * @param priceOfEarthMaterial exact price of each earth material by its ID in the catalogue, null for those without one
+     * @param conversionCacheCapacity how many quantities the converter of this snapshot caches the value of, none if 0
+     * @param layout how the units are kept by the converter
+     */
+    VocabularySnapshot(Map<String, String> interGalacticToRomanConversionMap, EarthMaterialCatalogue earthMaterials,
+                       UnitPrice[] priceOfEarthMaterial, RomanNumeralRules romanNumeralRules, int conversionCacheCapacity,
+                       VocabularyLayout layout) {
+        InterGalacticToRomanConverter compiledConverter = InterGalacticToRomanConverterRegistry.shared()
+                .converterFor(interGalacticToRomanConversionMap, romanNumeralRules, layout);
+        //The registry hands the same converter to every snapshot of these units, so the cache goes in front of it rather than in it
+        interGalacticToRomanConverter = conversionCacheCapacity > 0
+                ? new CachingInterGalacticToRomanConverter(compiledConverter, conversionCacheCapacity) : compiledConverter;
+
+        this.earthMaterials = earthMaterials;
+        this.priceOfEarthMaterial = Arrays.copyOf(priceOfEarthMaterial, earthMaterials.size());
+    }
+
+    private VocabularySnapshot(Map<String, String> interGalacticToRomanConversionMap, EarthMaterialCatalogue earthMaterials,
+                               Map<String, UnitPrice> pricesForEarthMaterials, RomanNumeralRules romanNumeralRules,
+                               int conversionCacheCapacity, VocabularyLayout layout) {
+        this(interGalacticToRomanConversionMap, earthMaterials, priceOfEachEarthMaterial(earthMaterials, pricesForEarthMaterials),
+                romanNumeralRules, conversionCacheCapacity, layout);
+    }
+
+    //The prices by the ID of their material in a catalogue of them
+    private static UnitPrice[] priceOfEachEarthMaterial(EarthMaterialCatalogue earthMaterials, Map<String, UnitPrice> pricesForEarthMaterials) {
+        UnitPrice[] priceOfEarthMaterial = new UnitPrice[earthMaterials.size()];
+        pricesForEarthMaterials.forEach((earthMaterial, price) -> priceOfEarthMaterial[earthMaterials.idOf(earthMaterial, 0, earthMaterial.length())] = price);
+        return priceOfEarthMaterial;
+    }
+
+    /**
+     * @param creditsForEarthMaterials Map of earth material transactions e.g. Silver-17f
+     * @return the same prices, each taken to be the first convergent of its continued fraction that is the same double
+     */
+    static Map<String, UnitPrice> exactPricesOf(Map<String, Double> creditsForEarthMaterials) {
+        Map<String, UnitPrice> pricesForEarthMaterials = new LinkedHashMap<>();
+        creditsForEarthMaterials.forEach((earthMaterial, credits) -> pricesForEarthMaterials.put(earthMaterial, UnitPrice.of(credits)));
+        return pricesForEarthMaterials;
+    }
+
+    InterGalacticToRomanConverter getInterGalacticToRomanConverter() {
+        return interGalacticToRomanConverter;
+    }
+
+    /**
+     * @return ID of the earth material spelt by a word of a tokenizer, ignoring case, or WordLookup.UNKNOWN_WORD if it has no price
+     */
+    int earthMaterialOf(Tokenizer tokens, int token) {
+        int earthMaterial = earthMaterials.idOf(tokens, token);
+        return earthMaterial == WordLookup.UNKNOWN_WORD || priceOfEarthMaterial[earthMaterial] == null ? WordLookup.UNKNOWN_WORD : earthMaterial;
+    }
+
+    UnitPrice priceOf(int earthMaterial) {
+        return priceOfEarthMaterial[earthMaterial];
+    }
+
+    //Made again from the compiled units, as a map of millions of units is not worth keeping for the odd caller asking for it
+    Map<String, String> getInterGalacticToRomanConversionMap() {
+        return interGalacticToRomanConverter.getVocabulary().interGalacticConversionUnits();
+    }
+
+    //Made again from the prices by ID likewise, the materials as they are spelt in the catalogue
+    Map<String, Double> getCreditsForEarthMaterials() {
+        Map<String, Double> creditsForEarthMaterials = new HashMap<>();
+        for (int earthMaterial = 0; earthMaterial < priceOfEarthMaterial.length; earthMaterial++) {
+            if (priceOfEarthMaterial[earthMaterial] != null)
+                creditsForEarthMaterials.put(earthMaterials.wordOf(earthMaterial), priceOfEarthMaterial[earthMaterial].doubleValue());
+        }
+        return creditsForEarthMaterials;
+    }
+}
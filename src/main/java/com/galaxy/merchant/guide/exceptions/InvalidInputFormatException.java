@@ -1,7 +1,8 @@
 package com.galaxy.merchant.guide.exceptions;
 
 /**
- * Exception class to catch invalid formats
+ * Exception class to catch invalid formats.
+ * Invalid formats are expected from user input, so the exception does not capture a stack trace.
  *
  * @author Gayathri Thiyagarajan
  */
@@ -10,6 +11,7 @@ public class InvalidInputFormatException extends Exception {
     private String errorMessage;
 
     public InvalidInputFormatException(String errorMessage) {
+        super(errorMessage, null, false, false);
         this.errorMessage = errorMessage;
     }
 
@@ -1,7 +1,9 @@
 package com.galaxy.merchant.guide.exceptions;
 
 /**
- * Exception class to define invalid queries
+ * Exception class to define invalid queries.
+ * Invalid queries are part of normal traffic, so the exception does not capture a stack trace
+ * and can be preallocated and shared; the reason tells why the query was rejected.
  *
  * @author Gayathri Thiyagarajan
  */
@@ -9,11 +11,23 @@ public class InvalidQueryException extends Throwable {
 
     private String errorMessage;
 
+    private String reason;
+
     public InvalidQueryException(String errorMessage) {
+        this(errorMessage, errorMessage);
+    }
+
+    public InvalidQueryException(String errorMessage, String reason) {
+        super(reason, null, false, false);
         this.errorMessage = errorMessage;
+        this.reason = reason;
     }
 
     public String getErrorMessage() {
         return errorMessage;
     }
+
+    public String getReason() {
+        return reason;
+    }
 }
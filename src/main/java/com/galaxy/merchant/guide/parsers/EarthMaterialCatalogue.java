@@ -0,0 +1,93 @@
+package com.galaxy.merchant.guide.parsers;
+
+import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.EARTH_MATERIALS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import com.galaxy.merchant.guide.tokenizers.AsciiCase;
+import com.galaxy.merchant.guide.tokenizers.PerfectHashWordIndex;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
+
+/**
+ * Earth materials that can be transacted, e.g. loaded from a side file of thousands of materials. Each material is
+ * given a dense ID from 0 to size() - 1, in the order it is first listed, so prices can be kept in arrays indexed by
+ * it. A material is looked up straight on the characters of a line, ignoring case, in a hash compiled for the
+ * catalogue, so the lookup costs a single probe however many materials there are.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class EarthMaterialCatalogue implements WordLookup {
+
+    /**
+     * The materials traded when no catalogue is given: silver, gold and iron
+     */
+    public static final EarthMaterialCatalogue DEFAULT = new EarthMaterialCatalogue(EARTH_MATERIALS);
+
+    private static final char COMMENT = '#';
+
+    private final PerfectHashWordIndex materials;
+
+    /**
+     * @param materials names of the materials, each a single word; of names differing only in case the first one is kept
+     * @throws IllegalArgumentException if a name is empty or more than one word
+     */
+    public EarthMaterialCatalogue(Collection<String> materials) {
+        //Case duplicates are dropped before compiling, so the IDs stay dense
+        List<String> distinctMaterials = new ArrayList<>(materials.size());
+        Set<String> materialsSoFar = new TreeSet<>(AsciiCase::compare);
+        for (String material : materials) {
+            if (!isOneWord(material))
+                throw new IllegalArgumentException("An earth material must be a single word: '" + material + "'");
+            if (materialsSoFar.add(material))
+                distinctMaterials.add(material);
+        }
+        this.materials = new PerfectHashWordIndex(distinctMaterials.toArray(new String[distinctMaterials.size()]));
+    }
+
+    /**
+     * Reads a catalogue from the lines of a side file, one material per line; blank lines and lines starting with #
+     * are skipped and the name may be surrounded by spaces
+     *
+     * @param lines lines of the file
+     * @return catalogue of the materials in the order they are listed
+     * @throws InvalidInputFormatException if a line names more than one word
+     */
+    public static EarthMaterialCatalogue fromLines(List<String> lines) throws InvalidInputFormatException {
+        List<String> materials = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String material = line.trim();
+            if (material.isEmpty() || material.charAt(0) == COMMENT)
+                continue;
+            if (!isOneWord(material))
+                throw new InvalidInputFormatException("An earth material must be a single word: '" + material + "'");
+            materials.add(material);
+        }
+        return new EarthMaterialCatalogue(materials);
+    }
+
+    @Override
+    public int size() {
+        return materials.size();
+    }
+
+    @Override
+    public String wordOf(int id) {
+        return materials.wordOf(id);
+    }
+
+    @Override
+    public int idOf(CharSequence characters, int from, int to) {
+        return materials.idOf(characters, from, to);
+    }
+
+    private static boolean isOneWord(String material) {
+        int to = material.length();
+        return to != 0 && Tokenizer.skipToken(material, 0, to) == to;
+    }
+}
@@ -3,7 +3,7 @@ package com.galaxy.merchant.guide.parsers;
 import java.util.HashMap;
 import java.util.List;
 
-import org.apache.commons.lang3.StringUtils;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
 
 /**
  * InterGalacticNumeralNotesParser parses lines from notes to
@@ -15,13 +15,23 @@ public class InterGalacticNumeralNotesParser implements NotesParser {
 
     private HashMap<String, String> interGalacticToRomanConversionMap = new HashMap<>();
 
+    //Spelling each unit is keyed by in the conversion map, by its ASCII lower case, so a unit noted again in another
+    //case is found without scanning the map
+    private final HashMap<String, String> spellingOfInterGalacticUnit = new HashMap<>();
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
     public void parseNotes(List<String> galacticUnitLinesFromNotes) {
 
         for (String line : galacticUnitLinesFromNotes) {
-            String[] wordsInALine = line.split(StringUtils.SPACE);
-            String galacticUnit = wordsInALine[0];
-            String romanNumericEquiv = wordsInALine[2];
-            interGalacticToRomanConversionMap.put(galacticUnit.toLowerCase(), romanNumericEquiv);
+            Tokenizer wordsInALine = tokenizer.tokenize(line);
+            String galacticUnit = wordsInALine.asString(0);
+            String romanNumericEquiv = wordsInALine.asString(2);
+            //Units are matched ignoring case, so a unit noted again in another case replaces the earlier note
+            String earlierSpelling = spellingOfInterGalacticUnit.put(wordsInALine.asLowerCaseString(0, 1), galacticUnit);
+            if (earlierSpelling != null && !earlierSpelling.equals(galacticUnit))
+                interGalacticToRomanConversionMap.remove(earlierSpelling);
+            interGalacticToRomanConversionMap.put(galacticUnit, romanNumericEquiv);
         }
     }
 
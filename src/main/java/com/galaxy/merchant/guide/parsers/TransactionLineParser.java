@@ -0,0 +1,170 @@
+package com.galaxy.merchant.guide.parsers;
+
+import java.util.Arrays;
+
+import com.galaxy.merchant.guide.converters.InterGalacticVocabulary;
+import com.galaxy.merchant.guide.tokenizers.AsciiCase;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
+
+/**
+ * Parses a line of transaction notes e.g. "glob glob Silver is 34 Credits" in one scan over its characters: the units
+ * of the quantity, each looked up as it is read and kept as its ID, the earth material, "is", the number of credits
+ * and "credits". Words are separated by runs of spaces and tabs and matched ignoring case, as everywhere else.
+ * Nothing is allocated for a line; a line that is not a transaction is told apart by what was expected where it
+ * stopped matching. The parser is reused from one line to the next, so it parses one line at a time.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+final class TransactionLineParser {
+
+    //What was expected where a line stopped matching the transaction format
+    static final String EXPECTED_INTER_GALACTIC_UNIT = "Expected an intergalactic unit";
+    static final String EXPECTED_EARTH_MATERIAL = "Expected an earth material";
+    static final String EXPECTED_IS = "Expected is";
+    static final String EXPECTED_NUMBER_OF_CREDITS = "Expected a number of credits";
+    static final String EXPECTED_CREDITS = "Expected credits";
+    static final String EXPECTED_END_OF_LINE = "Expected the end of the line";
+
+    private static final String IS = "is";
+    private static final String CREDITS = "credits";
+
+    private final InterGalacticVocabulary interGalacticUnits;
+    private final WordLookup earthMaterials;
+
+    //Parts of the last line parsed
+    private int[] idsOfQuantity = new int[16];
+    private int numberOfUnits;
+    private int earthMaterial;
+    private int startOfEarthMaterial;
+    private int endOfEarthMaterial;
+    private long numberOfCredits;
+
+    //Why the last line did not parse and the index of the character it stopped matching at
+    private String failure;
+    private int failedAt;
+
+    /**
+     * @param interGalacticUnits units the quantities are written in
+     * @param earthMaterials earth materials that can be transacted
+     */
+    TransactionLineParser(InterGalacticVocabulary interGalacticUnits, WordLookup earthMaterials) {
+        this.interGalacticUnits = interGalacticUnits;
+        this.earthMaterials = earthMaterials;
+    }
+
+    /**
+     * @param line e.g. "glob glob Silver is 34 Credits"
+     * @return true if the line is a transaction, its parts then being read with the getters, false with
+     * getFailure and getFailedAt telling why if it is not
+     */
+    boolean parse(CharSequence line) {
+        int to = line.length();
+        int startOfWord = Tokenizer.skipSeparators(line, 0, to);
+        int endOfWord = Tokenizer.skipToken(line, startOfWord, to);
+        numberOfUnits = 0;
+
+        //Every word is a unit until the one followed by "is", which is the earth material
+        while (true) {
+            if (startOfWord == to)
+                return failAt(numberOfUnits == 0 ? EXPECTED_INTER_GALACTIC_UNIT : EXPECTED_EARTH_MATERIAL, startOfWord);
+
+            int startOfNextWord = Tokenizer.skipSeparators(line, endOfWord, to);
+            int endOfNextWord = Tokenizer.skipToken(line, startOfNextWord, to);
+
+            if (isWord(line, startOfNextWord, endOfNextWord, IS)) {
+                if (numberOfUnits == 0)
+                    return failAt(EXPECTED_INTER_GALACTIC_UNIT, startOfWord);
+                earthMaterial = earthMaterials.idOf(line, startOfWord, endOfWord);
+                if (earthMaterial == WordLookup.UNKNOWN_WORD)
+                    return failAt(EXPECTED_EARTH_MATERIAL, startOfWord);
+                startOfEarthMaterial = startOfWord;
+                endOfEarthMaterial = endOfWord;
+
+                startOfWord = Tokenizer.skipSeparators(line, endOfNextWord, to);
+                break;
+            }
+
+            int id = interGalacticUnits.idOf(line, startOfWord, endOfWord);
+            if (id == InterGalacticVocabulary.UNKNOWN_WORD) {
+                boolean isEarthMaterial = numberOfUnits > 0 && earthMaterials.idOf(line, startOfWord, endOfWord) != WordLookup.UNKNOWN_WORD;
+                return isEarthMaterial ? failAt(EXPECTED_IS, startOfNextWord) : failAt(EXPECTED_INTER_GALACTIC_UNIT, startOfWord);
+            }
+            if (numberOfUnits == idsOfQuantity.length)
+                idsOfQuantity = Arrays.copyOf(idsOfQuantity, numberOfUnits * 2);
+            idsOfQuantity[numberOfUnits++] = id;
+
+            startOfWord = startOfNextWord;
+            endOfWord = endOfNextWord;
+        }
+
+        //The number of credits, read digit by digit
+        endOfWord = Tokenizer.skipToken(line, startOfWord, to);
+        numberOfCredits = 0;
+        for (int i = startOfWord; i < endOfWord; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || numberOfCredits > (Long.MAX_VALUE - digit) / 10)
+                return failAt(EXPECTED_NUMBER_OF_CREDITS, startOfWord);
+            numberOfCredits = numberOfCredits * 10 + digit;
+        }
+        if (startOfWord == endOfWord)
+            return failAt(EXPECTED_NUMBER_OF_CREDITS, startOfWord);
+
+        startOfWord = Tokenizer.skipSeparators(line, endOfWord, to);
+        endOfWord = Tokenizer.skipToken(line, startOfWord, to);
+        if (!isWord(line, startOfWord, endOfWord, CREDITS))
+            return failAt(EXPECTED_CREDITS, startOfWord);
+
+        startOfWord = Tokenizer.skipSeparators(line, endOfWord, to);
+        if (startOfWord != to)
+            return failAt(EXPECTED_END_OF_LINE, startOfWord);
+
+        failure = null;
+        return true;
+    }
+
+    //IDs of the units of the quantity of the last line, from 0 up to getNumberOfUnits
+    int[] getIdsOfQuantity() {
+        return idsOfQuantity;
+    }
+
+    int getNumberOfUnits() {
+        return numberOfUnits;
+    }
+
+    //ID of the earth material of the last line
+    int getEarthMaterial() {
+        return earthMaterial;
+    }
+
+    //Where the earth material is written in the last line, as it is written
+    int getStartOfEarthMaterial() {
+        return startOfEarthMaterial;
+    }
+
+    int getEndOfEarthMaterial() {
+        return endOfEarthMaterial;
+    }
+
+    long getNumberOfCredits() {
+        return numberOfCredits;
+    }
+
+    String getFailure() {
+        return failure;
+    }
+
+    int getFailedAt() {
+        return failedAt;
+    }
+
+    private boolean failAt(String failure, int failedAt) {
+        this.failure = failure;
+        this.failedAt = failedAt;
+        return false;
+    }
+
+    private static boolean isWord(CharSequence line, int from, int to, String word) {
+        return to - from == word.length() && AsciiCase.regionMatches(line, from, word, 0, word.length());
+    }
+}
@@ -1,20 +1,16 @@
 package com.galaxy.merchant.guide.parsers;
 
-import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.EARTH_MATERIALS_PART;
-import static java.util.regex.Pattern.compile;
-import static org.apache.commons.lang3.StringUtils.EMPTY;
-import static org.apache.commons.lang3.StringUtils.substringBefore;
-import static org.apache.commons.lang3.StringUtils.trim;
-
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverter;
-import com.galaxy.merchant.guide.converters.RomanToArabicConverter;
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverterRegistry;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.PriceAggregation;
+import com.galaxy.merchant.guide.credits.PriceAggregator;
+import com.galaxy.merchant.guide.credits.UnitPrice;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 
 /**
@@ -24,100 +20,180 @@ import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
  */
 public class TransactionNotesParser implements NotesParser {
 
-    private HashMap<String, Double> creditsPerEarthMaterial = new HashMap<>();
-
-    private final HashMap<String, String> interGalacticConversionUnits;
+    private InterGalacticToRomanConverter interGalacticToRomanConverter;
 
-    private Pattern compiledTransactionPattern;
+    private final TransactionLineParser transactionLineParser;
 
-    private Pattern compiledEarthMaterialsPattern;
+    //Earth materials that can be transacted, whose IDs index the prices
+    private final EarthMaterialCatalogue earthMaterialCatalogue;
 
-    private InterGalacticToRomanConverter interGalacticToRomanConverter;
+    //Each earth material of the catalogue, by its ID, as it was last written in the notes, the key of its credits
+    private final String[] nameOfEarthMaterial;
 
-    private RomanToArabicConverter romanToArabicConverter;
+    //Exact price of each earth material of the catalogue by its ID, as the credits noted for the quantity in lowest
+    //terms, null for the materials not noted yet
+    private final UnitPrice[] priceOfEarthMaterial;
 
+    //How the prices noted for the same earth material are put together, the aggregate of each material so far by its
+    //ID, and the materials noted in the notes being parsed, whose prices are to be refreshed
+    private final PriceAggregation priceAggregation;
+    private final PriceAggregator[] priceAggregatorOfEarthMaterial;
+    private final BitSet earthMaterialsNoted = new BitSet();
 
     public TransactionNotesParser(HashMap<String, String> interGalacticConversionUnits) {
+        this(interGalacticConversionUnits, RomanNumeralRules.CLASSIC);
+    }
+
+    public TransactionNotesParser(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules) {
+        this(interGalacticConversionUnits, romanNumeralRules, EarthMaterialCatalogue.DEFAULT);
+    }
 
-        this.interGalacticConversionUnits = interGalacticConversionUnits;
+    /**
+     * @param earthMaterialCatalogue earth materials that can be transacted; lines noting any other material are skipped
+     */
+    public TransactionNotesParser(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules,
+                                  EarthMaterialCatalogue earthMaterialCatalogue) {
+        this(interGalacticConversionUnits, romanNumeralRules, earthMaterialCatalogue, PriceAggregation.LATEST);
+    }
 
-        interGalacticToRomanConverter = new InterGalacticToRomanConverter(interGalacticConversionUnits);
-        romanToArabicConverter = new RomanToArabicConverter();
+    /**
+     * @param priceAggregation how the prices of several transactions of the same material are put together, the
+     *                         latest one being its price by default
+     */
+    public TransactionNotesParser(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules,
+                                  EarthMaterialCatalogue earthMaterialCatalogue, PriceAggregation priceAggregation) {
+        this(interGalacticConversionUnits, romanNumeralRules, earthMaterialCatalogue, priceAggregation, VocabularyLayout.HASHED);
     }
 
     /**
-     * Parses transaction notes like "glob glob Silver is 34 Credits"
+     * @param layout how the units are kept, the same as the queries are answered with so that the registry compiles them once
+     */
+    public TransactionNotesParser(HashMap<String, String> interGalacticConversionUnits, RomanNumeralRules romanNumeralRules,
+                                  EarthMaterialCatalogue earthMaterialCatalogue, PriceAggregation priceAggregation,
+                                  VocabularyLayout layout) {
+
+        //The converter compiles its own copy of the units, so the notes are parsed against them even if the map changes
+        interGalacticToRomanConverter = InterGalacticToRomanConverterRegistry.shared()
+                .converterFor(interGalacticConversionUnits, romanNumeralRules, layout);
+        transactionLineParser = new TransactionLineParser(interGalacticToRomanConverter.getVocabulary(), earthMaterialCatalogue);
+        this.earthMaterialCatalogue = earthMaterialCatalogue;
+        nameOfEarthMaterial = new String[earthMaterialCatalogue.size()];
+        priceOfEarthMaterial = new UnitPrice[earthMaterialCatalogue.size()];
+        this.priceAggregation = priceAggregation;
+        priceAggregatorOfEarthMaterial = new PriceAggregator[earthMaterialCatalogue.size()];
+    }
+
+    /**
+     * Parses transaction notes like "glob glob Silver is 34 Credits"; lines in any other format are skipped.
+     * Notes may be parsed in several batches, e.g. as they stream in, each batch adding to the prices of the ones before.
      * @param earthMaterialTransactions Array of transactions
      * @return a map of earth material vs no. of credits per unit  e.g "Silver-17f"
      */
     public void parseNotes(List<String> earthMaterialTransactions) throws InvalidInputFormatException {
 
-        compilePatternsForParsing();
-
-        for (String aLineOfTransaction : earthMaterialTransactions) {
+        try {
+            for (String aLineOfTransaction : earthMaterialTransactions) {
 
-            //check that the transaction sticks to the expected format
-            if (aLineOfTransaction == null || !compiledTransactionPattern.matcher(aLineOfTransaction).matches())
-                continue;
+                //check that the transaction sticks to the expected format
+                if (aLineOfTransaction == null || !transactionLineParser.parse(aLineOfTransaction))
+                    continue;
 
-            calculateCreditsPerEarthMaterial(aLineOfTransaction);
+                calculateCreditsPerEarthMaterial(aLineOfTransaction);
+            }
+        } finally {
+            //The prices are put together once per batch, for the materials it noted
+            refreshCreditsOfEarthMaterialsNoted();
         }
     }
 
     /**
-     * Computes and compiles the pattern of a transaction given a list of intergalactic numerals and earth materials for sale
+     * Adds the price of the line of transaction just parsed to the aggregate of its earth material
+     *
+     * @param aLineOfTransaction the line just parsed
+     * @throws InvalidInputFormatException if the quantity does not satisfy roman numeric rules, or the credits or
+     *                                     quantity noted for the material altogether are more than can be counted
      */
-    private void compilePatternsForParsing() {
-
-        //Set the format of a transaction given all the intergalactic numerals from the first part of the input
-
-        Set<String> interGalacticUnits = interGalacticConversionUnits.keySet();
-        String INTERGALACTIC_QUANTITY_PART = interGalacticUnits.stream().map(e -> e).collect(Collectors.joining("|"));
+    private void calculateCreditsPerEarthMaterial(String aLineOfTransaction) throws InvalidInputFormatException {
 
-        String TRANSACTION_FORMAT = "^(("
-                                  + INTERGALACTIC_QUANTITY_PART
-                                  + ")\\s)+"
-                                  + EARTH_MATERIALS_PART
-                                  + "(\\sis\\s){1}\\d+(\\scredits){1}";
+        long totalCreditsInTheTransaction = transactionLineParser.getNumberOfCredits();
+
+        //The units of the quantity were looked up while the line was parsed
+        long quantityOfMaterial = interGalacticToRomanConverter.toArabicExtended(transactionLineParser.getIdsOfQuantity(), 0,
+                transactionLineParser.getNumberOfUnits());
+        if(quantityOfMaterial < 0)
+            throw new InvalidInputFormatException("Input segment is invalid");
+
+        //Materials are matched ignoring case, so a material noted again in another case is keyed as written last;
+        //its name is only made into a string when it is written differently from the last time
+        int earthMaterial = transactionLineParser.getEarthMaterial();
+        int start = transactionLineParser.getStartOfEarthMaterial();
+        int end = transactionLineParser.getEndOfEarthMaterial();
+        String nameOfMaterial = nameOfEarthMaterial[earthMaterial];
+        if (nameOfMaterial == null || !aLineOfTransaction.regionMatches(start, nameOfMaterial, 0, end - start)
+                || nameOfMaterial.length() != end - start) {
+            nameOfMaterial = aLineOfTransaction.substring(start, end);
+            nameOfEarthMaterial[earthMaterial] = nameOfMaterial;
+        }
 
-        compiledEarthMaterialsPattern = compile(EARTH_MATERIALS_PART, Pattern.CASE_INSENSITIVE);
-        compiledTransactionPattern = compile(TRANSACTION_FORMAT, Pattern.CASE_INSENSITIVE);
+        PriceAggregator priceAggregator = priceAggregatorOfEarthMaterial[earthMaterial];
+        if (priceAggregator == null) {
+            priceAggregator = new PriceAggregator(priceAggregation);
+            priceAggregatorOfEarthMaterial[earthMaterial] = priceAggregator;
+        }
+        try {
+            priceAggregator.add(totalCreditsInTheTransaction, quantityOfMaterial);
+        } catch (ArithmeticException e) {
+            throw new InvalidInputFormatException("Credits noted for " + nameOfMaterial + " are more than can be counted");
+        }
+        earthMaterialsNoted.set(earthMaterial);
+    }
 
+    private void refreshCreditsOfEarthMaterialsNoted() {
+        for (int earthMaterial = earthMaterialsNoted.nextSetBit(0); earthMaterial >= 0;
+             earthMaterial = earthMaterialsNoted.nextSetBit(earthMaterial + 1)) {
+            priceOfEarthMaterial[earthMaterial] = priceAggregatorOfEarthMaterial[earthMaterial].price();
+        }
+        earthMaterialsNoted.clear();
     }
 
     /**
-     * Calculates number of credits per earth material from each line of transaction
-     *
-     * @param aLineOfTransaction a single line of transaction
-     * @throws InvalidInputFormatException
+     * @return a map of earth material, as last written in the notes, vs no. of credits per unit e.g "Silver-17f",
+     * made from the prices by catalogue ID each time it is asked for
      */
-    private void calculateCreditsPerEarthMaterial(String aLineOfTransaction) throws InvalidInputFormatException {
-        Matcher matcher;
-
-        String SPLIT_TRANSACTION_BY_STRING = "(\\sis\\s)";
-        String[] aLineOfTransactionAsArray = aLineOfTransaction.split(SPLIT_TRANSACTION_BY_STRING);
-
-        String remainderOfTheString = aLineOfTransactionAsArray[1];
-        String STRIP_OUT_STRING = "credits";
-        String creditsAsString = trim(remainderOfTheString.replace(STRIP_OUT_STRING, EMPTY));
-        Integer totalCreditsInTheTransaction = Integer.valueOf(creditsAsString);
-
-        String transaction = aLineOfTransactionAsArray[0];
+    public HashMap<String, Double> getCreditsPerEarthMaterial() {
+        HashMap<String, Double> creditsPerEarthMaterial = new HashMap<>();
+        for (int earthMaterial = 0; earthMaterial < priceOfEarthMaterial.length; earthMaterial++) {
+            if (priceOfEarthMaterial[earthMaterial] != null)
+                creditsPerEarthMaterial.put(nameOfEarthMaterial[earthMaterial], priceOfEarthMaterial[earthMaterial].doubleValue());
+        }
+        return creditsPerEarthMaterial;
+    }
 
-        matcher = compiledEarthMaterialsPattern.matcher(transaction);
+    /**
+     * @return a map of earth material vs its exact price per unit e.g. "Iron-391/2", made as getCreditsPerEarthMaterial
+     */
+    public HashMap<String, UnitPrice> getPricePerEarthMaterial() {
+        HashMap<String, UnitPrice> pricePerEarthMaterial = new HashMap<>();
+        for (int earthMaterial = 0; earthMaterial < priceOfEarthMaterial.length; earthMaterial++) {
+            if (priceOfEarthMaterial[earthMaterial] != null)
+                pricePerEarthMaterial.put(nameOfEarthMaterial[earthMaterial], priceOfEarthMaterial[earthMaterial]);
+        }
+        return pricePerEarthMaterial;
+    }
 
-        if(matcher.find()) {
-            String interGalacticValue = trim(substringBefore(transaction, matcher.group(1)));
-            String earthMaterial = matcher.group(1);
+    public EarthMaterialCatalogue getEarthMaterialCatalogue() {
+        return earthMaterialCatalogue;
+    }
 
-            Integer quantityOfMaterial = romanToArabicConverter.convertRomanSegmentIntoNumericValue(
-                                            interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment(interGalacticValue));
-            double numberOfCreditsPerUnitOfMaterial = (double) totalCreditsInTheTransaction / quantityOfMaterial;
-            creditsPerEarthMaterial.put(earthMaterial, numberOfCreditsPerUnitOfMaterial);
-        }
+    /**
+     * @return exact price of each earth material by its ID in getEarthMaterialCatalogue(), null for the materials not
+     * noted; a copy, so parsing more notes does not change it
+     */
+    public UnitPrice[] getPriceOfEarthMaterial() {
+        return priceOfEarthMaterial.clone();
     }
 
-    public HashMap<String, Double> getCreditsPerEarthMaterial() {
-        return creditsPerEarthMaterial;
+    InterGalacticToRomanConverter getInterGalacticToRomanConverter() {
+        return interGalacticToRomanConverter;
     }
 }
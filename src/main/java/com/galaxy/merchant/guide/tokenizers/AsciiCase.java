@@ -0,0 +1,72 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+/**
+ * Compares and hashes characters ignoring the case of ASCII letters, straight on the original characters,
+ * so that mixed case notes and queries are matched without making lowered copies of them.
+ * Characters other than A to Z are compared as they are.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class AsciiCase {
+
+    private AsciiCase() {
+    }
+
+    public static char toLowerCase(char character) {
+        return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+    }
+
+    /**
+     * @return hash of the characters between from and to, the same as String.hashCode of their lower case
+     */
+    public static int hashCode(CharSequence characters, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + toLowerCase(characters.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * @return true if the length characters from aFrom in a are the same as the ones from bFrom in b, ignoring case
+     */
+    public static boolean regionMatches(CharSequence a, int aFrom, CharSequence b, int bFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            if (toLowerCase(a.charAt(aFrom + i)) != toLowerCase(b.charAt(bFrom + i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return negative, zero or positive as a comes before, is the same as or comes after b in alphabetical order,
+     * ignoring case
+     */
+    public static int compare(CharSequence a, CharSequence b) {
+        int shorter = Math.min(a.length(), b.length());
+        for (int i = 0; i < shorter; i++) {
+            int difference = toLowerCase(a.charAt(i)) - toLowerCase(b.charAt(i));
+            if (difference != 0)
+                return difference;
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * @return true if the text starts with the prefix, ignoring case
+     */
+    public static boolean startsWith(CharSequence text, String prefix) {
+        return text.length() >= prefix.length() && regionMatches(text, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * @return index of the first occurrence of the word in the text at or after from, ignoring case, or -1 if there is none
+     */
+    public static int indexOf(CharSequence text, String word, int from) {
+        for (int i = Math.max(0, from); i <= text.length() - word.length(); i++) {
+            if (regionMatches(text, i, word, 0, word.length()))
+                return i;
+        }
+        return -1;
+    }
+}
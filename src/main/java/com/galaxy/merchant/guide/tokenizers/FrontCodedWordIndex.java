@@ -0,0 +1,243 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Sorted words kept in a few primitive arrays, for vocabularies of millions of words where a string and a table entry
+ * per word cost far more than the letters themselves.
+ *
+ * <p>The words are front coded in lower case, in blocks of BLOCK_SIZE: the first word of a block is kept whole and
+ * every other word as the number of letters it shares with the word before it followed by the letters it does not.
+ * A word is looked up with a binary search over the first words of the blocks and then a scan of one block, which
+ * compares each letter of the word looked up at most once, without decoding any word nor allocating anything.
+ * The first letters of the first word of every block are also kept side by side in one array, so that the binary
+ * search mostly reads that array and only goes to the letters themselves between blocks starting the same.
+ * The few words not written all in lower case are also kept as strings, by ID, so that every word is given back as
+ * it was written. The index never changes once built.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class FrontCodedWordIndex implements WordLookup {
+
+    //Number of words in a block, the first one kept whole
+    public static final int BLOCK_SIZE = 16;
+
+    //Longest word that can be kept, as lengths are kept in a char
+    public static final int LONGEST_WORD = Character.MAX_VALUE;
+
+    //Letters of a word packed into a long for the binary search, 16 bits each
+    private static final int LETTERS_IN_PREFIX = 4;
+
+    //For each word the number of letters shared with the word before it in its block, the number of letters that
+    //follow and those letters in lower case
+    private final char[] letters;
+
+    //Index in letters of the first word of each block
+    private final int[] startOfBlock;
+
+    //The first LETTERS_IN_PREFIX letters of the first word of each block, as by prefixOf
+    private final long[] prefixOfBlock;
+
+    //IDs of the words not written all in lower case, in order, and each one's spelling
+    private final int[] idOfSpelling;
+    private final String[] spelling;
+
+    private final int size;
+
+    /**
+     * @param words words of the index, each one's ID being its position, in alphabetical order ignoring case as given
+     *              by AsciiCase.compare; of words differing only in case the first one is found
+     * @throws IllegalArgumentException if the words are not in alphabetical order or one is longer than LONGEST_WORD
+     */
+    public FrontCodedWordIndex(String... words) {
+        this.size = words.length;
+
+        long numberOfLetters = 0;
+        for (int id = 0; id < words.length; id++) {
+            if (words[id].length() > LONGEST_WORD)
+                throw new IllegalArgumentException("Word is longer than " + LONGEST_WORD + " letters");
+            if (id > 0 && AsciiCase.compare(words[id - 1], words[id]) > 0)
+                throw new IllegalArgumentException("Words are not in alphabetical order");
+
+            numberOfLetters += 2 + words[id].length() - sharedLetters(words, id);
+        }
+        if (numberOfLetters > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Words have too many letters to be kept in one index");
+
+        int numberOfSpellings = 0;
+        for (String word : words) {
+            if (!isLowerCase(word))
+                numberOfSpellings++;
+        }
+        idOfSpelling = new int[numberOfSpellings];
+        spelling = new String[numberOfSpellings];
+        numberOfSpellings = 0;
+
+        letters = new char[(int) numberOfLetters];
+        startOfBlock = new int[(words.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        prefixOfBlock = new long[startOfBlock.length];
+
+        int position = 0;
+        for (int id = 0; id < words.length; id++) {
+            if (id % BLOCK_SIZE == 0) {
+                startOfBlock[id / BLOCK_SIZE] = position;
+                prefixOfBlock[id / BLOCK_SIZE] = prefixOf(words[id], 0, words[id].length());
+            }
+
+            String word = words[id];
+            if (!isLowerCase(word)) {
+                idOfSpelling[numberOfSpellings] = id;
+                spelling[numberOfSpellings++] = word;
+            }
+            int shared = sharedLetters(words, id);
+            letters[position++] = (char) shared;
+            letters[position++] = (char) (word.length() - shared);
+            for (int i = shared; i < word.length(); i++) {
+                letters[position++] = AsciiCase.toLowerCase(word.charAt(i));
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the word of an ID, as it was written
+     */
+    @Override
+    public String wordOf(int id) {
+        if (id < 0 || id >= size)
+            throw new IndexOutOfBoundsException("No word of ID " + id);
+
+        int spellingOfId = Arrays.binarySearch(idOfSpelling, id);
+        if (spellingOfId >= 0)
+            return spelling[spellingOfId];
+
+        char[] word = new char[16];
+        int length = 0;
+        int position = startOfBlock[id / BLOCK_SIZE];
+        for (int wordInBlock = 0; wordInBlock <= id % BLOCK_SIZE; wordInBlock++) {
+            length = letters[position];
+            int lettersAfter = letters[position + 1];
+            if (word.length < length + lettersAfter)
+                word = Arrays.copyOf(word, Math.max(word.length * 2, length + lettersAfter));
+            System.arraycopy(letters, position + 2, word, length, lettersAfter);
+            length += lettersAfter;
+            position += 2 + lettersAfter;
+        }
+        return new String(word, 0, length);
+    }
+
+    @Override
+    public int idOf(CharSequence characters, int from, int to) {
+        if (size == 0 || to - from > LONGEST_WORD)
+            return UNKNOWN_WORD;
+
+        //First block whose first word is not before the characters; the word is either in the block before it
+        //or is that first word
+        long prefix = prefixOf(characters, from, to);
+        int low = 0;
+        int high = startOfBlock.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = Long.compareUnsigned(prefixOfBlock[middle], prefix);
+            if (order < 0 || (order == 0 && compareToWordAt(startOfBlock[middle], characters, from, to) < 0))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        if (low > 0) {
+            int id = idInBlock(low - 1, characters, from, to);
+            if (id != UNKNOWN_WORD)
+                return id;
+        }
+        if (low < startOfBlock.length && compareToWordAt(startOfBlock[low], characters, from, to) == 0)
+            return low * BLOCK_SIZE;
+        return UNKNOWN_WORD;
+    }
+
+    /**
+     * Scans the words of a block in order, keeping how many letters of the characters the last word matched.
+     * A word sharing fewer letters than that with the last word comes after the characters, and one sharing more
+     * still comes before them, so only the letters of a word from where the last one stopped matching are compared.
+     */
+    private int idInBlock(int block, CharSequence characters, int from, int to) {
+        int length = to - from;
+        int matched = 0;
+        int position = startOfBlock[block];
+        int lastId = Math.min(size, (block + 1) * BLOCK_SIZE);
+
+        for (int id = block * BLOCK_SIZE; id < lastId; id++) {
+            int shared = letters[position];
+            int lettersAfter = letters[position + 1];
+            int wordLength = shared + lettersAfter;
+            int suffix = position + 2 - shared;
+            position += 2 + lettersAfter;
+
+            if (shared < matched)
+                return UNKNOWN_WORD;
+            if (shared > matched)
+                continue;
+
+            while (matched < wordLength && matched < length
+                    && letters[suffix + matched] == AsciiCase.toLowerCase(characters.charAt(from + matched)))
+                matched++;
+
+            if (matched == length)
+                return matched == wordLength ? id : UNKNOWN_WORD;
+            if (matched < wordLength && letters[suffix + matched] > AsciiCase.toLowerCase(characters.charAt(from + matched)))
+                return UNKNOWN_WORD;
+        }
+        return UNKNOWN_WORD;
+    }
+
+    //Compares the first word of a block, kept whole from position, with the characters between from and to ignoring case
+    private int compareToWordAt(int position, CharSequence characters, int from, int to) {
+        int wordLength = letters[position + 1];
+        int length = to - from;
+        int shorter = Math.min(wordLength, length);
+        for (int i = 0; i < shorter; i++) {
+            int difference = letters[position + 2 + i] - AsciiCase.toLowerCase(characters.charAt(from + i));
+            if (difference != 0)
+                return difference;
+        }
+        return wordLength - length;
+    }
+
+    /**
+     * Packs the first LETTERS_IN_PREFIX letters in lower case into a long, the first one in the highest bits and
+     * missing letters as 0, so that two words whose packed letters differ compare as the packed letters do
+     */
+    private static long prefixOf(CharSequence characters, int from, int to) {
+        long prefix = 0;
+        for (int i = 0; i < LETTERS_IN_PREFIX; i++) {
+            prefix = (prefix << Character.SIZE) | (from + i < to ? AsciiCase.toLowerCase(characters.charAt(from + i)) : 0);
+        }
+        return prefix;
+    }
+
+    private static boolean isLowerCase(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (AsciiCase.toLowerCase(word.charAt(i)) != word.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    //Letters a word shares with the word before it in its block, none for the first word of a block
+    private static int sharedLetters(String[] words, int id) {
+        if (id % BLOCK_SIZE == 0)
+            return 0;
+
+        String word = words[id];
+        String wordBefore = words[id - 1];
+        int shared = 0;
+        int shorter = Math.min(word.length(), wordBefore.length());
+        while (shared < shorter && AsciiCase.toLowerCase(word.charAt(shared)) == AsciiCase.toLowerCase(wordBefore.charAt(shared)))
+            shared++;
+        return shared;
+    }
+}
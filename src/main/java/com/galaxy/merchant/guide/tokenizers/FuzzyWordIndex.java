@@ -0,0 +1,289 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Index finding the word a misspelled one was meant to be: the word within one edit of it, that is with one letter
+ * substituted, inserted or deleted, or two adjacent letters swapped, ignoring the case of ASCII letters.
+ *
+ * <p>Every word is indexed under the hash of its own spelling and of each spelling with one letter deleted, so two
+ * spellings within one edit of each other always share one of those keys. A lookup hashes the misspelled word and
+ * each of its deletions, and checks only the few words found under those keys, so its cost depends on the length of
+ * the word and not on the number of words. The hashes of all the deletions of a word are derived from the hash of the
+ * word in one pass over it. The letters of all the words are kept in lower case in one array, each word after its ID and
+ * length, and a key leads straight to them, so checking a word found under a key reads one place in memory rather than
+ * a string and its characters.
+ *
+ * <p>Lookups in a large index are bound by the reads that miss the processor caches, so they are cut before the table
+ * and the letters are read. Most of the keys a lookup hashes are under no word at all, so a filter of a few bits per key,
+ * small enough to stay in the caches, tells them apart before the table is probed. Short deletions are shared by many
+ * words, most of which are not within one edit, so each key also records which letter was deleted: a word within one
+ * edit always shares a key whose deleted letter is at most one place from the one deleted from the misspelled word, so
+ * the words under keys whose deleted letters are further apart are passed over without reading their letters. Nothing
+ * is allocated by a lookup and the index never changes once built.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class FuzzyWordIndex {
+
+    //ID of a word that is not within one edit of any word of the index
+    public static final int UNKNOWN_WORD = WordIndex.UNKNOWN_WORD;
+
+    //Shorter words are within one edit of too many others to tell what they were meant to be, so they are not corrected
+    public static final int SHORTEST_CORRECTABLE_WORD = 3;
+
+    //Longer words are not words anyone means to type, so they are neither indexed nor corrected
+    public static final int LONGEST_CORRECTABLE_WORD = 64;
+
+    //Powers of 31, the multiplier of the hash, up to the longest word
+    private static final int[] POWERS_OF_31 = new int[LONGEST_CORRECTABLE_WORD + 1];
+
+    static {
+        POWERS_OF_31[0] = 1;
+        for (int i = 1; i < POWERS_OF_31.length; i++) {
+            POWERS_OF_31[i] = 31 * POWERS_OF_31[i - 1];
+        }
+    }
+
+    //More than one edit, as returned by editDistanceUpToOne
+    private static final int MORE_THAN_ONE_EDIT = 2;
+
+    private final String[] wordOfId;
+
+    //Entries of the correctable words one after another, each holding the ID of the word in two chars, then its length,
+    //then its letters in lower case
+    private final char[] letters;
+    private static final int ID_HIGH = 0, ID_LOW = 1, LENGTH = 2, FIRST_LETTER = 3;
+
+    //Open addressing table of the keys of the words, each slot holding the hash of a spelling, its low bits replaced by the
+    //position of the deleted letter, followed by the start of the entry of the word, side by side so that a probe reads
+    //a single cache line; UNKNOWN_WORD as the start of empty slots
+    private final int[] keyInSlot;
+    private static final int DELETED_POSITION_MASK = 0x7F;
+    private static final int NONE_DELETED = LONGEST_CORRECTABLE_WORD;
+    private final int slotMask;
+    private final int slotShift;
+
+    //Blocked bloom filter of the keys, each key setting two bits of one long, so that a key under no word is mostly
+    //told apart without probing the table
+    private final long[] keyFilter;
+    private final int filterShift;
+
+    /**
+     * @param words words of the index, each one's ID being its position
+     */
+    public FuzzyWordIndex(String... words) {
+        this.wordOfId = words.clone();
+
+        long numberOfKeys = 0;
+        long numberOfLetters = 0;
+        for (String word : words) {
+            if (isCorrectable(word.length())) {
+                numberOfKeys += word.length() + 1;
+                numberOfLetters += FIRST_LETTER + word.length();
+            }
+        }
+        letters = new char[(int) numberOfLetters];
+        int numberOfSlots = Integer.highestOneBit((int) Math.min(1 << 27, Math.max(1, numberOfKeys)) * 2) * 2;
+        keyInSlot = new int[numberOfSlots * 2];
+        Arrays.fill(keyInSlot, UNKNOWN_WORD);
+        slotMask = numberOfSlots - 1;
+        slotShift = Integer.numberOfLeadingZeros(slotMask);
+        //Between 8 and 16 bits per key
+        keyFilter = new long[Math.max(1, Integer.highestOneBit((int) Math.min(1 << 27, Math.max(1, numberOfKeys))) >> 2)];
+        filterShift = 64 - Integer.numberOfTrailingZeros(keyFilter.length);
+
+        int startOfEntry = 0;
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            if (!isCorrectable(word.length()))
+                continue;
+
+            letters[startOfEntry + ID_HIGH] = (char) (id >>> 16);
+            letters[startOfEntry + ID_LOW] = (char) id;
+            letters[startOfEntry + LENGTH] = (char) word.length();
+            for (int i = 0; i < word.length(); i++) {
+                letters[startOfEntry + FIRST_LETTER + i] = AsciiCase.toLowerCase(word.charAt(i));
+            }
+
+            //Deleting either of two equal adjacent letters gives the same spelling, indexed once for each place
+            int hash = hashOf(word, 0, word.length());
+            addKey(hash, NONE_DELETED, startOfEntry);
+            int prefixHash = 0;
+            for (int deleted = 0; deleted < word.length(); deleted++) {
+                char letter = AsciiCase.toLowerCase(word.charAt(deleted));
+                addKey(hashWithout(hash, prefixHash, letter, word.length() - 1 - deleted), deleted, startOfEntry);
+                prefixHash = 31 * prefixHash + letter;
+            }
+            startOfEntry += FIRST_LETTER + word.length();
+        }
+    }
+
+    public int size() {
+        return wordOfId.length;
+    }
+
+    public String wordOf(int id) {
+        return wordOfId[id];
+    }
+
+    /**
+     * Finds the word the characters between from and to were meant to be
+     *
+     * @return ID of the word spelt the same, else of the word within one edit, the lowest ID if several are,
+     * or UNKNOWN_WORD if there is none or the characters are fewer than SHORTEST_CORRECTABLE_WORD
+     */
+    public int idOfClosest(CharSequence characters, int from, int to) {
+        if (!isCorrectable(to - from))
+            return UNKNOWN_WORD;
+
+        //The closest word found so far and its distance, kept in one long so that lower distance then lower ID wins
+        int hash = hashOf(characters, from, to);
+        long closest = closestUnder(hash, NONE_DELETED, characters, from, to, Long.MAX_VALUE);
+        if (closest >>> 32 == 0)
+            return (int) closest;
+
+        int prefixHash = 0;
+        for (int deleted = from; deleted < to; deleted++) {
+            char letter = AsciiCase.toLowerCase(characters.charAt(deleted));
+            closest = closestUnder(hashWithout(hash, prefixHash, letter, to - 1 - deleted), deleted - from, characters, from, to, closest);
+            prefixHash = 31 * prefixHash + letter;
+        }
+        return closest == Long.MAX_VALUE ? UNKNOWN_WORD : (int) closest;
+    }
+
+    /**
+     * @param letters letters in lower case, the word being the ones between wordFrom and wordTo
+     * @return 0 if the word is spelt as the characters between from and to, 1 if it is within one edit of them, 2 if it is further
+     */
+    static int editDistanceUpToOne(char[] letters, int wordFrom, int wordTo, CharSequence characters, int from, int to) {
+        int wordLength = wordTo - wordFrom;
+        int length = to - from;
+        if (Math.abs(wordLength - length) > 1)
+            return MORE_THAN_ONE_EDIT;
+
+        int mismatch = 0;
+        int shorter = Math.min(wordLength, length);
+        while (mismatch < shorter && letters[wordFrom + mismatch] == AsciiCase.toLowerCase(characters.charAt(from + mismatch)))
+            mismatch++;
+
+        if (mismatch == shorter)
+            return wordLength == length ? 0 : 1;
+
+        boolean oneEdit;
+        if (wordLength == length) {
+            //Substituted, or swapped with the next letter
+            oneEdit = sameAfter(letters, wordFrom + mismatch + 1, wordTo, characters, from + mismatch + 1, to)
+                    || (mismatch + 1 < length
+                        && letters[wordFrom + mismatch] == AsciiCase.toLowerCase(characters.charAt(from + mismatch + 1))
+                        && letters[wordFrom + mismatch + 1] == AsciiCase.toLowerCase(characters.charAt(from + mismatch))
+                        && sameAfter(letters, wordFrom + mismatch + 2, wordTo, characters, from + mismatch + 2, to));
+        } else if (wordLength > length) {
+            //A letter of the word is missing from the characters
+            oneEdit = sameAfter(letters, wordFrom + mismatch + 1, wordTo, characters, from + mismatch, to);
+        } else {
+            //The characters have a letter too many
+            oneEdit = sameAfter(letters, wordFrom + mismatch, wordTo, characters, from + mismatch + 1, to);
+        }
+        return oneEdit ? 1 : MORE_THAN_ONE_EDIT;
+    }
+
+    /**
+     * @param deleted position of the letter deleted from the characters to get the spelling hashed, or NONE_DELETED
+     */
+    private long closestUnder(int hash, int deleted, CharSequence characters, int from, int to, long closest) {
+        long mixedHash = mixed(hash);
+        long bits = bitsOf(mixedHash);
+        if ((keyFilter[blockOf(mixedHash)] & bits) != bits)
+            return closest;
+
+        int spelling = hash & ~DELETED_POSITION_MASK;
+        for (int slot = slotOf(hash); keyInSlot[2 * slot + 1] != UNKNOWN_WORD; slot = (slot + 1) & slotMask) {
+            int key = keyInSlot[2 * slot];
+            if ((key & ~DELETED_POSITION_MASK) != spelling || !withinOnePlace(deleted, key & DELETED_POSITION_MASK))
+                continue;
+
+            int entry = keyInSlot[2 * slot + 1];
+            int wordFrom = entry + FIRST_LETTER;
+            int distance = editDistanceUpToOne(letters, wordFrom, wordFrom + letters[entry + LENGTH], characters, from, to);
+            if (distance == MORE_THAN_ONE_EDIT)
+                continue;
+
+            long candidate = ((long) distance << 32) | (letters[entry + ID_HIGH] << 16) | letters[entry + ID_LOW];
+            if (candidate < closest)
+                closest = candidate;
+        }
+        return closest;
+    }
+
+    private void addKey(int hash, int deleted, int startOfEntry) {
+        int slot = slotOf(hash);
+        while (keyInSlot[2 * slot + 1] != UNKNOWN_WORD) {
+            slot = (slot + 1) & slotMask;
+        }
+        keyInSlot[2 * slot] = (hash & ~DELETED_POSITION_MASK) | deleted;
+        keyInSlot[2 * slot + 1] = startOfEntry;
+
+        long mixedHash = mixed(hash);
+        keyFilter[blockOf(mixedHash)] |= bitsOf(mixedHash);
+    }
+
+    //Hashes of short words are close to one another, so they are scattered over the slots by the golden ratio
+    private int slotOf(int hash) {
+        return (hash * 0x9E3779B9) >>> slotShift;
+    }
+
+    //The filter takes its block from the top bits of the mixed hash and its two bits from the middle ones, apart from each other
+    private static long mixed(int hash) {
+        return (hash & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+    }
+
+    private int blockOf(long mixedHash) {
+        return filterShift == 64 ? 0 : (int) (mixedHash >>> filterShift);
+    }
+
+    private static long bitsOf(long mixedHash) {
+        return (1L << (mixedHash >>> 20)) | (1L << (mixedHash >>> 26));
+    }
+
+    private static boolean isCorrectable(int length) {
+        return length >= SHORTEST_CORRECTABLE_WORD && length <= LONGEST_CORRECTABLE_WORD;
+    }
+
+    /**
+     * Whether a key of a word may witness that it is within one edit of the misspelled word: the same spelling of both is a
+     * letter inserted or deleted if either of them had none deleted, and a letter substituted or two swapped only if the
+     * letters deleted from both are at most one place apart
+     */
+    private static boolean withinOnePlace(int deleted, int deletedFromWord) {
+        return deleted == NONE_DELETED || deletedFromWord == NONE_DELETED || Math.abs(deleted - deletedFromWord) <= 1;
+    }
+
+    //Hash of the characters between from and to in lower case, the same as AsciiCase.hashCode
+    private static int hashOf(CharSequence characters, int from, int to) {
+        return AsciiCase.hashCode(characters, from, to);
+    }
+
+    /**
+     * Hash of a spelling with one letter deleted, derived from the hash of the whole spelling: the letter no longer counts,
+     * and the letters before it move up one place so they count 31 times less
+     *
+     * @param hash hash of the whole spelling
+     * @param prefixHash hash of the letters before the deleted one
+     * @param letter the deleted letter, in lower case
+     * @param lettersAfter number of letters after the deleted one
+     */
+    private static int hashWithout(int hash, int prefixHash, char letter, int lettersAfter) {
+        return hash - (30 * prefixHash + letter) * POWERS_OF_31[lettersAfter];
+    }
+
+    private static boolean sameAfter(char[] letters, int wordFrom, int wordTo, CharSequence characters, int from, int to) {
+        if (wordTo - wordFrom != to - from)
+            return false;
+        for (int i = 0; i < to - from; i++) {
+            if (letters[wordFrom + i] != AsciiCase.toLowerCase(characters.charAt(from + i)))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,242 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Words hashed without collisions, for stable vocabularies looked up so often that even probing a hash table shows.
+ *
+ * <p>The index is compiled once for its words by hashing and displacing: the words are spread over buckets, and
+ * for each bucket, largest first, a displacement is searched for that sends all its words to free slots. A lookup
+ * then hashes the word once, reads the displacement of its bucket and lands on the one slot the word can be in,
+ * which is checked against the letters of all the words kept in lower case in one array. There is no probing, so
+ * the whole lookup is a few straight lines the JIT inlines into the decoder. Compiling takes longer than filling a
+ * hash table, and the index never changes once built.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class PerfectHashWordIndex implements WordLookup {
+
+    //Average number of words per bucket, and slots per word, traded against the time taken to compile the index
+    private static final int WORDS_PER_BUCKET = 3;
+    private static final double SLOTS_PER_WORD = 1.25;
+
+    //Displacements tried for a bucket before compiling again with another seed
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    private static final int MAX_SEEDS = 16;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final long MIXER = 0xC2B2AE3D27D4EB4FL;
+
+    private final String[] wordOfId;
+
+    //Letters of all the words in lower case one after another, the letters of a word being from its start to the next one's
+    private final char[] letters;
+    private final int[] startOfWord;
+
+    //Seed of the hash the index was compiled with, displacement of each bucket and ID of the word in each slot
+    private final long seed;
+    private final int[] displacementOfBucket;
+    private final int[] idInSlot;
+
+    /**
+     * @param words words of the index, each one's ID being its position; of words differing only in case the first one is kept
+     * @throws IllegalStateException in the unlikely case no seed hashes the words without collisions
+     */
+    public PerfectHashWordIndex(String... words) {
+        this.wordOfId = words.clone();
+
+        int numberOfLetters = 0;
+        for (String word : words) {
+            numberOfLetters += word.length();
+        }
+        letters = new char[numberOfLetters];
+        startOfWord = new int[words.length + 1];
+        for (int id = 0; id < words.length; id++) {
+            for (int i = 0; i < words[id].length(); i++) {
+                letters[startOfWord[id] + i] = AsciiCase.toLowerCase(words[id].charAt(i));
+            }
+            startOfWord[id + 1] = startOfWord[id] + words[id].length();
+        }
+
+        displacementOfBucket = new int[Math.max(1, words.length / WORDS_PER_BUCKET)];
+        idInSlot = new int[Math.max(1, (int) (words.length * SLOTS_PER_WORD))];
+
+        seed = compile();
+    }
+
+    @Override
+    public int size() {
+        return wordOfId.length;
+    }
+
+    @Override
+    public String wordOf(int id) {
+        return wordOfId[id];
+    }
+
+    @Override
+    public int idOf(CharSequence characters, int from, int to) {
+        long hash = hashOf(seed, characters, from, to);
+        int id = idInSlot[slotOf(hash, displacementOfBucket[bucketOf(hash)])];
+        if (id == UNKNOWN_WORD || startOfWord[id + 1] - startOfWord[id] != to - from)
+            return UNKNOWN_WORD;
+
+        for (int i = startOfWord[id], character = from; character < to; i++, character++) {
+            if (letters[i] != AsciiCase.toLowerCase(characters.charAt(character)))
+                return UNKNOWN_WORD;
+        }
+        return id;
+    }
+
+    /**
+     * @return the first seed the words are hashed without collisions with
+     */
+    private long compile() {
+        for (int seedTried = 0; seedTried < MAX_SEEDS; seedTried++) {
+            if (compile(seedTried * GOLDEN_RATIO))
+                return seedTried * GOLDEN_RATIO;
+        }
+        throw new IllegalStateException("Words cannot be hashed without collisions");
+    }
+
+    /**
+     * Searches a displacement for each bucket, from the largest bucket to the smallest
+     *
+     * @return false if a bucket found no displacement or two words not differing only in case hash the same
+     */
+    private boolean compile(long seed) {
+        int numberOfWords = wordOfId.length;
+        long[] hashOfId = new long[numberOfWords];
+        int[] wordsInBucket = new int[displacementOfBucket.length + 1];
+        for (int id = 0; id < numberOfWords; id++) {
+            hashOfId[id] = hashOf(seed, letters, startOfWord[id], startOfWord[id + 1]);
+            wordsInBucket[bucketOf(hashOfId[id]) + 1]++;
+        }
+
+        //IDs grouped by bucket, the IDs of a bucket being from its start to the next one's
+        int[] startOfBucket = wordsInBucket.clone();
+        for (int bucket = 0; bucket < displacementOfBucket.length; bucket++) {
+            startOfBucket[bucket + 1] += startOfBucket[bucket];
+        }
+        int[] idsByBucket = new int[numberOfWords];
+        int[] filled = Arrays.copyOf(startOfBucket, displacementOfBucket.length);
+        for (int id = 0; id < numberOfWords; id++) {
+            idsByBucket[filled[bucketOf(hashOfId[id])]++] = id;
+        }
+
+        //Buckets from the largest to the smallest, counting sorted by their size
+        int largestBucket = 0;
+        for (int bucket = 0; bucket < displacementOfBucket.length; bucket++) {
+            largestBucket = Math.max(largestBucket, startOfBucket[bucket + 1] - startOfBucket[bucket]);
+        }
+        int[] bucketsOfSize = new int[largestBucket + 2];
+        for (int bucket = 0; bucket < displacementOfBucket.length; bucket++) {
+            bucketsOfSize[largestBucket - (startOfBucket[bucket + 1] - startOfBucket[bucket]) + 1]++;
+        }
+        for (int size = 0; size <= largestBucket; size++) {
+            bucketsOfSize[size + 1] += bucketsOfSize[size];
+        }
+        int[] bucketsBySize = new int[displacementOfBucket.length];
+        for (int bucket = 0; bucket < displacementOfBucket.length; bucket++) {
+            bucketsBySize[bucketsOfSize[largestBucket - (startOfBucket[bucket + 1] - startOfBucket[bucket])]++] = bucket;
+        }
+
+        Arrays.fill(idInSlot, UNKNOWN_WORD);
+        Arrays.fill(displacementOfBucket, 0);
+        int[] slotOfWordInBucket = new int[largestBucket];
+        for (int bucket : bucketsBySize) {
+            int from = startOfBucket[bucket];
+            int to = startOfBucket[bucket + 1];
+            if (!removeWordsDifferingOnlyInCase(idsByBucket, from, to, hashOfId))
+                return false;
+
+            int displacement = 0;
+            while (!fitsInFreeSlots(idsByBucket, from, to, hashOfId, displacement, slotOfWordInBucket)) {
+                if (++displacement == MAX_DISPLACEMENT)
+                    return false;
+            }
+            displacementOfBucket[bucket] = displacement;
+            for (int word = from; word < to; word++) {
+                if (idsByBucket[word] != UNKNOWN_WORD)
+                    idInSlot[slotOfWordInBucket[word - from]] = idsByBucket[word];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops from a bucket the words that only differ in case from a word before them, so the first one is kept
+     *
+     * @return false if two other words hash the same, so that no displacement can tell them apart
+     */
+    private boolean removeWordsDifferingOnlyInCase(int[] idsByBucket, int from, int to, long[] hashOfId) {
+        for (int word = from; word < to; word++) {
+            for (int wordBefore = from; wordBefore < word; wordBefore++) {
+                int id = idsByBucket[word];
+                int idBefore = idsByBucket[wordBefore];
+                if (id == UNKNOWN_WORD || idBefore == UNKNOWN_WORD || hashOfId[id] != hashOfId[idBefore])
+                    continue;
+                if (AsciiCase.compare(wordOfId[id], wordOfId[idBefore]) != 0)
+                    return false;
+                idsByBucket[word] = UNKNOWN_WORD;
+            }
+        }
+        return true;
+    }
+
+    private boolean fitsInFreeSlots(int[] idsByBucket, int from, int to, long[] hashOfId, int displacement, int[] slotOfWordInBucket) {
+        for (int word = from; word < to; word++) {
+            if (idsByBucket[word] == UNKNOWN_WORD)
+                continue;
+
+            int slot = slotOf(hashOfId[idsByBucket[word]], displacement);
+            if (idInSlot[slot] != UNKNOWN_WORD)
+                return false;
+            for (int wordBefore = from; wordBefore < word; wordBefore++) {
+                if (idsByBucket[wordBefore] != UNKNOWN_WORD && slotOfWordInBucket[wordBefore - from] == slot)
+                    return false;
+            }
+            slotOfWordInBucket[word - from] = slot;
+        }
+        return true;
+    }
+
+    //The high half of the hash picks the bucket, the whole of it mixed with the displacement picks the slot
+    private int bucketOf(long hash) {
+        return reduce((int) (hash >>> 32), displacementOfBucket.length);
+    }
+
+    private int slotOf(long hash, int displacement) {
+        return reduce((int) (((hash ^ (displacement * GOLDEN_RATIO)) * MIXER) >>> 32), idInSlot.length);
+    }
+
+    //Maps 32 well mixed bits onto 0 to n - 1 by multiplying rather than dividing
+    private static int reduce(int bits, int n) {
+        return (int) (((bits & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    //64 bit FNV-1a hash of the characters between from and to in lower case, started from the seed
+    private static long hashOf(long seed, CharSequence characters, int from, int to) {
+        long hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ AsciiCase.toLowerCase(characters.charAt(i))) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long hashOf(long seed, char[] letters, int from, int to) {
+        long hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ letters[i]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    //Spreads the last letters, which FNV only mixes into the high bits, over all the bits
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * MIXER;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,169 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Splits a line of notes or a query into words separated by runs of spaces and tabs, in a single scan.
+ * Only the offsets of the words are recorded, no substring is created, and the same tokenizer can be reused
+ * line after line without allocating once its offset arrays are large enough.
+ *
+ * <p>A tokenizer holds the words of one line at a time, so it must not be shared between threads.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class Tokenizer {
+
+    //Returned by asNumber for words that are not made of digits only
+    public static final long NOT_A_NUMBER = -1L;
+
+    private static final int INITIAL_NUMBER_OF_TOKENS = 16;
+
+    private CharSequence text = "";
+
+    private int[] startOfToken = new int[INITIAL_NUMBER_OF_TOKENS];
+    private int[] endOfToken = new int[INITIAL_NUMBER_OF_TOKENS];
+    private int numberOfTokens;
+
+    /**
+     * Splits a whole line into words
+     *
+     * @param text e.g. "glob glob silver is 34 credits"
+     * @return this tokenizer, holding the words of the line
+     */
+    public Tokenizer tokenize(CharSequence text) {
+        return tokenize(text, 0, text.length());
+    }
+
+    /**
+     * Splits the part of a line between from and to into words
+     *
+     * @param text characters holding the line e.g. "how much is pish tegj glob glob ?"
+     * @param from index of the first character to split
+     * @param to index after the last character to split
+     * @return this tokenizer, holding the words between from and to
+     */
+    public Tokenizer tokenize(CharSequence text, int from, int to) {
+        this.text = text;
+        numberOfTokens = 0;
+
+        int start = skipSeparators(text, from, to);
+        while (start < to) {
+            if (numberOfTokens == startOfToken.length) {
+                startOfToken = Arrays.copyOf(startOfToken, numberOfTokens * 2);
+                endOfToken = Arrays.copyOf(endOfToken, numberOfTokens * 2);
+            }
+            int end = skipToken(text, start, to);
+            startOfToken[numberOfTokens] = start;
+            endOfToken[numberOfTokens] = end;
+            numberOfTokens++;
+
+            start = skipSeparators(text, end, to);
+        }
+        return this;
+    }
+
+    public CharSequence getText() {
+        return text;
+    }
+
+    public int size() {
+        return numberOfTokens;
+    }
+
+    //Index of the first character of a word
+    public int start(int token) {
+        return startOfToken[token];
+    }
+
+    //Index after the last character of a word
+    public int end(int token) {
+        return endOfToken[token];
+    }
+
+    /**
+     * @return true if the word is spelt as the given word, ignoring case
+     */
+    public boolean is(int token, String word) {
+        int start = startOfToken[token];
+        return endOfToken[token] - start == word.length() && AsciiCase.regionMatches(text, start, word, 0, word.length());
+    }
+
+    /**
+     * @return index of the first word spelt as the given word, ignoring case, or -1 if there is none
+     */
+    public int indexOf(String word) {
+        for (int token = 0; token < numberOfTokens; token++) {
+            if (is(token, word))
+                return token;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a word made of digits only as a number, without creating a substring
+     *
+     * @return the number e.g. 34 or NOT_A_NUMBER if the word has anything other than digits or does not fit in a long
+     */
+    public long asNumber(int token) {
+        long number = 0;
+        for (int i = startOfToken[token]; i < endOfToken[token]; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || number > (Long.MAX_VALUE - digit) / 10)
+                return NOT_A_NUMBER;
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
+    /**
+     * @return a word as a string; unlike the rest of the tokenizer this allocates
+     */
+    public String asString(int token) {
+        return text.subSequence(startOfToken[token], endOfToken[token]).toString();
+    }
+
+    /**
+     * @return the words from fromToken up to, not including, toToken with whatever separated them, as a string
+     */
+    public String asString(int fromToken, int toToken) {
+        return fromToken == toToken ? "" : text.subSequence(startOfToken[fromToken], endOfToken[toToken - 1]).toString();
+    }
+
+    /**
+     * @return the words from fromToken up to, not including, toToken in lower case, with whatever separated them, as a string
+     */
+    public String asLowerCaseString(int fromToken, int toToken) {
+        if (fromToken == toToken)
+            return "";
+
+        int start = startOfToken[fromToken];
+        char[] characters = new char[endOfToken[toToken - 1] - start];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = AsciiCase.toLowerCase(text.charAt(start + i));
+        }
+        return new String(characters);
+    }
+
+    //Spaces and tabs separate words
+    public static boolean isSeparator(char character) {
+        return character == ' ' || character == '\t';
+    }
+
+    /**
+     * @return index of the first character at or after from that is not a separator, to if there is none
+     */
+    public static int skipSeparators(CharSequence text, int from, int to) {
+        while (from < to && isSeparator(text.charAt(from)))
+            from++;
+        return from;
+    }
+
+    /**
+     * @return index of the first separator at or after from, to if there is none
+     */
+    public static int skipToken(CharSequence text, int from, int to) {
+        while (from < to && !isSeparator(text.charAt(from)))
+            from++;
+        return from;
+    }
+}
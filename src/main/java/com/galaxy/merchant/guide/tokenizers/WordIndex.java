@@ -0,0 +1,77 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing table from words to their position in the array the index was built from.
+ * Words are looked up straight on the characters of a line, ignoring the case of ASCII letters,
+ * so neither a substring nor a lowered copy is made. The index never changes once built.
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public final class WordIndex implements WordLookup {
+
+    //ID of a word that is not in the index
+    public static final int UNKNOWN_WORD = WordLookup.UNKNOWN_WORD;
+
+    private final String[] wordOfId;
+
+    //ID of the word hashed into each slot, UNKNOWN_WORD in empty slots
+    private final int[] idInSlot;
+    private final int slotMask;
+
+    /**
+     * @param words words of the index, each one's ID being its position; of words differing only in case the first one is kept
+     */
+    public WordIndex(String... words) {
+        this.wordOfId = words.clone();
+
+        int numberOfSlots = Integer.highestOneBit(Math.max(1, words.length) * 2) * 2;
+        idInSlot = new int[numberOfSlots];
+        Arrays.fill(idInSlot, UNKNOWN_WORD);
+        slotMask = numberOfSlots - 1;
+
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            if (idOf(word, 0, word.length()) != UNKNOWN_WORD)
+                continue;
+
+            int slot = spread(AsciiCase.hashCode(word, 0, word.length())) & slotMask;
+            while (idInSlot[slot] != UNKNOWN_WORD) {
+                slot = (slot + 1) & slotMask;
+            }
+            idInSlot[slot] = id;
+        }
+    }
+
+    @Override
+    public int size() {
+        return wordOfId.length;
+    }
+
+    @Override
+    public String wordOf(int id) {
+        return wordOfId[id];
+    }
+
+    /**
+     * Looks up the ID of the word spelt by the characters between from and to, ignoring case
+     *
+     * @return ID of the word or UNKNOWN_WORD if it is not in the index
+     */
+    @Override
+    public int idOf(CharSequence characters, int from, int to) {
+        int length = to - from;
+        for (int slot = spread(AsciiCase.hashCode(characters, from, to)) & slotMask;
+             idInSlot[slot] != UNKNOWN_WORD; slot = (slot + 1) & slotMask) {
+            String word = wordOfId[idInSlot[slot]];
+            if (word.length() == length && AsciiCase.regionMatches(word, 0, characters, from, length))
+                return idInSlot[slot];
+        }
+        return UNKNOWN_WORD;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,31 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+/**
+ * Words given out IDs from 0 to size() - 1 and looked up straight on the characters of a line, ignoring the case
+ * of ASCII letters
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public interface WordLookup {
+
+    //ID of a word that is not one of the words
+    int UNKNOWN_WORD = -1;
+
+    int size();
+
+    String wordOf(int id);
+
+    /**
+     * Looks up the ID of the word spelt by the characters between from and to, ignoring case
+     *
+     * @return ID of the word or UNKNOWN_WORD if it is not one of the words
+     */
+    int idOf(CharSequence characters, int from, int to);
+
+    /**
+     * @return ID of a word of a tokenizer, ignoring case
+     */
+    default int idOf(Tokenizer tokens, int token) {
+        return idOf(tokens.getText(), tokens.start(token), tokens.end(token));
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * This package has the tokenizer shared by the parsers, converters and query responder,
+ * and the case insensitive word indexes, hashed or front coded, the vocabulary and earth material lookups are built on
+ *
+ * @author Gayathri Thiyagarajan
+ */
+package com.galaxy.merchant.guide.tokenizers;
\ No newline at end of file
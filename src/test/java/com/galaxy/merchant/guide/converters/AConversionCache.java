@@ -0,0 +1,179 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import com.galaxy.merchant.guide.tokenizers.Tokenizer;
+import org.junit.Test;
+
+/**
+ * Tests the bounded cache in front of the converters
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AConversionCache {
+
+    @Test
+    public void countsHitsMissesAndEvictions() {
+        //Given
+        ConversionCache<String, Object> conversionCache = new ConversionCache<>(2);
+
+        //when
+        assertEquals(null, conversionCache.get("I"));
+        conversionCache.put("I", 1);
+        conversionCache.put("V", 5);
+        assertEquals(1, conversionCache.get("I"));
+        conversionCache.put("X", 10);
+
+        //then the least recently used entry was evicted
+        assertEquals(null, conversionCache.get("V"));
+        assertEquals(10, conversionCache.get("X"));
+        assertEquals(2, conversionCache.size());
+        assertEquals(2, conversionCache.getHits());
+        assertEquals(2, conversionCache.getMisses());
+        assertEquals(1, conversionCache.getEvictions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsForCapacityBelowOne() {
+        new ConversionCache<String, Object>(0);
+    }
+
+    @Test
+    public void cachesValidAndInvalidRomanSegments() throws InvalidInputFormatException {
+        //Given
+        CachingRomanToArabicConverter romanToArabicConverter = new CachingRomanToArabicConverter(16);
+
+        //when
+        assertEquals(Integer.valueOf(42), romanToArabicConverter.convertRomanSegmentIntoNumericValue("XLII"));
+        assertEquals(Integer.valueOf(42), romanToArabicConverter.convertRomanSegmentIntoNumericValue("XLII"));
+        InvalidInputFormatException firstRejection = rejectionOf(romanToArabicConverter, "IIII");
+        InvalidInputFormatException secondRejection = rejectionOf(romanToArabicConverter, "IIII");
+
+        //then
+        assertEquals("Input segment is invalid", firstRejection.getErrorMessage());
+        assertSame(firstRejection, secondRejection);
+        assertEquals(2, romanToArabicConverter.getConversionCache().getHits());
+        assertEquals(2, romanToArabicConverter.getConversionCache().getMisses());
+    }
+
+    @Test
+    public void cachesValidAndInvalidInterGalacticPhrases() throws InvalidInputFormatException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        CachingInterGalacticToRomanConverter interGalacticToRomanConverter = new CachingInterGalacticToRomanConverter(interGalacticUnits, 16);
+
+        //when
+        assertEquals("IV", interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment("glob prok"));
+        assertEquals("IV", interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment("glob prok"));
+        for (int i = 0; i < 2; i++) {
+            try {
+                interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment("glob fox");
+                fail("There should be an exception");
+            } catch (InvalidInputFormatException e) {
+                //then
+                assertEquals("Input format is invalid", e.getErrorMessage());
+            }
+        }
+
+        //then
+        assertEquals(2, interGalacticToRomanConverter.getConversionCache().getHits());
+        assertEquals(2, interGalacticToRomanConverter.getConversionCache().getMisses());
+    }
+
+    @Test
+    public void cachesPrimitiveConversionsByThePackedIdsOfTheWords() {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        interGalacticUnits.put("vorp", "_V");
+        CachingInterGalacticToRomanConverter interGalacticToRomanConverter
+                = new CachingInterGalacticToRomanConverter(new InterGalacticToRomanConverter(interGalacticUnits), 16);
+        Tokenizer tokens = new Tokenizer().tokenize("how much is glob  prok ?");
+        int[] ids = interGalacticToRomanConverter.getVocabulary().idsOf("glob prok");
+
+        //when
+        assertEquals(4, interGalacticToRomanConverter.toArabic("glob prok", 0, 9));
+        assertEquals(4, interGalacticToRomanConverter.toArabic(tokens, 3, 5));
+        assertEquals(4, interGalacticToRomanConverter.toArabic(ids, 0, ids.length));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, interGalacticToRomanConverter.toArabic("vorp glob", 0, 9));
+        assertEquals(5001, interGalacticToRomanConverter.toArabicExtended("vorp glob", 0, 9));
+        assertEquals(5001, interGalacticToRomanConverter.toArabicExtended("vorp  glob", 0, 10));
+        assertEquals(InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT,
+                interGalacticToRomanConverter.toArabicExtended("glob fox", 0, 8));
+
+        //then phrases of the same words hit however they are given, and phrases with unknown words are not cached
+        assertEquals(2, interGalacticToRomanConverter.getNumericValues().getHits());
+        assertEquals(2, interGalacticToRomanConverter.getNumericValues().getMisses());
+        assertEquals(1, interGalacticToRomanConverter.getExtendedNumericValues().getHits());
+        assertEquals(1, interGalacticToRomanConverter.getExtendedNumericValues().getMisses());
+    }
+
+    @Test
+    public void replacesAPackedPhraseHashedToATakenSlot() {
+        //Given
+        PackedPhraseCache packedPhraseCache = new PackedPhraseCache(1);
+
+        //when
+        packedPhraseCache.put(1, 1);
+        packedPhraseCache.put(2, 5);
+
+        //then
+        assertEquals(1, packedPhraseCache.getCapacity());
+        assertEquals(PackedPhraseCache.NOT_CACHED, packedPhraseCache.get(1));
+        assertEquals(5, packedPhraseCache.get(2));
+        assertEquals(1, packedPhraseCache.getEvictions());
+    }
+
+    @Test
+    public void convertsTheSameSegmentsFromConcurrentReaders() throws Exception {
+        //Given
+        CachingRomanToArabicConverter romanToArabicConverter = new CachingRomanToArabicConverter(8);
+        String[] romanSegments = {"I", "IV", "IX", "XL", "XC", "CD", "CM", "MCMXCIV", "MMMCMXCIX", "XLII", "XXXIX", "DCCC"};
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+
+        //when
+        Future<?>[] conversions = new Future<?>[4];
+        for (int reader = 0; reader < conversions.length; reader++) {
+            conversions[reader] = readers.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String romanSegment = romanSegments[i % romanSegments.length];
+                    assertEquals(CanonicalRomanNumerals.valueOf(romanSegment, 0, romanSegment.length()),
+                            romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanSegment).intValue());
+                }
+                return null;
+            });
+        }
+        for (Future<?> conversion : conversions) {
+            conversion.get();
+        }
+        readers.shutdown();
+        readers.awaitTermination(1, TimeUnit.SECONDS);
+
+        //then
+        ConversionCache<String, Object> conversionCache = romanToArabicConverter.getConversionCache();
+        assertEquals(40_000, conversionCache.getHits() + conversionCache.getMisses());
+        assertEquals(8, conversionCache.size());
+    }
+
+    private static InvalidInputFormatException rejectionOf(RomanToArabicConverter romanToArabicConverter, String romanSegment) {
+        try {
+            romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanSegment);
+        } catch (InvalidInputFormatException e) {
+            return e;
+        }
+        fail("There should be an exception");
+        return null;
+    }
+}
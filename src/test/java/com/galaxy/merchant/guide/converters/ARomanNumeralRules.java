@@ -0,0 +1,112 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+/**
+ * Tests the rule sets roman segments are validated against
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ARomanNumeralRules {
+
+    private static final String ROMAN_LETTERS = "IVXLCDM";
+
+    @Test
+    public void acceptsOnlyCanonicalNumeralsUnderStrictRules() {
+        //Given
+        RomanToArabicConverter romanToArabicConverter = new RomanToArabicConverter(RomanNumeralRules.STRICT);
+
+        //when every segment of up to five letters is converted
+        int numberOfAcceptedSegments = 0;
+        for (int length = 1; length <= 5; length++) {
+            char[] letters = new char[length];
+            for (int combination = 0; combination < Math.pow(ROMAN_LETTERS.length(), length); combination++) {
+                int remainder = combination;
+                for (int i = 0; i < length; i++) {
+                    letters[i] = ROMAN_LETTERS.charAt(remainder % ROMAN_LETTERS.length());
+                    remainder /= ROMAN_LETTERS.length();
+                }
+                String romanSegment = new String(letters);
+                int numericValue = romanToArabicConverter.toArabic(romanSegment, 0, length);
+
+                //then only the canonical form of each number is accepted
+                if (numericValue != RomanToArabicConverter.INVALID_SEGMENT) {
+                    assertEquals(romanSegment, CanonicalRomanNumerals.canonicalFormOf(numericValue));
+                    numberOfAcceptedSegments++;
+                }
+            }
+        }
+
+        //then
+        int numberOfCanonicalNumeralsUpToFiveLetters = 0;
+        for (int value = 1; value <= CanonicalRomanNumerals.LARGEST_CANONICAL_VALUE; value++) {
+            if (CanonicalRomanNumerals.canonicalFormOf(value).length() <= 5)
+                numberOfCanonicalNumeralsUpToFiveLetters++;
+        }
+        assertEquals(numberOfCanonicalNumeralsUpToFiveLetters, numberOfAcceptedSegments);
+    }
+
+    @Test
+    public void convertsRomanSegmentsDifferentlyUnderEachRuleSet() {
+        //Given
+        HashMap<String, int[]> numericValueUnderStrictClassicLenientAdditive = new HashMap<>();
+        numericValueUnderStrictClassicLenientAdditive.put("XIV", new int[] {14, 14, 14, -1});
+        numericValueUnderStrictClassicLenientAdditive.put("XIIV", new int[] {-1, 15, 15, -1});
+        numericValueUnderStrictClassicLenientAdditive.put("IIII", new int[] {-1, -1, 4, 4});
+        numericValueUnderStrictClassicLenientAdditive.put("VIIII", new int[] {-1, -1, 9, 9});
+        numericValueUnderStrictClassicLenientAdditive.put("MMMM", new int[] {-1, -1, 4000, 4000});
+        numericValueUnderStrictClassicLenientAdditive.put("MDCCCCLXXXXVIIII", new int[] {-1, -1, 1999, 1999});
+        numericValueUnderStrictClassicLenientAdditive.put("IIIII", new int[] {-1, -1, -1, -1});
+
+        RomanNumeralRules[] ruleSets = {RomanNumeralRules.STRICT, RomanNumeralRules.CLASSIC,
+                RomanNumeralRules.LENIENT, RomanNumeralRules.ADDITIVE};
+
+        for (int i = 0; i < ruleSets.length; i++) {
+            //when
+            RomanToArabicConverter romanToArabicConverter = new RomanToArabicConverter(ruleSets[i]);
+
+            for (String romanSegment : numericValueUnderStrictClassicLenientAdditive.keySet()) {
+                //then
+                assertEquals(ruleSets[i] + " " + romanSegment, numericValueUnderStrictClassicLenientAdditive.get(romanSegment)[i],
+                        romanToArabicConverter.toArabic(romanSegment, 0, romanSegment.length()));
+            }
+        }
+    }
+
+    @Test
+    public void convertsInterGalacticPhraseUnderTheRulesOfItsVocabulary() {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+
+        //when
+        InterGalacticToRomanConverter classicConverter = new InterGalacticToRomanConverter(interGalacticUnits);
+        InterGalacticToRomanConverter additiveConverter = new InterGalacticToRomanConverter(interGalacticUnits, RomanNumeralRules.ADDITIVE);
+
+        //then
+        assertEquals(4, classicConverter.toArabic("glob prok", 0, 9));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, additiveConverter.toArabic("glob prok", 0, 9));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, classicConverter.toArabic("prok glob glob glob glob", 0, 24));
+        assertEquals(9, additiveConverter.toArabic("prok glob glob glob glob", 0, 24));
+    }
+
+    @Test
+    public void looksRuleSetsUpByName() {
+        //then
+        assertSame(RomanNumeralRules.STRICT, RomanNumeralRules.named("strict"));
+        assertSame(RomanNumeralRules.CLASSIC, RomanNumeralRules.named("Classic"));
+        assertSame(RomanNumeralRules.LENIENT, RomanNumeralRules.named("LENIENT"));
+        assertSame(RomanNumeralRules.ADDITIVE, RomanNumeralRules.named("additive"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsForUnknownRuleSet() {
+        RomanNumeralRules.named("babylonian");
+    }
+}
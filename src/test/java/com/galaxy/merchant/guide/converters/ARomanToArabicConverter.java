@@ -1,9 +1,15 @@
 package com.galaxy.merchant.guide.converters;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 import org.apache.commons.lang3.StringUtils;
@@ -16,6 +22,9 @@ import org.junit.Test;
  */
 public class ARomanToArabicConverter {
 
+    //Conversions over which the allocations are averaged
+    private static final int CONVERSIONS_MEASURED = 1_000_000;
+
     private RomanToArabicConverter romanToArabicConverter = new RomanToArabicConverter();
 
     @Test
@@ -152,6 +161,55 @@ public class ARomanToArabicConverter {
         }
     }
 
+    @Test
+    public void convertsRomanNumeralEndingWithALetterAfterASubtraction() {
+        //Given
+        HashMap<String, Integer> romanToNumericValueMap = new HashMap<>();
+        romanToNumericValueMap.put("XCI", 91);
+        romanToNumericValueMap.put("CXCI", 191);
+        romanToNumericValueMap.put("XLV", 45);
+        romanToNumericValueMap.put("CDXCI", 491);
+        romanToNumericValueMap.put("MCMI", 1901);
+
+        //when
+        Integer actualNumericValue = 0;
+        Integer expectedNumericValue;
+
+        for (String romanSegment : romanToNumericValueMap.keySet()) {
+            try {
+                actualNumericValue = romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanSegment);
+            } catch (InvalidInputFormatException e) {
+                fail("Should not have thrown any exception");
+            }
+            expectedNumericValue = romanToNumericValueMap.get(romanSegment);
+            //then
+            assertEquals(expectedNumericValue, actualNumericValue);
+        }
+    }
+
+    @Test
+    public void convertsEveryCanonicalRomanNumeralUpTo3999() {
+        //Given
+        String[] thousands = {"", "M", "MM", "MMM"};
+        String[] hundreds = {"", "C", "CC", "CCC", "CD", "D", "DC", "DCC", "DCCC", "CM"};
+        String[] tens = {"", "X", "XX", "XXX", "XL", "L", "LX", "LXX", "LXXX", "XC"};
+        String[] units = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
+
+        for (Integer expectedNumericValue = 1; expectedNumericValue <= 3999; expectedNumericValue++) {
+            String romanSegment = thousands[expectedNumericValue / 1000] + hundreds[expectedNumericValue / 100 % 10]
+                    + tens[expectedNumericValue / 10 % 10] + units[expectedNumericValue % 10];
+
+            //when
+            try {
+                Integer actualNumericValue = romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanSegment);
+                //then
+                assertEquals(expectedNumericValue, actualNumericValue);
+            } catch (InvalidInputFormatException e) {
+                fail("Should not have thrown any exception for " + romanSegment);
+            }
+        }
+    }
+
     @Test
     public void doesNotFailForValidOccurencesOfI() throws InvalidInputFormatException {
         //Given
@@ -1554,4 +1612,126 @@ public class ARomanToArabicConverter {
         }
     }
 
+    @Test
+    public void convertsPartOfACharSequenceIntoNumericValue() {
+        //Given
+        String text = "is MCMXCIV credits";
+
+        //then
+        assertEquals(1994, romanToArabicConverter.toArabic(text, 3, 10));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, romanToArabicConverter.toArabic(text, 3, 3));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, romanToArabicConverter.toArabic(text, 0, 10));
+    }
+
+    @Test
+    public void convertsRomanSegmentWithAVinculumIntoNumericValue() {
+        //Given
+        HashMap<String, Long> romanSegmentMap = new HashMap<>();
+        romanSegmentMap.put("MCMXCIV", 1994L);
+        romanSegmentMap.put("_V", 5000L);
+        romanSegmentMap.put("_I_V", 4000L);
+        romanSegmentMap.put("_X_LII", 40002L);
+        romanSegmentMap.put("_M_M_MCMXCIX", 3000999L);
+        romanSegmentMap.put("__I", 1000000L);
+        romanSegmentMap.put("_M_M_M_C_M_X_C_I_X", 3999000L);
+        romanSegmentMap.put("_____M", 1000000000000000000L);
+
+        //when
+        for (String romanSegment : romanSegmentMap.keySet()) {
+            //then
+            assertEquals(romanSegmentMap.get(romanSegment).longValue(),
+                    romanToArabicConverter.toArabicExtended(romanSegment, 0, romanSegment.length()));
+        }
+    }
+
+    @Test
+    public void failsForRomanSegmentWithAMisplacedVinculum() {
+        //Given
+        String[] invalidRomanSegments = {"", "_", "V_", "I_V", "_V_V", "_I_I_I_I", "_V__I", "______I", "_Z", "_IIIII"};
+
+        //when
+        for (String romanSegment : invalidRomanSegments) {
+            //then
+            assertEquals(romanSegment, RomanToArabicConverter.INVALID_SEGMENT,
+                    romanToArabicConverter.toArabicExtended(romanSegment, 0, romanSegment.length()));
+        }
+    }
+
+    @Test
+    public void convertsABatchOfRomanSegments() {
+        //Given
+        List<String> romanSegments = Arrays.asList("MCMXCIV", "IIII", null, "XLII", " ", "XIIV");
+
+        //when
+        ConvertedRomanSegments convertedRomanSegments = romanToArabicConverter.convertRomanSegmentsIntoNumericValues(romanSegments);
+
+        //then
+        assertArrayEquals(new int[] {1994, 0, 0, 42, 0, 15}, convertedRomanSegments.getNumericValues());
+        assertArrayEquals(new int[] {RomanToArabicConverter.CONVERTED, RomanToArabicConverter.INVALID_SEGMENT,
+                        RomanToArabicConverter.ABSENT_SEGMENT, RomanToArabicConverter.CONVERTED,
+                        RomanToArabicConverter.ABSENT_SEGMENT, RomanToArabicConverter.CONVERTED},
+                convertedRomanSegments.getStatuses());
+    }
+
+    @Test
+    public void convertsABatchLargerThanTheThresholdInParallel() {
+        //Given a converter that splits batches of more than 16 segments
+        RomanToArabicConverter parallelRomanToArabicConverter = new RomanToArabicConverter(16, ForkJoinPool.commonPool());
+        String[] thousands = {"", "M", "MM", "MMM"};
+        String[] hundreds = {"", "C", "CC", "CCC", "CD", "D", "DC", "DCC", "DCCC", "CM"};
+        String[] tens = {"", "X", "XX", "XXX", "XL", "L", "LX", "LXX", "LXXX", "XC"};
+        String[] units = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
+
+        String[] romanSegments = new String[4000];
+        romanSegments[0] = "IIII";
+        for (int value = 1; value < romanSegments.length; value++) {
+            romanSegments[value] = thousands[value / 1000] + hundreds[value / 100 % 10] + tens[value / 10 % 10] + units[value % 10];
+        }
+
+        //when
+        ConvertedRomanSegments convertedRomanSegments = parallelRomanToArabicConverter.convertRomanSegmentsIntoNumericValues(romanSegments);
+
+        //then
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, convertedRomanSegments.getStatuses()[0]);
+        for (int value = 1; value < romanSegments.length; value++) {
+            assertTrue(convertedRomanSegments.isConverted(value));
+            assertEquals(value, convertedRomanSegments.getNumericValues()[value]);
+        }
+    }
+
+    @Test
+    public void allocatesNothingWhenConvertingRomanSegmentIntoNumericValue() {
+        //Given a canonical segment and a segment that has to be decoded
+        String[] romanSegments = {"MCMXCIV", "XIIV"};
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        //warm up, so that class loading and most of what the JIT does is not counted
+        for (int i = 0; i < 20; i++) {
+            convertRomanSegmentsRepeatedly(romanSegments, 10_000);
+        }
+
+        //when
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long checksum = convertRomanSegmentsRepeatedly(romanSegments, CONVERSIONS_MEASURED);
+        long allocatedBytesAfter = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        //then
+        //The JIT may still allocate a few kilobytes while the loop runs, depending on the tests run before; a single
+        //object per conversion would be at least 16 bytes per call
+        assertEquals((1994L + 15) * CONVERSIONS_MEASURED, checksum);
+        double allocatedBytesPerCall = (double) (allocatedBytesAfter - allocatedBytesBefore) / CONVERSIONS_MEASURED;
+        assertTrue(allocatedBytesPerCall + " bytes allocated per call", allocatedBytesPerCall < 1);
+    }
+
+    private long convertRomanSegmentsRepeatedly(String[] romanSegments, int times) {
+        long checksum = 0;
+        for (int i = 0; i < times; i++) {
+            for (String romanSegment : romanSegments) {
+                checksum += romanToArabicConverter.toArabic(romanSegment, 0, romanSegment.length());
+            }
+        }
+        return checksum;
+    }
+
 }
@@ -0,0 +1,89 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the class that converts an arabic numeric back into an intergalactic phrase
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AnArabicToInterGalacticConverter {
+
+    private static HashMap<String, String> interGalacticUnitsFromInput = new HashMap<>();
+
+    @BeforeClass
+    public static void initialiseInterGalacticUnits() {
+        interGalacticUnitsFromInput.put("glob", "I");
+        interGalacticUnitsFromInput.put("prok", "V");
+        interGalacticUnitsFromInput.put("pish", "X");
+        interGalacticUnitsFromInput.put("tegj", "L");
+    }
+
+    @Test
+    public void convertsNumericValueIntoInterGalacticPhrase() throws InvalidInputFormatException {
+        //Given
+        ArabicToInterGalacticConverter arabicToInterGalacticConverter = new ArabicToInterGalacticConverter(interGalacticUnitsFromInput);
+
+        //then
+        assertEquals("pish tegj glob glob", arabicToInterGalacticConverter.convertNumericValueIntoInterGalacticPhrase(42));
+        assertEquals("glob prok", arabicToInterGalacticConverter.convertNumericValueIntoInterGalacticPhrase(4));
+        assertEquals("tegj pish pish pish prok glob glob glob", arabicToInterGalacticConverter.convertNumericValueIntoInterGalacticPhrase(88));
+    }
+
+    @Test
+    public void convertsEveryExpressibleNumberIntoAPhraseThatConvertsBack() throws InvalidInputFormatException {
+        //Given
+        ArabicToInterGalacticConverter arabicToInterGalacticConverter = new ArabicToInterGalacticConverter(interGalacticUnitsFromInput);
+        InterGalacticToRomanConverter interGalacticToRomanConverter = new InterGalacticToRomanConverter(interGalacticUnitsFromInput);
+
+        //Numbers below 90 need no C
+        for (int numericValue = 1; numericValue < 90; numericValue++) {
+            //when
+            String interGalacticPhrase = arabicToInterGalacticConverter.convertNumericValueIntoInterGalacticPhrase(numericValue);
+
+            //then
+            assertEquals(numericValue, interGalacticToRomanConverter.toArabic(interGalacticPhrase, 0, interGalacticPhrase.length()));
+        }
+    }
+
+    @Test
+    public void failsToConvertNumbersTheVocabularyCannotExpress() {
+        //Given
+        ArabicToInterGalacticConverter arabicToInterGalacticConverter = new ArabicToInterGalacticConverter(interGalacticUnitsFromInput);
+
+        for (int numericValue : new int[] {0, 90, 100, 4000}) {
+            //when
+            try {
+                arabicToInterGalacticConverter.convertNumericValueIntoInterGalacticPhrase(numericValue);
+                fail("Should have thrown exception");
+            } catch (InvalidInputFormatException e) {
+                //then
+                assertEquals("Input value cannot be expressed in intergalactic units", e.getErrorMessage());
+            }
+        }
+    }
+
+    @Test
+    public void writesInterGalacticPhrasesToTheOutput() throws IOException {
+        //Given
+        ArabicToInterGalacticConverter arabicToInterGalacticConverter = new ArabicToInterGalacticConverter(interGalacticUnitsFromInput);
+        StringBuilder output = new StringBuilder();
+
+        //when
+        assertTrue(arabicToInterGalacticConverter.writeInterGalacticPhrase(42, output));
+        assertFalse(arabicToInterGalacticConverter.writeInterGalacticPhrase(100, output));
+
+        //then
+        assertEquals("pish tegj glob glob", output.toString());
+    }
+}
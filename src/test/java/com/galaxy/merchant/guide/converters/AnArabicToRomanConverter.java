@@ -0,0 +1,62 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import org.junit.Test;
+
+/**
+ * Tests the class that converts an arabic numeric into roman numeric
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AnArabicToRomanConverter {
+
+    private ArabicToRomanConverter arabicToRomanConverter = new ArabicToRomanConverter();
+
+    private RomanToArabicConverter romanToArabicConverter = new RomanToArabicConverter();
+
+    @Test
+    public void convertsEveryNumberUpTo3999IntoRomanAndBack() throws InvalidInputFormatException {
+        for (Integer numericValue = 1; numericValue <= 3999; numericValue++) {
+            //when
+            String romanSegment = arabicToRomanConverter.convertNumericValueIntoRomanSegment(numericValue);
+
+            //then
+            assertEquals(numericValue, romanToArabicConverter.convertRomanSegmentIntoNumericValue(romanSegment));
+        }
+        assertEquals("MCMXCIV", arabicToRomanConverter.convertNumericValueIntoRomanSegment(1994));
+    }
+
+    @Test
+    public void failsToConvertNumbersOutOfRange() {
+        for (int numericValue : new int[] {0, -1, 4000}) {
+            //when
+            try {
+                arabicToRomanConverter.convertNumericValueIntoRomanSegment(numericValue);
+                fail("Should have thrown exception");
+            } catch (InvalidInputFormatException e) {
+                //then
+                assertEquals("Input value is out of range", e.getErrorMessage());
+            }
+        }
+    }
+
+    @Test
+    public void writesRomanSegmentsToTheOutput() throws IOException {
+        //Given
+        StringBuilder output = new StringBuilder();
+
+        //when
+        assertTrue(arabicToRomanConverter.writeRomanSegment(42, output));
+        assertFalse(arabicToRomanConverter.writeRomanSegment(4000, output));
+
+        //then
+        assertEquals("XLII", output.toString());
+    }
+}
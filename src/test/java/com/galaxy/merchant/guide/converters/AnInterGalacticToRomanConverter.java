@@ -2,8 +2,10 @@ package com.galaxy.merchant.guide.converters;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
@@ -21,6 +23,9 @@ import org.junit.rules.ExpectedException;
  */
 public class AnInterGalacticToRomanConverter {
 
+    //Conversions over which the allocations are averaged
+    private static final int CONVERSIONS_MEASURED = 1_000_000;
+
     InterGalacticToRomanConverter interGalacticToRomanConverter;
 
     private static HashMap<String, String> interGalacticUnitsFromInput = new HashMap<>();
@@ -164,4 +169,179 @@ public class AnInterGalacticToRomanConverter {
         }
     }
 
+    @Test
+    public void convertsInterGalacticPhraseStraightIntoNumericValue() {
+        //Given
+        HashMap<String, Integer> interGalacticPhraseMap = new HashMap<>();
+        interGalacticPhraseMap.put("glob glob", 2);
+        interGalacticPhraseMap.put("glob prok", 4);
+        interGalacticPhraseMap.put("pish tegj", 40);
+        interGalacticPhraseMap.put("pish tegj glob glob", 42);
+        interGalacticPhraseMap.put("pish glob ", 11);
+
+        //when
+        for (String galacticPhrase : interGalacticPhraseMap.keySet()) {
+            //then
+            assertEquals(interGalacticPhraseMap.get(galacticPhrase).intValue(),
+                    interGalacticToRomanConverter.toArabic(galacticPhrase, 0, galacticPhrase.length()));
+        }
+
+        //Given a phrase in the middle of a query
+        String query = "how much is pish tegj glob glob ?";
+
+        //then
+        assertEquals(42, interGalacticToRomanConverter.toArabic(query, 12, 31));
+
+        //Given a phrase with runs of spaces and tabs between its words
+        String phrase = " pish\ttegj  glob glob\t";
+
+        //then
+        assertEquals(42, interGalacticToRomanConverter.toArabic(phrase, 0, phrase.length()));
+    }
+
+    @Test
+    public void convertsInterGalacticPhraseWithUnitsThatArePrefixesOfOtherUnits() throws InvalidInputFormatException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("globx", "X");
+        interGalacticUnits.put("xglob", "L");
+        InterGalacticToRomanConverter converter = new InterGalacticToRomanConverter(interGalacticUnits);
+
+        //then
+        assertEquals("XI", converter.convertInterGalacticPhraseIntoRomanSegment("globx glob"));
+        assertEquals("LXI", converter.convertInterGalacticPhraseIntoRomanSegment("xglob globx glob"));
+        assertEquals("II", converter.convertInterGalacticPhraseIntoRomanSegment("glob glob  "));
+        assertEquals("XII", converter.convertInterGalacticPhraseIntoRomanSegment(" globx \tglob  glob"));
+        assertEquals(11, converter.toArabic("globx glob", 0, 10));
+        assertEquals(61, converter.toArabic("xglob globx glob", 0, 16));
+
+        for (String invalidPhrase : new String[] {"globxglob", "glob fox", "globy"}) {
+            try {
+                converter.convertInterGalacticPhraseIntoRomanSegment(invalidPhrase);
+                fail("There should be an exception for " + invalidPhrase);
+            } catch (InvalidInputFormatException e) {
+                assertEquals("Input format is invalid", e.getErrorMessage());
+            }
+        }
+    }
+
+    @Test
+    public void convertsInterGalacticPhraseWithAVinculumIntoNumericValue() {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        interGalacticUnits.put("vorp", "_V");
+        interGalacticUnits.put("zarg", "_X");
+        InterGalacticToRomanConverter converter = new InterGalacticToRomanConverter(interGalacticUnits);
+
+        HashMap<String, Long> interGalacticPhraseMap = new HashMap<>();
+        interGalacticPhraseMap.put("pish tegj glob glob", 42L);
+        interGalacticPhraseMap.put("vorp", 5000L);
+        interGalacticPhraseMap.put("vorp glob", 5001L);
+        interGalacticPhraseMap.put("zarg vorp", 15000L);
+
+        //when
+        for (String galacticPhrase : interGalacticPhraseMap.keySet()) {
+            //then
+            assertEquals(interGalacticPhraseMap.get(galacticPhrase).longValue(),
+                    converter.toArabicExtended(galacticPhrase, 0, galacticPhrase.length()));
+        }
+
+        //then
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, converter.toArabicExtended("glob vorp", 0, 9));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, converter.toArabicExtended("vorp vorp", 0, 9));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, converter.toArabic("vorp", 0, 4));
+        assertEquals(InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT, converter.toArabicExtended("vorp fox", 0, 8));
+    }
+
+    @Test
+    public void convertsInterGalacticPhraseWithCompositeUnitsIntoNumericValue() {
+        //Given units standing for several roman letters
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        interGalacticUnits.put("nova", "IV");
+        interGalacticUnits.put("quasar", "XC");
+        InterGalacticToRomanConverter converter = new InterGalacticToRomanConverter(interGalacticUnits);
+
+        HashMap<String, Integer> interGalacticPhraseMap = new HashMap<>();
+        interGalacticPhraseMap.put("nova", 4);
+        interGalacticPhraseMap.put("pish nova", 14);
+        interGalacticPhraseMap.put("quasar nova", 94);
+        interGalacticPhraseMap.put("quasar prok glob", 96);
+        interGalacticPhraseMap.put("glob nova", RomanToArabicConverter.INVALID_SEGMENT);
+        interGalacticPhraseMap.put("nova glob", RomanToArabicConverter.INVALID_SEGMENT);
+        interGalacticPhraseMap.put("nova pish", RomanToArabicConverter.INVALID_SEGMENT);
+        interGalacticPhraseMap.put("nova nova", RomanToArabicConverter.INVALID_SEGMENT);
+
+        //when
+        for (String galacticPhrase : interGalacticPhraseMap.keySet()) {
+            int[] ids = converter.getVocabulary().idsOf(galacticPhrase);
+
+            //then the rules are checked on the letters of the whole phrase
+            assertEquals(galacticPhrase, interGalacticPhraseMap.get(galacticPhrase).intValue(),
+                    converter.toArabic(galacticPhrase, 0, galacticPhrase.length()));
+            assertEquals(galacticPhrase, interGalacticPhraseMap.get(galacticPhrase).longValue(),
+                    converter.toArabicExtended(ids, 0, ids.length));
+        }
+
+        //then the strict rules are checked across units too, XCX being accepted by the classic rules only
+        InterGalacticToRomanConverter strictConverter = new InterGalacticToRomanConverter(interGalacticUnits, RomanNumeralRules.STRICT);
+        assertEquals(100, converter.toArabic("quasar pish", 0, 11));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, strictConverter.toArabic("quasar pish", 0, 11));
+        assertEquals(99, strictConverter.toArabic("quasar glob pish", 0, 16));
+    }
+
+    @Test
+    public void returnsTheReasonWhenPhraseCannotBeConverted() {
+        //Given phrases with words that are not intergalactic units
+        String[] phrasesWithUnknownUnits = {"glob fox glob", "glob globglob", "glob_"};
+
+        //then
+        for (String galacticPhrase : phrasesWithUnknownUnits) {
+            assertEquals(InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT,
+                    interGalacticToRomanConverter.toArabic(galacticPhrase, 0, galacticPhrase.length()));
+        }
+
+        //Given phrases that are empty or break roman numeric rules
+        String[] invalidPhrases = {"", " ", "glob glob glob glob", "prok pish"};
+
+        //then
+        for (String galacticPhrase : invalidPhrases) {
+            assertEquals(RomanToArabicConverter.INVALID_SEGMENT,
+                    interGalacticToRomanConverter.toArabic(galacticPhrase, 0, galacticPhrase.length()));
+        }
+    }
+
+    @Test
+    public void allocatesNothingWhenConvertingInterGalacticPhraseIntoNumericValue() {
+        //Given
+        String interGalacticPhrase = "pish tegj glob glob";
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        //warm up, so that class loading and most of what the JIT does is not counted
+        for (int i = 0; i < 20; i++) {
+            convertInterGalacticPhraseRepeatedly(interGalacticPhrase, 10_000);
+        }
+
+        //when
+        long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long checksum = convertInterGalacticPhraseRepeatedly(interGalacticPhrase, CONVERSIONS_MEASURED);
+        long allocatedBytesAfter = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        //then
+        //The JIT may still allocate a few kilobytes while the loop runs, depending on the tests run before; a single
+        //object per conversion would be at least 16 bytes per call
+        assertEquals(42L * CONVERSIONS_MEASURED, checksum);
+        double allocatedBytesPerCall = (double) (allocatedBytesAfter - allocatedBytesBefore) / CONVERSIONS_MEASURED;
+        assertTrue(allocatedBytesPerCall + " bytes allocated per call", allocatedBytesPerCall < 1);
+    }
+
+    private long convertInterGalacticPhraseRepeatedly(String interGalacticPhrase, int times) {
+        long checksum = 0;
+        for (int i = 0; i < times; i++) {
+            checksum += interGalacticToRomanConverter.toArabic(interGalacticPhrase, 0, interGalacticPhrase.length());
+        }
+        return checksum;
+    }
+
 }
@@ -0,0 +1,196 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the sharing of compiled converters between identical vocabularies
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AnInterGalacticToRomanConverterRegistry {
+
+    private InterGalacticToRomanConverterRegistry registry;
+
+    private HashMap<String, String> interGalacticUnits = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        registry = new InterGalacticToRomanConverterRegistry(2);
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+    }
+
+    @Test
+    public void sharesOneConverterBetweenVocabulariesWithTheSameContent() {
+        //Given the same units uploaded by another merchant, in another order
+        LinkedHashMap<String, String> sameUnits = new LinkedHashMap<>();
+        sameUnits.put("prok", "V");
+        sameUnits.put("glob", "I");
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertSame(converter, registry.converterFor(sameUnits, RomanNumeralRules.CLASSIC));
+        assertEquals(1, registry.getCompiledConverters().size());
+        assertEquals(1, registry.getCompiledConverters().getHits());
+    }
+
+    @Test
+    public void compilesAConverterPerDistinctVocabularyAndRules() {
+        //Given
+        HashMap<String, String> otherUnits = new HashMap<>(interGalacticUnits);
+        otherUnits.put("prok", "X");
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertSame(converter, registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC, VocabularyLayout.HASHED));
+        assertNotSame(converter, registry.converterFor(otherUnits, RomanNumeralRules.CLASSIC));
+        assertNotSame(converter, registry.converterFor(interGalacticUnits, RomanNumeralRules.STRICT));
+        assertNotSame(converter, registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC, VocabularyLayout.PERFECT_HASHED));
+        assertEquals(12, registry.converterFor(otherUnits, RomanNumeralRules.CLASSIC).toArabic("prok glob glob", 0, 14));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedVocabularyOnceFull() {
+        //Given
+        HashMap<String, String> otherUnits = new HashMap<>(interGalacticUnits);
+        otherUnits.put("pish", "X");
+        HashMap<String, String> yetOtherUnits = new HashMap<>(interGalacticUnits);
+        yetOtherUnits.put("tegj", "L");
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+        registry.converterFor(otherUnits, RomanNumeralRules.CLASSIC);
+        registry.converterFor(yetOtherUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertEquals(2, registry.getCompiledConverters().size());
+        assertEquals(1, registry.getCompiledConverters().getEvictions());
+        assertNotSame(converter, registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC));
+    }
+
+    @Test
+    public void isNotAffectedByChangesToTheUploadedMap() {
+        //Given
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //when
+        interGalacticUnits.put("glob", "X");
+
+        //then
+        assertEquals(4, converter.toArabic("glob prok", 0, 9));
+        assertNotSame(converter, registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC));
+    }
+
+    @Test
+    public void distinguishesVocabulariesDifferingInCaseOrInWhichUnitStandsForWhichLetter() {
+        //Given
+        HashMap<String, String> unitsInAnotherCase = new HashMap<>();
+        unitsInAnotherCase.put("Glob", "I");
+        unitsInAnotherCase.put("prok", "V");
+        HashMap<String, String> unitsSwapped = new HashMap<>();
+        unitsSwapped.put("glob", "V");
+        unitsSwapped.put("prok", "I");
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertNotSame(converter, registry.converterFor(unitsInAnotherCase, RomanNumeralRules.CLASSIC));
+        assertNotSame(converter, registry.converterFor(unitsSwapped, RomanNumeralRules.CLASSIC));
+        assertEquals(6, registry.converterFor(unitsSwapped, RomanNumeralRules.CLASSIC).toArabic("glob prok", 0, 9));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doesNotHandOutTheConverterOfAnotherVocabularyWithTheSameDigest() {
+        //Given the converter of other units cached under the digest of these units, as if the digests collided
+        HashMap<String, String> otherUnits = new HashMap<>();
+        otherUnits.put("glob", "X");
+        otherUnits.put("prok", "L");
+        InterGalacticToRomanConverter otherConverter = registry.converterFor(otherUnits, RomanNumeralRules.CLASSIC);
+        ((ConversionCache<InterGalacticToRomanConverterRegistry.VocabularyDigest, InterGalacticToRomanConverter>) registry.getCompiledConverters())
+                .put(new InterGalacticToRomanConverterRegistry.VocabularyDigest(interGalacticUnits, RomanNumeralRules.CLASSIC,
+                        VocabularyLayout.HASHED), otherConverter);
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertNotSame(otherConverter, converter);
+        assertEquals(4, converter.toArabic("glob prok", 0, 9));
+        assertSame(otherConverter, registry.converterFor(otherUnits, RomanNumeralRules.CLASSIC));
+    }
+
+    @Test
+    public void compilesAVocabularyOnceForCallersAskingForItAtTheSameTime() throws Exception {
+        //Given
+        HashMap<String, String> manyUnits = unitsNamed("unit", 100_000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        Future<?>[] converters = new Future<?>[8];
+        for (int caller = 0; caller < converters.length; caller++) {
+            converters[caller] = callers.submit(() -> {
+                start.await();
+                return registry.converterFor(manyUnits, RomanNumeralRules.CLASSIC);
+            });
+        }
+        start.countDown();
+
+        //then
+        for (Future<?> converter : converters) {
+            assertSame(converters[0].get(), converter.get());
+        }
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.SECONDS);
+        assertEquals(1, registry.getCompiledConverters().size());
+        assertEquals(0, registry.compilationsUnderWay());
+    }
+
+    @Test
+    public void handsOutOtherConvertersWhileALargeVocabularyCompiles() throws Exception {
+        //Given a vocabulary of a million units being compiled
+        HashMap<String, String> millionUnits = unitsNamed("unit", 1_000_000);
+        CompletableFuture<InterGalacticToRomanConverter> largeConverter
+                = CompletableFuture.supplyAsync(() -> registry.converterFor(millionUnits, RomanNumeralRules.CLASSIC));
+        while (registry.compilationsUnderWay() == 0 && !largeConverter.isDone()) {
+            Thread.yield();
+        }
+
+        //when
+        InterGalacticToRomanConverter converter = registry.converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC);
+
+        //then
+        assertFalse(largeConverter.isDone());
+        assertEquals(4, converter.toArabic("glob prok", 0, 9));
+        assertEquals(1, largeConverter.get().toArabic("unit999999", 0, 10));
+    }
+
+    private static HashMap<String, String> unitsNamed(String name, int numberOfUnits) {
+        HashMap<String, String> units = new HashMap<>();
+        for (int unit = 0; unit < numberOfUnits; unit++) {
+            units.put(name + unit, "I");
+        }
+        return units;
+    }
+}
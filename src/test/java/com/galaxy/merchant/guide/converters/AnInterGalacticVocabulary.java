@@ -0,0 +1,165 @@
+package com.galaxy.merchant.guide.converters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the intergalactic units compiled into IDs
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AnInterGalacticVocabulary {
+
+    private HashMap<String, String> interGalacticUnits = new HashMap<>();
+
+    private InterGalacticVocabulary vocabulary;
+
+    @Before
+    public void setUp() {
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        interGalacticUnits.put("pish", "X");
+        interGalacticUnits.put("tegj", "L");
+        vocabulary = new InterGalacticVocabulary(interGalacticUnits);
+    }
+
+    @Test
+    public void givesOutIdsInAlphabeticalOrderOfTheWords() {
+        //then
+        assertEquals(4, vocabulary.size());
+        assertEquals("glob", vocabulary.interGalacticUnitOf(0));
+        assertEquals("pish", vocabulary.interGalacticUnitOf(1));
+        assertEquals("prok", vocabulary.interGalacticUnitOf(2));
+        assertEquals("tegj", vocabulary.interGalacticUnitOf(3));
+        assertEquals("V", vocabulary.romanEquivalentOf(2));
+    }
+
+    @Test
+    public void looksWordsUpWithoutSubstrings() {
+        //Given
+        String query = "how much is pish tegj glob glob ?";
+
+        //then
+        assertEquals(1, vocabulary.idOf(query, 12, 16));
+        assertEquals(3, vocabulary.idOf(query, 17, 21));
+        assertEquals(InterGalacticVocabulary.UNKNOWN_WORD, vocabulary.idOf(query, 0, 3));
+        assertEquals(3, vocabulary.idOf("TEGJ", 0, 4));
+        assertEquals(vocabulary.packedPhraseOf("glob prok", 0, 9), vocabulary.packedPhraseOf("Glob PROK", 0, 9));
+        assertArrayEquals(new int[] {1, 3, 0, 0, InterGalacticVocabulary.UNKNOWN_WORD}, vocabulary.idsOf("pish tegj glob glob fox"));
+    }
+
+    @Test
+    public void packsPhrasesIntoALong() {
+        //then phrases with the same words pack the same, whatever separates them
+        assertEquals(vocabulary.packedPhraseOf("glob prok", 0, 9), vocabulary.packedPhraseOf(" glob\t prok", 0, 11));
+        assertNotEquals(vocabulary.packedPhraseOf("glob prok", 0, 9), vocabulary.packedPhraseOf("prok glob", 0, 9));
+        assertNotEquals(vocabulary.packedPhraseOf("glob", 0, 4), vocabulary.packedPhraseOf("glob glob", 0, 9));
+        assertEquals(InterGalacticVocabulary.NOT_PACKABLE, vocabulary.packedPhraseOf("glob fox", 0, 8));
+
+        //Given a phrase longer than fits in a long at 3 bits per word
+        StringBuilder longPhrase = new StringBuilder("glob");
+        for (int i = 1; i < 21; i++) {
+            longPhrase.append(" glob");
+        }
+
+        //then
+        assertNotEquals(InterGalacticVocabulary.NOT_PACKABLE, vocabulary.packedPhraseOf(longPhrase, 0, longPhrase.length()));
+        longPhrase.append(" glob");
+        assertEquals(InterGalacticVocabulary.NOT_PACKABLE, vocabulary.packedPhraseOf(longPhrase, 0, longPhrase.length()));
+    }
+
+    @Test
+    public void convertsPhrasesGivenAsIds() {
+        //Given
+        InterGalacticToRomanConverter interGalacticToRomanConverter = new InterGalacticToRomanConverter(interGalacticUnits);
+        int[] phrase = interGalacticToRomanConverter.getVocabulary().idsOf("pish tegj glob glob");
+
+        //then
+        assertEquals(42, interGalacticToRomanConverter.toArabic(phrase, 0, phrase.length));
+        assertEquals(40, interGalacticToRomanConverter.toArabic(phrase, 0, 2));
+        assertEquals(42L, interGalacticToRomanConverter.toArabicExtended(phrase, 0, phrase.length));
+        assertEquals(RomanToArabicConverter.INVALID_SEGMENT, interGalacticToRomanConverter.toArabic(phrase, 2, 2));
+        assertEquals(InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT,
+                interGalacticToRomanConverter.toArabic(new int[] {0, InterGalacticVocabulary.UNKNOWN_WORD}, 0, 2));
+    }
+
+    @Test
+    public void givesOutTheSameIdsAndConversionsWhenFrontCoded() throws Exception {
+        //Given
+        interGalacticUnits.put("Vorp", "_V");
+        interGalacticUnits.put("nova", "IV");
+        InterGalacticVocabulary hashed = new InterGalacticVocabulary(interGalacticUnits);
+
+        //when
+        InterGalacticVocabulary frontCoded = new InterGalacticVocabulary(interGalacticUnits, VocabularyLayout.FRONT_CODED);
+        InterGalacticToRomanConverter interGalacticToRomanConverter
+                = new InterGalacticToRomanConverter(interGalacticUnits, RomanNumeralRules.CLASSIC, VocabularyLayout.FRONT_CODED);
+
+        //then
+        assertEquals(hashed.size(), frontCoded.size());
+        for (int id = 0; id < hashed.size(); id++) {
+            assertEquals(hashed.interGalacticUnitOf(id), frontCoded.interGalacticUnitOf(id));
+            assertEquals(hashed.romanEquivalentOf(id), frontCoded.romanEquivalentOf(id));
+        }
+        assertArrayEquals(hashed.idsOf("pish tegj VORP nova fox"), frontCoded.idsOf("pish tegj VORP nova fox"));
+        assertEquals("Vorp", frontCoded.interGalacticUnitOf(frontCoded.idOf("vorp", 0, 4)));
+        assertEquals(interGalacticToRomanConverter.getInterGalacticConversionUnits(),
+                new InterGalacticToRomanConverter(interGalacticUnits).getInterGalacticConversionUnits());
+        assertEquals(42, interGalacticToRomanConverter.toArabic("pish tegj glob glob", 0, 19));
+        assertEquals(5004L, interGalacticToRomanConverter.toArabicExtended("vorp nova", 0, 9));
+        assertEquals("XLIV", interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment("pish tegj nova"));
+    }
+
+    @Test
+    public void convertsTheSameWhenPerfectHashed() throws Exception {
+        //Given
+        interGalacticUnits.put("Vorp", "_V");
+        InterGalacticVocabulary hashed = new InterGalacticVocabulary(interGalacticUnits);
+
+        //when
+        InterGalacticToRomanConverter interGalacticToRomanConverter
+                = new InterGalacticToRomanConverter(interGalacticUnits, RomanNumeralRules.CLASSIC, VocabularyLayout.PERFECT_HASHED);
+
+        //then
+        assertEquals(VocabularyLayout.PERFECT_HASHED, interGalacticToRomanConverter.getVocabulary().getLayout());
+        assertEquals(VocabularyLayout.HASHED, hashed.getLayout());
+        assertArrayEquals(hashed.idsOf("pish tegj VORP glob fox"), interGalacticToRomanConverter.getVocabulary().idsOf("pish tegj VORP glob fox"));
+        assertEquals(42, interGalacticToRomanConverter.toArabic("PISH tegj glob glob", 0, 19));
+        assertEquals(5001L, interGalacticToRomanConverter.toArabicExtended("vorp glob", 0, 9));
+        assertEquals(InterGalacticToRomanConverter.UNKNOWN_INTER_GALACTIC_UNIT, interGalacticToRomanConverter.toArabic("glob fox", 0, 8));
+        assertEquals("XLII", interGalacticToRomanConverter.convertInterGalacticPhraseIntoRomanSegment("pish tegj glob glob"));
+    }
+
+    @Test
+    public void hasTheSameUnitsOnlyAsAMapOfTheSameUnitsWrittenTheSameAndStandingForTheSameLetters() {
+        //Given
+        HashMap<String, String> otherLetters = new HashMap<>(interGalacticUnits);
+        otherLetters.put("tegj", "C");
+        HashMap<String, String> otherCase = new HashMap<>(interGalacticUnits);
+        otherCase.put("Tegj", otherCase.remove("tegj"));
+        HashMap<String, String> otherUnit = new HashMap<>(interGalacticUnits);
+        otherUnit.put("vorp", otherUnit.remove("tegj"));
+        HashMap<String, String> unitsDifferingInCase = new HashMap<>(interGalacticUnits);
+        unitsDifferingInCase.put("Glob", "V");
+
+        //when
+        InterGalacticVocabulary vocabularyDifferingInCase = new InterGalacticVocabulary(unitsDifferingInCase, VocabularyLayout.FRONT_CODED);
+
+        //then
+        assertTrue(vocabulary.hasTheSameUnitsAs(new HashMap<>(interGalacticUnits)));
+        assertFalse(vocabulary.hasTheSameUnitsAs(otherLetters));
+        assertFalse(vocabulary.hasTheSameUnitsAs(otherCase));
+        assertFalse(vocabulary.hasTheSameUnitsAs(otherUnit));
+        assertFalse(vocabulary.hasTheSameUnitsAs(unitsDifferingInCase));
+        assertTrue(vocabularyDifferingInCase.hasTheSameUnitsAs(unitsDifferingInCase));
+        assertFalse(vocabularyDifferingInCase.hasTheSameUnitsAs(interGalacticUnits));
+    }
+}
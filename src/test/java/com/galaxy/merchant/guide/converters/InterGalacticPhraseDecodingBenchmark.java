@@ -0,0 +1,106 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures how long it takes to decode intergalactic phrases straight into their numeric value with each
+ * VocabularyLayout, from a vocabulary of one unit per roman letter to one of a million units.
+ * Give the layout to measure as argument, so that each one is measured in a JVM of its own: once a JVM has decoded
+ * with several layouts, the lookup of the words is no longer inlined into the decoder for any of them.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.converters.InterGalacticPhraseDecodingBenchmark -PbenchmarkArgs=PERFECT_HASHED
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class InterGalacticPhraseDecodingBenchmark {
+
+    private static final int[] NUMBERS_OF_UNITS = {7, 1_000, 100_000, 1_000_000};
+
+    private static final int NUMBER_OF_PHRASES = 200_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String ROMAN_LETTERS = "IVXLCDM";
+
+    public static void main(String[] args) {
+
+        VocabularyLayout[] layouts = args.length == 0 ? VocabularyLayout.values() : new VocabularyLayout[] {VocabularyLayout.valueOf(args[0])};
+
+        System.out.println("     units    layout            build ms    ns/phrase    ns/word");
+        for (int numberOfUnits : NUMBERS_OF_UNITS) {
+            Random random = new Random(numberOfUnits);
+            String[] units = randomWords(random, numberOfUnits);
+            HashMap<String, String> romanEquivalentOfUnit = new HashMap<>();
+            for (int unit = 0; unit < units.length; unit++) {
+                romanEquivalentOfUnit.put(units[unit], String.valueOf(ROMAN_LETTERS.charAt(unit % ROMAN_LETTERS.length())));
+            }
+
+            //Phrases of numbers from 1 to 3999, each letter written with any of the units standing for it
+            String[] phrases = new String[NUMBER_OF_PHRASES];
+            long numberOfWords = 0;
+            for (int i = 0; i < NUMBER_OF_PHRASES; i++) {
+                String romanNumeral = CanonicalRomanNumerals.canonicalFormOf(1 + random.nextInt(3999));
+                StringBuilder phrase = new StringBuilder();
+                for (int letter = 0; letter < romanNumeral.length(); letter++) {
+                    int unitsPerLetter = (numberOfUnits + ROMAN_LETTERS.length() - 1) / ROMAN_LETTERS.length();
+                    int unit = random.nextInt(unitsPerLetter) * ROMAN_LETTERS.length() + ROMAN_LETTERS.indexOf(romanNumeral.charAt(letter));
+                    phrase.append(letter == 0 ? "" : " ").append(units[Math.min(unit, units.length - 1)]);
+                }
+                phrases[i] = phrase.toString();
+                numberOfWords += romanNumeral.length();
+            }
+
+            for (VocabularyLayout layout : layouts) {
+                long start = System.nanoTime();
+                InterGalacticToRomanConverter converter = new InterGalacticToRomanConverter(romanEquivalentOfUnit, RomanNumeralRules.CLASSIC, layout);
+                long buildTime = System.nanoTime() - start;
+
+                double nanosecondsPerPhrase = nanosecondsPerPhrase(converter, phrases);
+                System.out.printf("%10d    %-14s    %8.0f    %9.0f    %7.1f%n", numberOfUnits, layout, buildTime / 1_000_000d,
+                        nanosecondsPerPhrase, nanosecondsPerPhrase * NUMBER_OF_PHRASES / numberOfWords);
+            }
+        }
+    }
+
+    private static double nanosecondsPerPhrase(InterGalacticToRomanConverter converter, String[] phrases) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            decodeAll(converter, phrases);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            checksum += decodeAll(converter, phrases);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum == 42)
+            System.out.println("(checksum " + checksum + ")");
+        return (double) elapsed / ((long) MEASURED_ROUNDS * phrases.length);
+    }
+
+    private static long decodeAll(InterGalacticToRomanConverter converter, String[] phrases) {
+        long checksum = 0;
+        for (String phrase : phrases) {
+            checksum += converter.toArabic(phrase, 0, phrase.length());
+        }
+        return checksum;
+    }
+
+    //Distinct words of 4 to 10 letters
+    private static String[] randomWords(Random random, int numberOfWords) {
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder word = new StringBuilder();
+        while (words.size() < numberOfWords) {
+            word.setLength(0);
+            for (int letter = 4 + random.nextInt(7); letter > 0; letter--) {
+                word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(new String[numberOfWords]);
+    }
+}
@@ -0,0 +1,113 @@
+package com.galaxy.merchant.guide.converters;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Compares the memory kept by a vocabulary of generated units and the time it takes to look a unit up, for the map
+ * the units are parsed into and for each VocabularyLayout, as the vocabulary grows to millions of units.
+ * Memory is measured as the heap still used after a garbage collection, so run it with a heap large enough
+ * for the biggest map e.g. -Xmx3g.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.converters.InterGalacticVocabularyBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class InterGalacticVocabularyBenchmark {
+
+    private static final int[] NUMBERS_OF_UNITS = {100_000, 1_000_000, 2_000_000};
+
+    private static final int NUMBER_OF_LOOKUPS = 1_000_000;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] ROMAN_EQUIVALENTS = {"I", "V", "X", "L", "C", "D", "M"};
+
+    public static void main(String[] args) {
+
+        System.out.println("     units    map bytes/unit    layout         bytes/unit    build ms    lookup ns/word");
+        for (int numberOfUnits : NUMBERS_OF_UNITS) {
+            long heapBefore = usedHeap();
+            HashMap<String, String> units = randomUnits(new Random(numberOfUnits), numberOfUnits);
+            double mapBytesPerUnit = (double) (usedHeap() - heapBefore) / numberOfUnits;
+
+            String[] lookedUpWords = new String[NUMBER_OF_LOOKUPS];
+            Random random = new Random(numberOfUnits + 1);
+            String[] words = units.keySet().toArray(new String[numberOfUnits]);
+            for (int i = 0; i < NUMBER_OF_LOOKUPS; i++) {
+                lookedUpWords[i] = new String(words[random.nextInt(numberOfUnits)]);
+            }
+            words = null;
+
+            for (VocabularyLayout layout : VocabularyLayout.values()) {
+                //The map is copied, so that the strings of its words are not shared with the map measured above,
+                //and let go once the vocabulary is built so that only what the vocabulary keeps is measured
+                long heapBeforeVocabulary = usedHeap();
+                HashMap<String, String> copyOfUnits = copyOf(units);
+                long start = System.nanoTime();
+                InterGalacticVocabulary vocabulary = new InterGalacticVocabulary(copyOfUnits, layout);
+                long buildTime = System.nanoTime() - start;
+                copyOfUnits = null;
+                double vocabularyBytesPerUnit = (double) (usedHeap() - heapBeforeVocabulary) / numberOfUnits;
+
+                System.out.printf("%10d    %14.0f    %-11s    %10.0f    %8.0f    %14.0f%n", numberOfUnits, mapBytesPerUnit, layout,
+                        vocabularyBytesPerUnit, buildTime / 1_000_000d, nanosecondsPerLookup(vocabulary, lookedUpWords));
+            }
+        }
+    }
+
+    private static double nanosecondsPerLookup(InterGalacticVocabulary vocabulary, String[] words) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            lookUpAll(vocabulary, words);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            checksum += lookUpAll(vocabulary, words);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum == 42)
+            System.out.println("(checksum " + checksum + ")");
+        return (double) elapsed / ((long) MEASURED_ROUNDS * words.length);
+    }
+
+    private static long lookUpAll(InterGalacticVocabulary vocabulary, String[] words) {
+        long checksum = 0;
+        for (String word : words) {
+            checksum += vocabulary.idOf(word, 0, word.length());
+        }
+        return checksum;
+    }
+
+    //Distinct words of 6 to 12 letters, each standing for one roman letter
+    private static HashMap<String, String> randomUnits(Random random, int numberOfUnits) {
+        HashMap<String, String> units = new HashMap<>();
+        StringBuilder word = new StringBuilder();
+        while (units.size() < numberOfUnits) {
+            word.setLength(0);
+            for (int letter = 6 + random.nextInt(7); letter > 0; letter--) {
+                word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            units.put(word.toString(), ROMAN_EQUIVALENTS[random.nextInt(ROMAN_EQUIVALENTS.length)]);
+        }
+        return units;
+    }
+
+    private static HashMap<String, String> copyOf(HashMap<String, String> units) {
+        HashMap<String, String> copy = new HashMap<>();
+        for (String word : units.keySet()) {
+            copy.put(new String(word), units.get(word));
+        }
+        return copy;
+    }
+
+    private static long usedHeap() {
+        for (int collection = 0; collection < 3; collection++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,67 @@
+package com.galaxy.merchant.guide.converters;
+
+/**
+ * Measures the cost of converting roman segments with the vinculum aware conversion against the classic one,
+ * on segments up to 3999 and on segments beyond it.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.converters.RomanToArabicConverterBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class RomanToArabicConverterBenchmark {
+
+    private static final String[] CLASSIC_SEGMENTS = {"MCMXCIV", "XLII", "MMMCMXCIX", "CDXLIV", "XIIV", "DCCCLXXXVIII"};
+
+    private static final String[] EXTENDED_SEGMENTS = {"_X_LII", "_M_M_MCMXCIX", "__I", "_M_M_M_C_M_X_C_I_X", "_V", "_I_VCDXLIV"};
+
+    private static final int NUMBER_OF_CONVERSIONS = 1_000_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) {
+
+        RomanToArabicConverter romanToArabicConverter = new RomanToArabicConverter();
+
+        System.out.println("conversion                   conversions/ms");
+        measure("toArabic, classic", () -> convertClassic(romanToArabicConverter, CLASSIC_SEGMENTS));
+        measure("toArabicExtended, classic", () -> convertExtended(romanToArabicConverter, CLASSIC_SEGMENTS));
+        measure("toArabicExtended, extended", () -> convertExtended(romanToArabicConverter, EXTENDED_SEGMENTS));
+    }
+
+    private static void measure(String conversion, Round round) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            round.run();
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            checksum += round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double conversionsPerMillisecond = (double) NUMBER_OF_CONVERSIONS * MEASURED_ROUNDS / (elapsed / 1_000_000d);
+        System.out.printf("%-26s    %14.0f    (checksum %d)%n", conversion, conversionsPerMillisecond, checksum);
+    }
+
+    private static long convertClassic(RomanToArabicConverter romanToArabicConverter, String[] romanSegments) {
+        long checksum = 0;
+        for (int i = 0; i < NUMBER_OF_CONVERSIONS; i++) {
+            String romanSegment = romanSegments[i % romanSegments.length];
+            checksum += romanToArabicConverter.toArabic(romanSegment, 0, romanSegment.length());
+        }
+        return checksum;
+    }
+
+    private static long convertExtended(RomanToArabicConverter romanToArabicConverter, String[] romanSegments) {
+        long checksum = 0;
+        for (int i = 0; i < NUMBER_OF_CONVERSIONS; i++) {
+            String romanSegment = romanSegments[i % romanSegments.length];
+            checksum += romanToArabicConverter.toArabicExtended(romanSegment, 0, romanSegment.length());
+        }
+        return checksum;
+    }
+
+    private interface Round {
+        long run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.galaxy.merchant.guide.credits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the price of an earth material aggregated from its transactions
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class APriceAggregator {
+
+    @Test
+    public void hasNoPriceBeforeAnyIsNoted() {
+        //then
+        assertNull(new PriceAggregator(PriceAggregation.MEAN).price());
+    }
+
+    @Test
+    public void aggregatesThePricesNotedAsTheAggregationSays() {
+        //given
+        long[][] transactions = {{34, 2}, {57800, 4}, {20, 5}};
+
+        //then
+        assertEquals(UnitPrice.of(4), priceOf(PriceAggregation.LATEST, transactions));
+        assertEquals(UnitPrice.of(14471, 3), priceOf(PriceAggregation.MEAN, transactions));
+        assertEquals(UnitPrice.of(57854, 11), priceOf(PriceAggregation.VOLUME_WEIGHTED_MEAN, transactions));
+        assertEquals(UnitPrice.of(4), priceOf(PriceAggregation.MIN, transactions));
+        assertEquals(UnitPrice.of(14450), priceOf(PriceAggregation.MAX, transactions));
+        assertEquals(17, priceOf(PriceAggregation.MEDIAN, transactions).doubleValue(), 17 * PriceSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void aggregatesPricesBelowOneCreditForThousandsOfUnits() {
+        //given
+        long[][] transactions = {{1, 3999}, {2, 3999}, {2, 3997}};
+
+        //then
+        assertEquals(UnitPrice.of(1 * 3997 + 2 * 3997 + 2 * 3999, 3 * 3999 * 3997),
+                priceOf(PriceAggregation.MEAN, transactions));
+        assertEquals(UnitPrice.of(5, 11995), priceOf(PriceAggregation.VOLUME_WEIGHTED_MEAN, transactions));
+        assertEquals(2d / 3999, priceOf(PriceAggregation.MEDIAN, transactions).doubleValue(),
+                2d / 3999 * PriceSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void keepsTheMeanExactWhenTheSumOfThePricesNoLongerFitsInLongs() {
+        //given prices whose quantities are primes, so the quantity of their sum is the product of them all
+        long[] primes = {3917, 3919, 3929, 3931, 3943, 3947, 3967, 3989};
+        PriceAggregator priceAggregator = new PriceAggregator(PriceAggregation.MEAN);
+        BigInteger creditsOfSum = BigInteger.ZERO;
+        BigInteger quantityOfSum = BigInteger.ONE;
+
+        //when
+        for (long prime : primes) {
+            priceAggregator.add(1, prime);
+            creditsOfSum = creditsOfSum.multiply(BigInteger.valueOf(prime)).add(quantityOfSum);
+            quantityOfSum = quantityOfSum.multiply(BigInteger.valueOf(prime));
+        }
+
+        //then
+        assertEquals(UnitPrice.of(creditsOfSum, quantityOfSum.multiply(BigInteger.valueOf(primes.length))),
+                priceAggregator.price());
+        assertEquals(creditsOfSum.doubleValue() / quantityOfSum.doubleValue() / primes.length,
+                priceAggregator.price().doubleValue(), 1e-18);
+    }
+
+    @Test
+    public void keepsThePriceExactWhenAllThePricesNotedAreTheSame() {
+        //then
+        for (PriceAggregation priceAggregation : PriceAggregation.values()) {
+            assertEquals(UnitPrice.of(391, 2), priceOf(priceAggregation, new long[][] {{3910, 20}, {391, 2}, {1955, 10}}));
+        }
+    }
+
+    @Test
+    public void mergesTheAggregatesOfPartsOfALedger() {
+        //given
+        PriceAggregator firstPart = new PriceAggregator(PriceAggregation.VOLUME_WEIGHTED_MEAN);
+        firstPart.add(34, 2);
+        PriceAggregator secondPart = new PriceAggregator(PriceAggregation.VOLUME_WEIGHTED_MEAN);
+        secondPart.add(57800, 4);
+        secondPart.add(20, 5);
+
+        //when
+        firstPart.merge(secondPart);
+
+        //then
+        assertEquals(3, firstPart.getNumberOfPrices());
+        assertEquals(UnitPrice.of(57854, 11), firstPart.price());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsToMergeAggregatesOfAnotherAggregation() {
+        //when
+        new PriceAggregator(PriceAggregation.MEAN).merge(new PriceAggregator(PriceAggregation.MEDIAN));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void failsWhenTheCreditsNotedAreMoreThanCanBeCounted() {
+        //given
+        PriceAggregator priceAggregator = new PriceAggregator(PriceAggregation.VOLUME_WEIGHTED_MEAN);
+        priceAggregator.add(Long.MAX_VALUE, 1);
+
+        //when
+        priceAggregator.add(1, 1);
+    }
+
+    private static UnitPrice priceOf(PriceAggregation priceAggregation, long[][] transactions) {
+        PriceAggregator priceAggregator = new PriceAggregator(priceAggregation);
+        for (long[] transaction : transactions) {
+            priceAggregator.add(transaction[0], transaction[1]);
+        }
+        return priceAggregator.price();
+    }
+}
@@ -0,0 +1,91 @@
+package com.galaxy.merchant.guide.credits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the sketch telling the quantiles of the prices noted
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class APriceSketch {
+
+    @Test
+    public void tellsNoQuantileBeforeAnyPriceIsNoted() {
+        //then
+        assertTrue(Double.isNaN(new PriceSketch().quantile(0.5)));
+    }
+
+    @Test
+    public void tellsTheQuantilesWithinItsRelativeAccuracy() {
+        //given
+        Random random = new Random(42);
+        double[] prices = new double[10_001];
+        PriceSketch priceSketch = new PriceSketch();
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 1 + random.nextInt(1_000_000) / 1000d;
+            priceSketch.add(prices[i]);
+        }
+        Arrays.sort(prices);
+
+        //then
+        for (double quantile : new double[] {0, 0.1, 0.5, 0.9, 1}) {
+            double price = prices[(int) (quantile * (prices.length - 1))];
+            assertEquals(price, priceSketch.quantile(quantile), price * PriceSketch.RELATIVE_ACCURACY);
+        }
+    }
+
+    @Test
+    public void countsPricesOfZero() {
+        //given
+        PriceSketch priceSketch = new PriceSketch();
+        priceSketch.add(0);
+        priceSketch.add(0);
+        priceSketch.add(17);
+
+        //then
+        assertEquals(0, priceSketch.quantile(0.5), 0);
+        assertEquals(17, priceSketch.quantile(1), 17 * PriceSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void tellsTheQuantilesOfPricesFarApart() {
+        //given
+        PriceSketch priceSketch = new PriceSketch();
+        priceSketch.add(1e-6);
+        priceSketch.add(1e6);
+        priceSketch.add(2e6);
+
+        //then
+        assertEquals(1e6, priceSketch.quantile(0.5), 1e6 * PriceSketch.RELATIVE_ACCURACY);
+        assertEquals(2e6, priceSketch.quantile(1), 2e6 * PriceSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void mergesIntoTheSketchOfAllThePrices() {
+        //given
+        Random random = new Random(7);
+        PriceSketch allPrices = new PriceSketch();
+        PriceSketch firstPart = new PriceSketch();
+        PriceSketch secondPart = new PriceSketch();
+        for (int i = 0; i < 1000; i++) {
+            double price = random.nextInt(100_000) / 10d;
+            allPrices.add(price);
+            (i % 3 == 0 ? firstPart : secondPart).add(price);
+        }
+
+        //when
+        firstPart.merge(secondPart);
+
+        //then
+        assertEquals(allPrices.getCount(), firstPart.getCount());
+        for (double quantile : new double[] {0, 0.25, 0.5, 0.75, 1}) {
+            assertEquals(allPrices.quantile(quantile), firstPart.quantile(quantile), 0);
+        }
+    }
+}
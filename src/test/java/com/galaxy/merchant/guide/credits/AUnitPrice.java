@@ -0,0 +1,131 @@
+package com.galaxy.merchant.guide.credits;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the exact price of a unit of an earth material
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AUnitPrice {
+
+    @Test
+    public void keepsThePriceInLowestTerms() {
+        //then
+        assertEquals(UnitPrice.of(391, 2), UnitPrice.of(3910, 20));
+        assertEquals("391/2", UnitPrice.of(3910, 20).toString());
+        assertEquals("17", UnitPrice.of(34, 2).toString());
+        assertEquals(195.5, UnitPrice.of(3910, 20).doubleValue(), 0);
+    }
+
+    @Test
+    public void takesADoubleToBeTheFirstConvergentThatIsTheSameDouble() {
+        //then
+        assertEquals(UnitPrice.of(391, 2), UnitPrice.of(195.5));
+        assertEquals(UnitPrice.of(14450, 1), UnitPrice.of(14450d));
+        assertEquals(UnitPrice.of(0, 1), UnitPrice.of(0d));
+        assertEquals(UnitPrice.of(1, 3), UnitPrice.of(1d / 3));
+        assertEquals(UnitPrice.of(3, 20), UnitPrice.of(0.15));
+        assertEquals(2, UnitPrice.of(0.15).creditsFor(10, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void takesADoubleOfAPriceBelowOneCreditForThousandsOfUnits() {
+        //then
+        assertEquals(UnitPrice.of(1, 3999), UnitPrice.of(1d / 3999));
+        assertEquals(UnitPrice.of(2, 7997), UnitPrice.of(2d / 7997));
+        assertEquals(1, UnitPrice.of(1d / 3999).creditsFor(3999, RoundingMode.HALF_UP));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double credits = (0.5 + random.nextDouble() / 2) * Math.scalb(1d, -10 - random.nextInt(30));
+            assertEquals(credits, UnitPrice.of(credits).doubleValue(), 0);
+        }
+    }
+
+    @Test
+    public void takesADoubleTooSmallForAFractionOfLongsToBeTheClosestOne() {
+        //then
+        assertEquals(UnitPrice.of(0, 1), UnitPrice.of(1e-300));
+        //1.5 / 2^63 is 1 / 6148914691236517205.33...
+        assertEquals(UnitPrice.of(1, 6148914691236517205L), UnitPrice.of(Math.scalb(1.5, -63)));
+    }
+
+    @Test
+    public void takesAFractionOfBigIntegersInLowestTermsOrToBeTheClosestFractionOfLongs() {
+        //given
+        BigInteger two = BigInteger.valueOf(2);
+
+        //then
+        assertEquals(UnitPrice.of(391, 2), UnitPrice.of(BigInteger.valueOf(391).shiftLeft(100), two.shiftLeft(100)));
+        assertEquals(UnitPrice.of(0, 1), UnitPrice.of(BigInteger.ONE, two.pow(100)));
+        assertEquals(UnitPrice.of(1, 3), UnitPrice.of(two.pow(100), two.pow(100).multiply(BigInteger.valueOf(3)).add(BigInteger.ONE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsForAPriceMoreThanALongCanCount() {
+        //when
+        UnitPrice.of(1e19);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsForANegativePrice() {
+        //when
+        UnitPrice.of(-17d);
+    }
+
+    @Test
+    public void roundsOnceAtTheEndAsAsked() {
+        //Given 13 credits for 6 units, 27 units being worth 58.5 credits, where 13d / 6 * 27 comes to 58.49999999999999
+        UnitPrice price = UnitPrice.of(13, 6);
+
+        //then
+        assertEquals(59, price.creditsFor(27, RoundingMode.HALF_UP));
+        assertEquals(58, price.creditsFor(27, RoundingMode.HALF_DOWN));
+        assertEquals(58, price.creditsFor(27, RoundingMode.HALF_EVEN));
+        assertEquals(58, price.creditsFor(27, RoundingMode.DOWN));
+        assertEquals(59, price.creditsFor(27, RoundingMode.CEILING));
+        assertEquals(60, price.creditsFor(28, RoundingMode.FLOOR));
+        assertEquals(61, price.creditsFor(28, RoundingMode.HALF_DOWN));
+        assertEquals(65, price.creditsFor(30, RoundingMode.UP));
+    }
+
+    @Test
+    public void isExactForQuantitiesTooLargeForADouble() {
+        //Given 10 credits for 3 units
+        UnitPrice price = UnitPrice.of(10, 3);
+
+        //then
+        assertEquals(10_000_000_000_000_000L, price.creditsFor(3_000_000_000_000_000L, RoundingMode.HALF_UP));
+        assertEquals(3_333_333_333_333_333_333L, price.creditsFor(1_000_000_000_000_000_000L, RoundingMode.HALF_UP));
+        assertEquals(UnitPrice.TOO_MANY_CREDITS, price.creditsFor(Long.MAX_VALUE, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void givesTheSameCreditsAsBigIntegerArithmetic() {
+        //Given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long credits = random.nextInt(4) == 0 ? random.nextLong() >>> 1 : random.nextInt(1_000_000);
+            long quantity = 1 + random.nextInt(4000);
+            long quantityOfMaterial = random.nextInt(4) == 0 ? random.nextLong() >>> (1 + random.nextInt(62)) : random.nextInt(4000);
+
+            //when
+            long creditsFor = UnitPrice.of(credits, quantity).creditsFor(quantityOfMaterial, RoundingMode.HALF_UP);
+
+            //then
+            BigInteger[] quotientAndRemainder = BigInteger.valueOf(credits).multiply(BigInteger.valueOf(quantityOfMaterial))
+                    .divideAndRemainder(BigInteger.valueOf(quantity));
+            BigInteger expected = quotientAndRemainder[1].shiftLeft(1).compareTo(BigInteger.valueOf(quantity)) >= 0
+                    ? quotientAndRemainder[0].add(BigInteger.ONE) : quotientAndRemainder[0];
+            assertEquals(expected.bitLength() < Long.SIZE ? expected.longValue() : UnitPrice.TOO_MANY_CREDITS, creditsFor);
+        }
+    }
+}
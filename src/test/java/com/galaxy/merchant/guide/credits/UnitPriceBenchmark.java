@@ -0,0 +1,96 @@
+package com.galaxy.merchant.guide.credits;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * Measures how long it takes to work out the credits of a transaction exactly with UnitPrice, against multiplying
+ * a double price and rounding it, for quantities of the roman numerals up to 3999 and for quantities written with a
+ * vinculum large enough that some products only fit in a BigDecimal.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.credits.UnitPriceBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class UnitPriceBenchmark {
+
+    private static final int NUMBER_OF_MATERIALS = 16;
+    private static final int NUMBER_OF_TRANSACTIONS = 1 << 16;
+    private static final int WARM_UP_ROUNDS = 300;
+
+    //The fastest of several measurements is kept, the others being slowed down by whatever else the machine did
+    private static final int MEASUREMENTS = 40;
+    private static final int ROUNDS_PER_MEASUREMENT = 20;
+
+    public static void main(String[] args) {
+
+        System.out.println("quantities            double ns    exact ns    answers differing");
+        for (long largestQuantity : new long[] {3_999, 3_999_000_000_000L}) {
+            Random random = new Random(largestQuantity);
+            //Prices of a few materials, as noted, and transactions of any of them
+            UnitPrice[] prices = new UnitPrice[NUMBER_OF_MATERIALS];
+            double[] creditsPerUnit = new double[NUMBER_OF_MATERIALS];
+            for (int material = 0; material < NUMBER_OF_MATERIALS; material++) {
+                long credits = 1 + random.nextInt(1_000_000);
+                long quantity = 1 + random.nextInt(3_999);
+                prices[material] = UnitPrice.of(credits, quantity);
+                creditsPerUnit[material] = (double) credits / quantity;
+            }
+            int[] materials = new int[NUMBER_OF_TRANSACTIONS];
+            long[] quantities = new long[NUMBER_OF_TRANSACTIONS];
+            for (int i = 0; i < NUMBER_OF_TRANSACTIONS; i++) {
+                materials[i] = random.nextInt(NUMBER_OF_MATERIALS);
+                quantities[i] = 1 + (long) (random.nextDouble() * largestQuantity);
+            }
+
+            double nanosecondsWithDoubles = nanosecondsPerTransaction(() -> creditsOfDoubles(creditsPerUnit, materials, quantities));
+            double nanosecondsExactly = nanosecondsPerTransaction(() -> creditsOfUnitPrices(prices, materials, quantities));
+
+            int differing = 0;
+            for (int i = 0; i < NUMBER_OF_TRANSACTIONS; i++) {
+                if (Math.round(creditsPerUnit[materials[i]] * quantities[i]) != prices[materials[i]].creditsFor(quantities[i], RoundingMode.HALF_UP))
+                    differing++;
+            }
+            System.out.printf("up to %-13d    %9.2f    %8.2f    %17d%n", largestQuantity, nanosecondsWithDoubles, nanosecondsExactly, differing);
+        }
+    }
+
+    private interface Transactions {
+        long creditsOfAll();
+    }
+
+    private static double nanosecondsPerTransaction(Transactions transactions) {
+        long checksum = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            checksum += transactions.creditsOfAll();
+        }
+
+        long fastest = Long.MAX_VALUE;
+        for (int measurement = 0; measurement < MEASUREMENTS; measurement++) {
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS_PER_MEASUREMENT; round++) {
+                checksum += transactions.creditsOfAll();
+            }
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        if (checksum == 42)
+            System.out.println("(checksum " + checksum + ")");
+        return (double) fastest / ((long) ROUNDS_PER_MEASUREMENT * NUMBER_OF_TRANSACTIONS);
+    }
+
+    private static long creditsOfDoubles(double[] creditsPerUnit, int[] materials, long[] quantities) {
+        long checksum = 0;
+        for (int i = 0; i < quantities.length; i++) {
+            checksum += Math.round(creditsPerUnit[materials[i]] * quantities[i]);
+        }
+        return checksum;
+    }
+
+    private static long creditsOfUnitPrices(UnitPrice[] prices, int[] materials, long[] quantities) {
+        long checksum = 0;
+        for (int i = 0; i < quantities.length; i++) {
+            checksum += prices[materials[i]].creditsFor(quantities[i], RoundingMode.HALF_UP);
+        }
+        return checksum;
+    }
+}
@@ -1,13 +1,28 @@
 package com.galaxy.merchant.guide.domain;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.math.RoundingMode;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.galaxy.merchant.guide.constants.InterGalacticAppConstants;
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverterRegistry;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.UnitPrice;
 import com.galaxy.merchant.guide.exceptions.InvalidQueryException;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -297,6 +312,27 @@ public class AQueryResponder {
         }
     }
 
+    @Test
+    public void cannotAnswerAQueryOnAMaterialWithoutAPrice() {
+        //Given a responder that only knows the price of silver
+        HashMap<String, Double> creditsForSilver = new HashMap<>();
+        creditsForSilver.put("silver", 17d);
+        QueryResponder queryResponderForSilver = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(creditsForSilver).createQueryResponder();
+        String query = "how many credits is glob prok gold ?";
+
+        //when
+        try {
+            queryResponderForSilver.answerQueryOnCreditsOfATransaction(query);
+            fail("Should have thrown exception");
+        } catch (InvalidQueryException e) {
+            //then
+            assertEquals(InterGalacticAppConstants.DEFAULT_ANSWER, e.getErrorMessage());
+            assertEquals("Earth material has no known price", e.getReason());
+        }
+    }
+
     @Test
     public void cannotAnswerAQueryWithUnknownGalacticUnit() {
         //Given
@@ -374,4 +410,376 @@ public class AQueryResponder {
             assertEquals(InterGalacticAppConstants.DEFAULT_ANSWER, e.getErrorMessage());
         }
     }
+
+    @Test
+    public void answersAgainstTheNotesItWasGivenEvenIfTheMapsChange() throws InvalidQueryException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        HashMap<String, Double> creditsForEarthMaterials = new HashMap<>(earthMaterialTransactionsFromInput);
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnits)
+                .setCreditsForEarthMaterials(creditsForEarthMaterials).createQueryResponder();
+
+        //when
+        interGalacticUnits.put("glob", "X");
+        creditsForEarthMaterials.put("silver", 1d);
+
+        //then
+        assertEquals("glob prok silver is 68 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob prok silver ?"));
+    }
+
+    @Test
+    public void answersAgainstReloadedNotes() throws InvalidQueryException {
+        //Given
+        HashMap<String, String> reloadedUnits = new HashMap<>(interGalacticUnitsFromInput);
+        reloadedUnits.put("hnga", "C");
+        HashMap<String, UnitPrice> reloadedPrices = new HashMap<>();
+        reloadedPrices.put("platinum", UnitPrice.of(100, 1));
+
+        //when
+        queryResponder.reload(reloadedUnits, reloadedPrices);
+
+        //then
+        assertEquals("hnga glob is 101", queryResponder.answerQueryOnInterGalacticQuantity("how much is hnga glob ?"));
+        assertEquals("glob platinum is 100 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob platinum ?"));
+        assertEquals(0, (int) queryResponder.calculateNumberOfCredits("glob silver"));
+        assertEquals(100d, queryResponder.getCreditsForEarthMaterials().get("platinum"), 0);
+        assertEquals(1, queryResponder.getCreditsForEarthMaterials().size());
+    }
+
+    @Test
+    public void answersAgainstNotesReloadedThroughAnotherResponderSharingThem() throws InvalidQueryException {
+        //Given
+        SharedVocabulary sharedVocabulary = new SharedVocabulary(interGalacticUnitsFromInput,
+                VocabularySnapshot.exactPricesOf(earthMaterialTransactionsFromInput), RomanNumeralRules.CLASSIC, 0);
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder().setSharedVocabulary(sharedVocabulary).createQueryResponder();
+        QueryResponder otherQueryResponder = new QueryResponder.QueryResponderBuilder().setSharedVocabulary(sharedVocabulary)
+                .setCorrectsMisspelledUnits(true).createQueryResponder();
+        HashMap<String, UnitPrice> reloadedPrices = new HashMap<>();
+        reloadedPrices.put("silver", UnitPrice.of(34, 1));
+
+        //when
+        otherQueryResponder.reload(interGalacticUnitsFromInput, reloadedPrices);
+
+        //then
+        assertEquals("glob prok silver is 136 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob prok silver ?"));
+        assertEquals("glob prok silver is 136 credits (corrected from glob pork silver)",
+                otherQueryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob pork silver ?"));
+    }
+
+    @Test
+    public void answersFromConcurrentReadersWhileTheNotesAreReloaded() throws Exception {
+        //Given glob prok is 4 with the units as first noted and 9 with the reloaded ones, and silver 17 or 34 credits
+        HashMap<String, String> reloadedUnits = new HashMap<>(interGalacticUnitsFromInput);
+        reloadedUnits.put("prok", "X");
+        HashMap<String, UnitPrice> reloadedPrices = new HashMap<>();
+        reloadedPrices.put("silver", UnitPrice.of(34, 1));
+        Map<String, UnitPrice> pricesFromInput = VocabularySnapshot.exactPricesOf(earthMaterialTransactionsFromInput);
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setCorrectsMisspelledUnits(true).createQueryResponder();
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        AtomicBoolean reloading = new AtomicBoolean(true);
+
+        //when
+        Future<?>[] answers = new Future<?>[4];
+        for (int reader = 0; reader < answers.length; reader++) {
+            String misspelling = reader % 2 == 0 ? "glob pork" : "glub prok";
+            answers[reader] = readers.submit(() -> {
+                int answered = 0;
+                while (reloading.get() || answered < 1_000) {
+                    //then every answer is against either notes, never against units of one and prices of the other
+                    try {
+                        String answer = queryResponder.answerQueryOnCreditsOfATransaction("how many credits is " + misspelling + " silver ?");
+                        assertTrue(answer, answer.equals("glob prok silver is 68 credits (corrected from " + misspelling + " silver)")
+                                || answer.equals("glob prok silver is 306 credits (corrected from " + misspelling + " silver)"));
+                    } catch (InvalidQueryException e) {
+                        fail(e.getReason());
+                    }
+                    answered++;
+                }
+                return null;
+            });
+        }
+        for (int reload = 0; reload < 200; reload++) {
+            if (reload % 2 == 0) {
+                queryResponder.reload(reloadedUnits, reloadedPrices);
+            } else {
+                queryResponder.reload(interGalacticUnitsFromInput, pricesFromInput);
+            }
+        }
+        reloading.set(false);
+        for (Future<?> answer : answers) {
+            answer.get();
+        }
+        readers.shutdown();
+        readers.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void answersQueriesInMixedCase() throws InvalidQueryException {
+        //then units, materials and the words of the query are matched ignoring case
+        assertEquals("pish tegj glob glob is 42", queryResponder.answerQueryOnInterGalacticQuantity("How Much IS Pish TEGJ glob Glob ?"));
+        assertEquals("glob prok silver is 68 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many Credits is GLOB prok Silver ?"));
+        assertEquals(782, (int) queryResponder.calculateNumberOfCredits("glob PROK IRON"));
+    }
+
+    @Test
+    public void correctsMisspelledUnitsWhenAskedTo() throws InvalidQueryException {
+        //Given
+        QueryResponder correctingQueryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setCorrectsMisspelledUnits(true).createQueryResponder();
+
+        //then
+        assertEquals("glob prok is 4 (corrected from glub prok)",
+                correctingQueryResponder.answerQueryOnInterGalacticQuantity("how much is glub prok ?"));
+        assertEquals("glob prok silver is 68 credits (corrected from glob pork silver)",
+                correctingQueryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob Pork silver ?"));
+        assertEquals("pish tegj glob glob is 42", correctingQueryResponder.answerQueryOnInterGalacticQuantity("how much is pish tegj glob glob ?"));
+
+        try {
+            correctingQueryResponder.answerQueryOnInterGalacticQuantity("how much is glob fox ?");
+            fail("Should have thrown exception");
+        } catch (InvalidQueryException e) {
+            assertEquals("Quantity contains words that are not intergalactic units", e.getReason());
+        }
+    }
+
+    @Test
+    public void answersTheSameWithACacheInFrontOfTheConverter() throws InvalidQueryException {
+        //Given
+        QueryResponder cachingQueryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setCorrectsMisspelledUnits(true)
+                .setConversionCacheCapacity(4).createQueryResponder();
+
+        //then answers do not change once their quantities are cached, nor once they are evicted
+        for (int i = 0; i < 3; i++) {
+            assertEquals("pish tegj glob glob is 42", cachingQueryResponder.answerQueryOnInterGalacticQuantity("how much is pish tegj glob glob ?"));
+            assertEquals("glob prok silver is 68 credits (corrected from glob pork silver)",
+                    cachingQueryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob Pork silver ?"));
+            assertEquals(782, (int) cachingQueryResponder.calculateNumberOfCredits("glob PROK IRON"));
+            assertEquals(Integer.valueOf(9), cachingQueryResponder.calculateNumericValue("glob pish"));
+            try {
+                cachingQueryResponder.answerQueryOnInterGalacticQuantity("how much is glob glob glob glob ?");
+                fail("Should have thrown exception");
+            } catch (InvalidQueryException e) {
+                assertEquals("Quantity does not satisfy roman numeric rules", e.getReason());
+            }
+        }
+    }
+
+    @Test
+    public void answersAgainstUnitsKeptInTheLayoutGiven() throws InvalidQueryException {
+        //Given
+        SharedVocabulary frontCodedVocabulary = new SharedVocabulary(interGalacticUnitsFromInput,
+                VocabularySnapshot.exactPricesOf(earthMaterialTransactionsFromInput), RomanNumeralRules.CLASSIC, 0, VocabularyLayout.FRONT_CODED);
+
+        //when
+        QueryResponder frontCodedQueryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setVocabularyLayout(VocabularyLayout.FRONT_CODED).createQueryResponder();
+
+        //then
+        assertSame(InterGalacticToRomanConverterRegistry.shared().converterFor(interGalacticUnitsFromInput, RomanNumeralRules.CLASSIC,
+                VocabularyLayout.FRONT_CODED), frontCodedVocabulary.snapshot().getInterGalacticToRomanConverter());
+        assertEquals("pish tegj glob glob is 42", frontCodedQueryResponder.answerQueryOnInterGalacticQuantity("how much is pish tegj glob glob ?"));
+        assertEquals("glob prok silver is 68 credits", frontCodedQueryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob prok silver ?"));
+        assertEquals(interGalacticUnitsFromInput, frontCodedQueryResponder.getInterGalacticToRomanConversionMap());
+    }
+
+    @Test
+    public void answersAgainstUnitsPerfectHashedWhenOptedInto() throws InvalidQueryException {
+        //Given
+        QueryResponder.QueryResponderBuilder queryResponderBuilder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setCorrectsMisspelledUnits(true);
+
+        //when
+        QueryResponder perfectHashedQueryResponder = queryResponderBuilder.setVocabularyLayout(VocabularyLayout.PERFECT_HASHED)
+                .setConversionCacheCapacity(4).createQueryResponder();
+
+        //then
+        assertEquals(VocabularyLayout.HASHED, queryResponder.getInterGalacticToRomanConverter().getVocabulary().getLayout());
+        assertEquals(VocabularyLayout.PERFECT_HASHED, perfectHashedQueryResponder.getInterGalacticToRomanConverter().getVocabulary().getLayout());
+        assertEquals("pish tegj glob glob is 42", perfectHashedQueryResponder.answerQueryOnInterGalacticQuantity("how much is PISH tegj glob glob ?"));
+        assertEquals("glob prok silver is 68 credits (corrected from glob pork silver)",
+                perfectHashedQueryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob pork silver ?"));
+    }
+
+    @Test
+    public void answersAgainstThePricesOfTheMaterialsOfACatalogueByTheirId() throws InvalidQueryException {
+        //Given platinum priced and tin catalogued without a price
+        EarthMaterialCatalogue earthMaterialCatalogue = new EarthMaterialCatalogue(asList("Tin", "Platinum"));
+        UnitPrice[] priceOfEarthMaterial = new UnitPrice[earthMaterialCatalogue.size()];
+        priceOfEarthMaterial[earthMaterialCatalogue.idOf("platinum", 0, 8)] = UnitPrice.of(391, 2);
+
+        //when
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setPricesOfEarthMaterials(earthMaterialCatalogue, priceOfEarthMaterial).createQueryResponder();
+        priceOfEarthMaterial[earthMaterialCatalogue.idOf("platinum", 0, 8)] = UnitPrice.of(1, 1);
+
+        //then
+        assertEquals("glob prok platinum is 782 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob prok PLATINUM ?"));
+        for (String query : asList("how many credits is glob prok tin ?", "how many credits is glob prok silver ?")) {
+            try {
+                queryResponder.answerQueryOnCreditsOfATransaction(query);
+                fail("Should have thrown exception");
+            } catch (InvalidQueryException e) {
+                assertEquals("Earth material has no known price", e.getReason());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotCacheANegativeNumberOfQuantities() {
+        //when
+        new QueryResponder.QueryResponderBuilder().setConversionCacheCapacity(-1);
+    }
+
+    @Test
+    public void rejectsMisspelledUnitsByDefault() {
+        //when
+        try {
+            queryResponder.answerQueryOnInterGalacticQuantity("how much is glub prok ?");
+            fail("Should have thrown exception");
+        } catch (InvalidQueryException e) {
+            //then
+            assertEquals("Quantity contains words that are not intergalactic units", e.getReason());
+        }
+    }
+
+    @Test
+    public void tellsWhyAQueryCannotBeAnswered() {
+        //Given
+        HashMap<String, String> queriesAndReasons = new HashMap<>();
+        queriesAndReasons.put("how much is glob fox ?", "Quantity contains words that are not intergalactic units");
+        queriesAndReasons.put("how much is glob glob glob glob ?", "Quantity does not satisfy roman numeric rules");
+        queriesAndReasons.put("how much wood could a woodchuck chuck ?", "Query does not contain a quantity");
+
+        for (String query : queriesAndReasons.keySet()) {
+            //when
+            try {
+                queryResponder.answerQueryOnInterGalacticQuantity(query);
+                fail("Should have thrown exception");
+            } catch (InvalidQueryException e) {
+                //then
+                assertEquals(InterGalacticAppConstants.DEFAULT_ANSWER, e.getErrorMessage());
+                assertEquals(queriesAndReasons.get(query), e.getReason());
+            }
+        }
+
+        //when
+        try {
+            queryResponder.answerQueryOnCreditsOfATransaction("how many credits is glob prok fish ?");
+            fail("Should have thrown exception");
+        } catch (InvalidQueryException e) {
+            //then
+            assertEquals("Earth material has no known price", e.getReason());
+        }
+    }
+
+    @Test
+    public void answersCreditsWorkedOutExactlyAndRoundedAsAsked() throws InvalidQueryException {
+        //Given 13 credits for 6 units, 27 units being worth 58.5 credits
+        HashMap<String, UnitPrice> pricesForEarthMaterials = new HashMap<>();
+        pricesForEarthMaterials.put("silver", UnitPrice.of(13, 6));
+        String query = "how many credits is pish pish prok glob glob silver ?";
+
+        //when
+        QueryResponder.QueryResponderBuilder queryResponderBuilder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setPricesForEarthMaterials(pricesForEarthMaterials);
+
+        //then
+        assertEquals("pish pish prok glob glob silver is 59 credits",
+                queryResponderBuilder.createQueryResponder().answerQueryOnCreditsOfATransaction(query));
+        assertEquals("pish pish prok glob glob silver is 58 credits",
+                queryResponderBuilder.setRoundingMode(RoundingMode.HALF_EVEN).createQueryResponder().answerQueryOnCreditsOfATransaction(query));
+        assertEquals("pish pish prok glob glob silver is 58 credits",
+                queryResponderBuilder.setRoundingMode(RoundingMode.DOWN).createQueryResponder().answerQueryOnCreditsOfATransaction(query));
+    }
+
+    @Test
+    public void answersCreditsOfMaterialsPricedBelowOneCreditForThousandsOfUnits() throws InvalidQueryException {
+        //Given 1 credit for 3999 units
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        interGalacticUnits.put("hnga", "C");
+        interGalacticUnits.put("mok", "M");
+        HashMap<String, Double> creditsForSilver = new HashMap<>();
+        creditsForSilver.put("silver", 1d / 3999);
+        String query = "how many credits is mok mok mok hnga mok pish hnga glob pish silver ?";
+
+        //when
+        QueryResponder queryResponderForSilver = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnits)
+                .setCreditsForEarthMaterials(creditsForSilver).createQueryResponder();
+
+        //then
+        assertEquals("mok mok mok hnga mok pish hnga glob pish silver is 1 credits",
+                queryResponderForSilver.answerQueryOnCreditsOfATransaction(query));
+
+        //when
+        HashMap<String, UnitPrice> pricesForSilver = new HashMap<>();
+        pricesForSilver.put("silver", UnitPrice.of(1, 3999));
+        queryResponder.reload(interGalacticUnits, pricesForSilver);
+
+        //then
+        assertEquals("mok mok mok hnga mok pish hnga glob pish silver is 1 credits",
+                queryResponder.answerQueryOnCreditsOfATransaction(query));
+    }
+
+    @Test
+    public void answersAgainstReloadedPricesKeptExact() throws InvalidQueryException {
+        //Given a price no double tells apart from other fractions, 3379620 units being worth 542732109.5 credits
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        interGalacticUnits.put("huge", "_M_M_M_C_C_C_L_X_X_I_X");
+        interGalacticUnits.put("dcxx", "DCXX");
+        HashMap<String, UnitPrice> pricesForGold = new HashMap<>();
+        pricesForGold.put("gold", UnitPrice.of(1085464219, 6759240));
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnitsFromInput)
+                .setCreditsForEarthMaterials(earthMaterialTransactionsFromInput)
+                .setRoundingMode(RoundingMode.HALF_DOWN).createQueryResponder();
+
+        //when
+        queryResponder.reload(interGalacticUnits, pricesForGold);
+
+        //then
+        assertEquals("huge dcxx gold is 542732109 credits", queryResponder.answerQueryOnCreditsOfATransaction("how many credits is huge dcxx gold ?"));
+    }
+
+    @Test
+    public void rejectsTransactionsWorthMoreCreditsThanCanBeCounted() {
+        //Given
+        HashMap<String, Double> creditsForPlatinum = new HashMap<>();
+        creditsForPlatinum.put("platinum", 1e17);
+        HashMap<String, String> interGalacticUnits = new HashMap<>(interGalacticUnitsFromInput);
+        interGalacticUnits.put("hnga", "C");
+        QueryResponder queryResponderForPlatinum = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnits)
+                .setCreditsForEarthMaterials(creditsForPlatinum).createQueryResponder();
+
+        //when
+        try {
+            queryResponderForPlatinum.answerQueryOnCreditsOfATransaction("how many credits is hnga platinum ?");
+            fail("Should have thrown exception");
+        } catch (InvalidQueryException e) {
+            //then
+            assertEquals("Transaction is worth more credits than can be counted", e.getReason());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotLeaveCreditsUnrounded() {
+        //when
+        new QueryResponder.QueryResponderBuilder().setRoundingMode(RoundingMode.UNNECESSARY);
+    }
 }
@@ -0,0 +1,39 @@
+package com.galaxy.merchant.guide.domain;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the lookup of roman letters by character
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ARomanNumerals {
+
+    @Test
+    public void looksUpTheOrdinalOfEachRomanLetter() {
+        //then
+        for (RomanNumerals romanNumeral : RomanNumerals.values()) {
+            if (romanNumeral != RomanNumerals.Z)
+                assertEquals(romanNumeral.ordinal(), RomanNumerals.ordinalOf(romanNumeral.name().charAt(0)));
+        }
+    }
+
+    @Test
+    public void looksUpAnyOtherCharacterAsTheSentinel() {
+        //then
+        for (char character : new char[] {'Z', 'i', 'x', 'A', '_', ' ', '0', '\0', (char) 127}) {
+            assertEquals(RomanNumerals.Z.ordinal(), RomanNumerals.ordinalOf(character));
+        }
+    }
+
+    @Test
+    public void looksUpNonAsciiCharactersAsTheSentinel() {
+        //then
+        //an I with diaeresis, the roman numeral characters I and M and a full width I are not roman letters
+        for (char character : new char[] {(char) 128, '\u00cf', '\u2160', '\u216f', '\uff29', '\uffff'}) {
+            assertEquals(RomanNumerals.Z.ordinal(), RomanNumerals.ordinalOf(character));
+        }
+    }
+}
@@ -5,13 +5,19 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
 import com.galaxy.merchant.guide.constants.InterGalacticAppConstants;
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverterRegistry;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.PriceAggregation;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 import com.galaxy.merchant.guide.exceptions.NoInputProvidedException;
+import com.galaxy.merchant.guide.parsers.EarthMaterialCatalogue;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -328,6 +334,107 @@ public class AnInterGalacticInterpreter {
         }
     }
 
+    @Test
+    public void answersQueriesWithUnitsStandingForSeveralRomanLetters() throws Exception {
+        //Given
+        String[] linesOfText = {"glob is I",
+                                "prok is V",
+                                "pish is X",
+                                "nova is IV",
+                                "quasar is XC",
+                                "glob glob Silver is 34 Credits",
+                                "how much is quasar nova ?",
+                                "how much is glob nova ?",
+                                "how many Credits is pish nova Silver ?"
+                                };
+
+        //when
+        HashMap<String, String> QAndA = interGalacticInterpreter.interpret(linesOfText);
+
+        //then
+        assertEquals(5, interGalacticInterpreter.getBucketOfNotesOnInterGalacticNumerals().size());
+        assertEquals("quasar nova is 94", QAndA.get("how much is quasar nova ?"));
+        assertEquals(InterGalacticAppConstants.DEFAULT_ANSWER, QAndA.get("how much is glob nova ?"));
+        assertEquals("pish nova silver is 238 credits", QAndA.get("how many Credits is pish nova Silver ?"));
+    }
+
+    @Test
+    public void answersQueriesOnMaterialsOfTheCatalogueGiven() throws Exception {
+        //Given
+        InterGalacticInterpreter interGalacticInterpreter = new InterGalacticInterpreter(RomanNumeralRules.CLASSIC, false,
+                new EarthMaterialCatalogue(asList("platinum", "Silver")));
+        String[] linesOfText = {"glob is I",
+                                "prok is V",
+                                "glob glob Platinum is 100 Credits",
+                                "glob Gold is 10 Credits",
+                                "how many Credits is glob prok platinum ?",
+                                "how many Credits is glob prok Gold ?"
+                                };
+
+        //when
+        HashMap<String, String> QAndA = interGalacticInterpreter.interpret(linesOfText);
+
+        //then
+        assertEquals(1, interGalacticInterpreter.getCreditsPerEarthMaterial().size());
+        assertEquals("glob prok platinum is 200 credits", QAndA.get("how many Credits is glob prok platinum ?"));
+        assertEquals(InterGalacticAppConstants.DEFAULT_ANSWER, QAndA.get("how many Credits is glob prok Gold ?"));
+    }
+
+    @Test
+    public void answersQueriesOnMaterialsPricedBelowOneCreditForThousandsOfUnitsWhateverTheAggregation() throws Exception {
+        //Given 3999 units of silver noted for 1 and then 2 credits
+        String[] linesOfText = {"glob is I",
+                                "pish is X",
+                                "hnga is C",
+                                "mok is M",
+                                "mok mok mok hnga mok pish hnga glob pish Silver is 1 Credits",
+                                "mok mok mok hnga mok pish hnga glob pish Silver is 2 Credits",
+                                "how many Credits is mok mok mok hnga mok pish hnga glob pish Silver ?"
+                                };
+
+        for (PriceAggregation priceAggregation : PriceAggregation.values()) {
+            //when
+            HashMap<String, String> QAndA = new InterGalacticInterpreter(RomanNumeralRules.CLASSIC, false,
+                    EarthMaterialCatalogue.DEFAULT, RoundingMode.HALF_UP, priceAggregation).interpret(linesOfText);
+
+            //then the mean of 1.5 credits is rounded half up
+            String expectedCredits = priceAggregation == PriceAggregation.MIN || priceAggregation == PriceAggregation.MEDIAN ? "1" : "2";
+            assertEquals(priceAggregation.toString(), "mok mok mok hnga mok pish hnga glob pish silver is " + expectedCredits + " credits",
+                    QAndA.get("how many Credits is mok mok mok hnga mok pish hnga glob pish Silver ?"));
+        }
+    }
+
+    @Test
+    public void answersTheSameWithTheUnitsFrontCoded() throws Exception {
+        //Given linesOfText
+
+        //when
+        HashMap<String, String> QAndA = new InterGalacticInterpreter(RomanNumeralRules.CLASSIC, false, EarthMaterialCatalogue.DEFAULT,
+                RoundingMode.HALF_UP, PriceAggregation.LATEST, VocabularyLayout.FRONT_CODED).interpret(linesOfText);
+
+        //then
+        assertEquals(interGalacticInterpreter.interpret(linesOfText), QAndA);
+        assertEquals("glob prok iron is 782 credits", QAndA.get("how many Credits is glob prok Iron ?"));
+    }
+
+    @Test
+    public void perfectHashesTheUnitsWhenOptedInto() throws Exception {
+        //Given
+        InterGalacticInterpreter perfectHashingInterpreter = new InterGalacticInterpreter(RomanNumeralRules.CLASSIC, false,
+                EarthMaterialCatalogue.DEFAULT, RoundingMode.HALF_UP, PriceAggregation.LATEST, VocabularyLayout.PERFECT_HASHED);
+        InterGalacticToRomanConverterRegistry registry = InterGalacticToRomanConverterRegistry.shared();
+
+        //when
+        HashMap<String, String> QAndA = perfectHashingInterpreter.interpret(linesOfText);
+        long hits = registry.getCompiledConverters().getHits();
+
+        //then the units parsed were compiled perfect hashed, once for the notes and the queries
+        assertEquals(VocabularyLayout.PERFECT_HASHED, registry.converterFor(perfectHashingInterpreter.getInterGalacticToRomanConversionMap(),
+                RomanNumeralRules.CLASSIC, VocabularyLayout.PERFECT_HASHED).getVocabulary().getLayout());
+        assertEquals(hits + 1, registry.getCompiledConverters().getHits());
+        assertEquals(interGalacticInterpreter.interpret(linesOfText), QAndA);
+    }
+
     @Test
     public void putsInterGalacticUnitNotesIntoRightBucket() {
         //Given linesOfText
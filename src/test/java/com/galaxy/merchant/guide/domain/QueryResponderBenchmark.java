@@ -0,0 +1,99 @@
+package com.galaxy.merchant.guide.domain;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import com.galaxy.merchant.guide.exceptions.InvalidQueryException;
+
+/**
+ * Measures how the throughput of answering queries changes as the share of invalid queries goes from 0% to 100%.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.domain.QueryResponderBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class QueryResponderBenchmark {
+
+    private static final String[] VALID_QUERIES = {
+            "how much is pish tegj glob glob ?",
+            "how much is glob prok ?",
+            "how many credits is glob prok silver ?",
+            "how many credits is glob prok gold ?"
+    };
+
+    private static final String[] INVALID_QUERIES = {
+            "how much is glob fox ?",
+            "how much is glob glob glob glob ?",
+            "how much wood could a woodchuck chuck if a woodchuck could chuck wood ?",
+            "how many credits is glob prok fish ?"
+    };
+
+    private static final int NUMBER_OF_QUERIES = 10_000;
+    private static final int WARM_UP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 100;
+
+    public static void main(String[] args) {
+
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        interGalacticUnits.put("pish", "X");
+        interGalacticUnits.put("tegj", "L");
+
+        HashMap<String, Double> creditsForEarthMaterials = new HashMap<>();
+        creditsForEarthMaterials.put("silver", 17d);
+        creditsForEarthMaterials.put("gold", 14450d);
+        creditsForEarthMaterials.put("iron", 195.5d);
+
+        QueryResponder queryResponder = new QueryResponder.QueryResponderBuilder()
+                .setInterGalacticToRomanConversionMap(interGalacticUnits)
+                .setCreditsForEarthMaterials(creditsForEarthMaterials).createQueryResponder();
+
+        System.out.println("invalid queries %    queries/ms");
+        for (int percentageOfInvalidQueries = 0; percentageOfInvalidQueries <= 100; percentageOfInvalidQueries += 10) {
+            String[] queries = mixOfQueries(percentageOfInvalidQueries);
+
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                answerAll(queryResponder, queries);
+            }
+
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                checksum += answerAll(queryResponder, queries);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double queriesPerMillisecond = (double) NUMBER_OF_QUERIES * MEASURED_ROUNDS / (elapsed / 1_000_000d);
+            System.out.printf("%17d    %10.0f    (checksum %d)%n", percentageOfInvalidQueries, queriesPerMillisecond, checksum);
+        }
+    }
+
+    private static String[] mixOfQueries(int percentageOfInvalidQueries) {
+        Random random = new Random(percentageOfInvalidQueries);
+        String[] queries = new String[NUMBER_OF_QUERIES];
+        for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+            String[] pool = random.nextInt(100) < percentageOfInvalidQueries ? INVALID_QUERIES : VALID_QUERIES;
+            queries[i] = pool[random.nextInt(pool.length)];
+        }
+        return queries;
+    }
+
+    //Answers the queries the way InterGalacticInterpreter does
+    private static long answerAll(QueryResponder queryResponder, String[] queries) {
+        long totalLength = 0;
+        String answerToQuery;
+        for (String query : queries) {
+            try {
+                if (query.startsWith("how much")) {
+                    answerToQuery = queryResponder.answerQueryOnInterGalacticQuantity(query);
+                } else {
+                    answerToQuery = queryResponder.answerQueryOnCreditsOfATransaction(query);
+                }
+            } catch (InvalidQueryException e) {
+                answerToQuery = e.getErrorMessage();
+            }
+            totalLength += answerToQuery.length();
+        }
+        return totalLength;
+    }
+}
@@ -0,0 +1,110 @@
+package com.galaxy.merchant.guide.parsers;
+
+import static com.galaxy.merchant.guide.constants.InterGalacticAppConstants.EARTH_MATERIALS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.galaxy.merchant.guide.converters.InterGalacticVocabulary;
+import com.galaxy.merchant.guide.tokenizers.WordIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests parsing a line of transaction notes in one scan
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ATransactionLineParser {
+
+    private InterGalacticVocabulary vocabulary;
+    private TransactionLineParser transactionLineParser;
+
+    @Before
+    public void initialiseTransactionLineParser() {
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        interGalacticUnits.put("pish", "X");
+        interGalacticUnits.put("tegj", "L");
+
+        vocabulary = new InterGalacticVocabulary(interGalacticUnits);
+        transactionLineParser = new TransactionLineParser(vocabulary,
+                new WordIndex(EARTH_MATERIALS.toArray(new String[EARTH_MATERIALS.size()])));
+    }
+
+    @Test
+    public void parsesTheUnitsMaterialAndCreditsOfATransaction() {
+        //when
+        boolean parsed = transactionLineParser.parse("glob prok Gold is 57800 Credits");
+
+        //then
+        assertTrue(parsed);
+        assertArrayEquals(new int[] {vocabulary.idOf("glob", 0, 4), vocabulary.idOf("prok", 0, 4)},
+                Arrays.copyOf(transactionLineParser.getIdsOfQuantity(), transactionLineParser.getNumberOfUnits()));
+        assertEquals(EARTH_MATERIALS.indexOf("gold"), transactionLineParser.getEarthMaterial());
+        assertEquals(10, transactionLineParser.getStartOfEarthMaterial());
+        assertEquals(14, transactionLineParser.getEndOfEarthMaterial());
+        assertEquals(57800, transactionLineParser.getNumberOfCredits());
+    }
+
+    @Test
+    public void separatesWordsByRunsOfSpacesAndTabsAndIgnoresCase() {
+        //when
+        boolean parsed = transactionLineParser.parse("  GLOB\t glob   SILVER IS\t34   credits  ");
+
+        //then
+        assertTrue(parsed);
+        assertEquals(2, transactionLineParser.getNumberOfUnits());
+        assertEquals(EARTH_MATERIALS.indexOf("silver"), transactionLineParser.getEarthMaterial());
+        assertEquals(34, transactionLineParser.getNumberOfCredits());
+    }
+
+    @Test
+    public void parsesQuantitiesOfManyUnits() {
+        //Given
+        StringBuilder line = new StringBuilder();
+        for (int unit = 0; unit < 40; unit++) {
+            line.append("glob ");
+        }
+
+        //when
+        boolean parsed = transactionLineParser.parse(line.append("iron is 1 credits"));
+
+        //then
+        assertTrue(parsed);
+        assertEquals(40, transactionLineParser.getNumberOfUnits());
+    }
+
+    @Test
+    public void tellsWhatWasExpectedWhereALineStopsMatching() {
+        assertFailsAt(TransactionLineParser.EXPECTED_INTER_GALACTIC_UNIT, 0, "");
+        assertFailsAt(TransactionLineParser.EXPECTED_INTER_GALACTIC_UNIT, 0, "Quick Brown fox is 0 credits");
+        assertFailsAt(TransactionLineParser.EXPECTED_INTER_GALACTIC_UNIT, 0, "silver is 34 credits");
+        assertFailsAt(TransactionLineParser.EXPECTED_EARTH_MATERIAL, 10, "glob glob platinum is 34 credits");
+        assertFailsAt(TransactionLineParser.EXPECTED_EARTH_MATERIAL, 9, "glob glob");
+        assertFailsAt(TransactionLineParser.EXPECTED_IS, 17, "glob glob silver was 34 credits");
+        assertFailsAt(TransactionLineParser.EXPECTED_NUMBER_OF_CREDITS, 20, "glob glob silver is many credits");
+        assertFailsAt(TransactionLineParser.EXPECTED_NUMBER_OF_CREDITS, 19, "glob glob silver is");
+        assertFailsAt(TransactionLineParser.EXPECTED_CREDITS, 23, "glob glob silver is 34 dollars");
+        assertFailsAt(TransactionLineParser.EXPECTED_END_OF_LINE, 31, "glob glob silver is 34 credits ?");
+    }
+
+    @Test
+    public void failsForCreditsTooLargeToCount() {
+        //then
+        assertTrue(transactionLineParser.parse("glob silver is 9223372036854775807 credits"));
+        assertEquals(Long.MAX_VALUE, transactionLineParser.getNumberOfCredits());
+        assertFailsAt(TransactionLineParser.EXPECTED_NUMBER_OF_CREDITS, 15, "glob silver is 9223372036854775808 credits");
+    }
+
+    private void assertFailsAt(String failure, int failedAt, String line) {
+        assertFalse(line, transactionLineParser.parse(line));
+        assertEquals(line, failure, transactionLineParser.getFailure());
+        assertEquals(line, failedAt, transactionLineParser.getFailedAt());
+    }
+}
@@ -0,0 +1,70 @@
+package com.galaxy.merchant.guide.parsers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+import com.galaxy.merchant.guide.tokenizers.WordLookup;
+import org.junit.Test;
+
+/**
+ * Tests the catalogue of earth materials that can be transacted
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AnEarthMaterialCatalogue {
+
+    @Test
+    public void tradesSilverGoldAndIronByDefault() {
+        //then
+        assertEquals(3, EarthMaterialCatalogue.DEFAULT.size());
+        assertEquals(0, EarthMaterialCatalogue.DEFAULT.idOf("Silver", 0, 6));
+        assertEquals(1, EarthMaterialCatalogue.DEFAULT.idOf("GOLD", 0, 4));
+        assertEquals(2, EarthMaterialCatalogue.DEFAULT.idOf("glob iron", 5, 9));
+        assertEquals(WordLookup.UNKNOWN_WORD, EarthMaterialCatalogue.DEFAULT.idOf("platinum", 0, 8));
+    }
+
+    @Test
+    public void givesMaterialsDenseIdsInTheOrderTheyAreFirstListed() throws InvalidInputFormatException {
+        //Given
+        List<String> linesOfFile = asList("# metals", "  platinum ", "", "Copper", "PLATINUM", "\ttin");
+
+        //when
+        EarthMaterialCatalogue earthMaterialCatalogue = EarthMaterialCatalogue.fromLines(linesOfFile);
+
+        //then
+        assertEquals(3, earthMaterialCatalogue.size());
+        assertEquals("platinum", earthMaterialCatalogue.wordOf(0));
+        assertEquals(1, earthMaterialCatalogue.idOf("copper", 0, 6));
+        assertEquals(2, earthMaterialCatalogue.idOf("Tin", 0, 3));
+        assertEquals(0, earthMaterialCatalogue.idOf("Platinum", 0, 8));
+    }
+
+    @Test
+    public void looksUpEachOfThousandsOfMaterials() {
+        //Given
+        List<String> materials = new ArrayList<>();
+        for (int material = 0; material < 5_000; material++) {
+            materials.add("material" + material);
+        }
+
+        //when
+        EarthMaterialCatalogue earthMaterialCatalogue = new EarthMaterialCatalogue(materials);
+
+        //then
+        for (int material = 0; material < 5_000; material++) {
+            String name = "MATERIAL" + material;
+            assertEquals(material, earthMaterialCatalogue.idOf(name, 0, name.length()));
+        }
+        assertEquals(WordLookup.UNKNOWN_WORD, earthMaterialCatalogue.idOf("material5000", 0, 12));
+    }
+
+    @Test(expected = InvalidInputFormatException.class)
+    public void failsForMaterialsOfMoreThanOneWord() throws InvalidInputFormatException {
+        //when
+        EarthMaterialCatalogue.fromLines(asList("silver", "fools gold"));
+    }
+}
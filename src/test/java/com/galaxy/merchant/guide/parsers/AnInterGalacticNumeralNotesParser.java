@@ -3,8 +3,10 @@ package com.galaxy.merchant.guide.parsers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -37,4 +39,46 @@ public class AnInterGalacticNumeralNotesParser {
         assertEquals("L", galacticUnitConversionMap.get("tegj"));
 
     }
+
+    @Test
+    public void replacesAUnitNotedAgainInAnotherCase() {
+        //When
+        interGalacticNumeralNotesParser.parseNotes(Arrays.asList("glob is I", "pish is X", "GLOB is V", "Glob is L"));
+
+        //Then
+        HashMap<String, String> galacticUnitConversionMap = interGalacticNumeralNotesParser.getInterGalacticToRomanConversionMap();
+
+        assertEquals(2, galacticUnitConversionMap.size());
+        assertEquals("L", galacticUnitConversionMap.get("Glob"));
+        assertEquals("X", galacticUnitConversionMap.get("pish"));
+    }
+
+    @Test
+    public void foldsTheCaseOfAsciiLettersOnly() {
+        //When units differing in the case of a letter beyond ASCII
+        interGalacticNumeralNotesParser.parseNotes(Arrays.asList("\u00e9tok is I", "\u00c9tok is V"));
+
+        //Then
+        assertEquals(2, interGalacticNumeralNotesParser.getInterGalacticToRomanConversionMap().size());
+    }
+
+    @Test
+    public void parsesNotesOfAMillionUnits() {
+        //Given
+        List<String> linesFromNotes = new ArrayList<>();
+        for (int unit = 0; unit < 1_000_000; unit++) {
+            linesFromNotes.add("unit" + unit + " is I");
+        }
+        linesFromNotes.add("UNIT0 is V");
+
+        //When
+        interGalacticNumeralNotesParser.parseNotes(linesFromNotes);
+
+        //Then
+        HashMap<String, String> galacticUnitConversionMap = interGalacticNumeralNotesParser.getInterGalacticToRomanConversionMap();
+
+        assertEquals(1_000_000, galacticUnitConversionMap.size());
+        assertEquals("V", galacticUnitConversionMap.get("UNIT0"));
+        assertEquals("I", galacticUnitConversionMap.get("unit999999"));
+    }
 }
@@ -3,9 +3,16 @@ package com.galaxy.merchant.guide.parsers;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.util.HashMap;
 
+import com.galaxy.merchant.guide.converters.InterGalacticToRomanConverterRegistry;
+import com.galaxy.merchant.guide.converters.RomanNumeralRules;
+import com.galaxy.merchant.guide.converters.VocabularyLayout;
+import com.galaxy.merchant.guide.credits.PriceAggregation;
+import com.galaxy.merchant.guide.credits.UnitPrice;
 import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
 import org.junit.Before;
 import org.junit.Test;
@@ -80,4 +87,120 @@ public class AnTransactionNotesParser {
         assertEquals(Double.valueOf(14450), transactionMap.get("gold"));
         assertEquals(Double.valueOf(195.5), transactionMap.get("iron"));
     }
+
+    @Test
+    public void keysCreditsByEarthMaterialAsWrittenInTheNotes() throws InvalidInputFormatException {
+        //Given
+        earthMaterialTransactions = new String[] {"glob  glob\tSilver is 34 Credits"
+                , "glob glob SILVER is 36 credits"
+                , "glob prok Gold is 57800 Credits"
+                , "glob prok Gold is 57806 Credits"};
+
+        //When
+        transactionNotesParser.parseNotes(asList(earthMaterialTransactions));
+
+        //Then
+        HashMap<String, Double> transactionMap = transactionNotesParser.getCreditsPerEarthMaterial();
+
+        assertEquals(2, transactionMap.size());
+        assertEquals(Double.valueOf(18), transactionMap.get("SILVER"));
+        assertEquals(Double.valueOf(14451.5), transactionMap.get("Gold"));
+    }
+
+    @Test
+    public void sharesTheCompiledUnitsWithParsersOfTheSameUnits() {
+        //Given
+        HashMap<String, String> sameUnits = new HashMap<>();
+        sameUnits.put("tegj", "L");
+        sameUnits.put("pish", "X");
+        sameUnits.put("prok", "V");
+        sameUnits.put("glob", "I");
+
+        //When
+        TransactionNotesParser anotherTransactionNotesParser = new TransactionNotesParser(sameUnits);
+
+        //Then
+        assertSame(transactionNotesParser.getInterGalacticToRomanConverter(), anotherTransactionNotesParser.getInterGalacticToRomanConverter());
+    }
+
+    @Test
+    public void parsesAgainstTheUnitsCompiledInTheLayoutGiven() throws InvalidInputFormatException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+
+        //When
+        TransactionNotesParser frontCodedTransactionNotesParser = new TransactionNotesParser(interGalacticUnits, RomanNumeralRules.CLASSIC,
+                EarthMaterialCatalogue.DEFAULT, PriceAggregation.LATEST, VocabularyLayout.FRONT_CODED);
+        frontCodedTransactionNotesParser.parseNotes(asList("glob prok Silver is 68 credits"));
+
+        //Then
+        assertSame(InterGalacticToRomanConverterRegistry.shared().converterFor(interGalacticUnits, RomanNumeralRules.CLASSIC, VocabularyLayout.FRONT_CODED),
+                frontCodedTransactionNotesParser.getInterGalacticToRomanConverter());
+        assertNotSame(new TransactionNotesParser(interGalacticUnits).getInterGalacticToRomanConverter(),
+                frontCodedTransactionNotesParser.getInterGalacticToRomanConverter());
+        assertEquals(UnitPrice.of(17, 1), frontCodedTransactionNotesParser.getPricePerEarthMaterial().get("Silver"));
+    }
+
+    @Test
+    public void keepsThePriceOfEachMaterialByItsIdInTheCatalogue() throws InvalidInputFormatException {
+        //Given
+        EarthMaterialCatalogue earthMaterialCatalogue = new EarthMaterialCatalogue(asList("Platinum", "Silver", "Gold"));
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        transactionNotesParser = new TransactionNotesParser(interGalacticUnits, RomanNumeralRules.CLASSIC, earthMaterialCatalogue);
+
+        //When
+        transactionNotesParser.parseNotes(asList("glob glob platinum is 100 credits", "glob GOLD is 7 credits"));
+        UnitPrice[] priceOfEarthMaterial = transactionNotesParser.getPriceOfEarthMaterial();
+        transactionNotesParser.parseNotes(asList("glob silver is 17 credits"));
+
+        //Then
+        assertSame(earthMaterialCatalogue, transactionNotesParser.getEarthMaterialCatalogue());
+        assertEquals(3, priceOfEarthMaterial.length);
+        assertEquals(UnitPrice.of(50, 1), priceOfEarthMaterial[earthMaterialCatalogue.idOf("Platinum", 0, 8)]);
+        assertEquals(UnitPrice.of(7, 1), priceOfEarthMaterial[earthMaterialCatalogue.idOf("gold", 0, 4)]);
+        assertEquals(null, priceOfEarthMaterial[earthMaterialCatalogue.idOf("silver", 0, 6)]);
+        assertEquals(UnitPrice.of(17, 1), transactionNotesParser.getPriceOfEarthMaterial()[earthMaterialCatalogue.idOf("silver", 0, 6)]);
+        assertEquals(UnitPrice.of(7, 1), transactionNotesParser.getPricePerEarthMaterial().get("GOLD"));
+    }
+
+    @Test
+    public void parsesTransactionsOfTheMaterialsOfTheCatalogueGiven() throws InvalidInputFormatException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        transactionNotesParser = new TransactionNotesParser(interGalacticUnits, RomanNumeralRules.CLASSIC,
+                new EarthMaterialCatalogue(asList("platinum", "copper")));
+
+        //When
+        transactionNotesParser.parseNotes(asList("glob glob Platinum is 100 credits", "glob silver is 17 credits"));
+
+        //Then
+        HashMap<String, Double> transactionMap = transactionNotesParser.getCreditsPerEarthMaterial();
+
+        assertEquals(1, transactionMap.size());
+        assertEquals(Double.valueOf(50), transactionMap.get("Platinum"));
+    }
+
+    @Test
+    public void aggregatesThePricesOfAMaterialAcrossNotesParsedAsTheyStreamIn() throws InvalidInputFormatException {
+        //Given
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        transactionNotesParser = new TransactionNotesParser(interGalacticUnits, RomanNumeralRules.CLASSIC,
+                EarthMaterialCatalogue.DEFAULT, PriceAggregation.VOLUME_WEIGHTED_MEAN);
+
+        //When
+        transactionNotesParser.parseNotes(asList("glob glob Silver is 34 credits", "glob Gold is 100 credits"));
+        transactionNotesParser.parseNotes(asList("prok silver is 20 credits"));
+
+        //Then
+        assertEquals(UnitPrice.of(54, 7), transactionNotesParser.getPricePerEarthMaterial().get("silver"));
+        assertEquals(Double.valueOf(54d / 7), transactionNotesParser.getCreditsPerEarthMaterial().get("silver"));
+        assertEquals(null, transactionNotesParser.getCreditsPerEarthMaterial().get("Silver"));
+        assertEquals(Double.valueOf(100), transactionNotesParser.getCreditsPerEarthMaterial().get("Gold"));
+    }
 }
@@ -0,0 +1,77 @@
+package com.galaxy.merchant.guide.parsers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import com.galaxy.merchant.guide.exceptions.InvalidInputFormatException;
+
+/**
+ * Measures how many lines of transaction notes are parsed per millisecond, as in a ledger import of millions of
+ * lines, as the share of lines that are not transactions goes from 0% to 100%.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.parsers.TransactionNotesParserBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class TransactionNotesParserBenchmark {
+
+    private static final String[] TRANSACTIONS = {
+            "glob glob Silver is 34 Credits",
+            "glob prok Gold is 57800 Credits",
+            "pish pish Iron is 3910 Credits",
+            "pish tegj glob glob   silver is 1428 credits"
+    };
+
+    private static final String[] OTHER_LINES = {
+            "glob is I",
+            "how much is pish tegj glob glob ?",
+            "Quick Brown fox is 0 credits",
+            "glob glob silver is many credits"
+    };
+
+    private static final int NUMBER_OF_LINES = 1_000_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws InvalidInputFormatException {
+
+        HashMap<String, String> interGalacticUnits = new HashMap<>();
+        interGalacticUnits.put("glob", "I");
+        interGalacticUnits.put("prok", "V");
+        interGalacticUnits.put("pish", "X");
+        interGalacticUnits.put("tegj", "L");
+
+        TransactionNotesParser transactionNotesParser = new TransactionNotesParser(interGalacticUnits);
+
+        System.out.println("other lines %    lines/ms");
+        for (int percentageOfOtherLines = 0; percentageOfOtherLines <= 100; percentageOfOtherLines += 25) {
+            List<String> lines = mixOfLines(percentageOfOtherLines);
+
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                transactionNotesParser.parseNotes(lines);
+            }
+
+            long start = System.nanoTime();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                transactionNotesParser.parseNotes(lines);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            double linesPerMillisecond = (double) NUMBER_OF_LINES * MEASURED_ROUNDS / (elapsed / 1_000_000d);
+            System.out.printf("%13d    %8.0f    (%d materials)%n", percentageOfOtherLines, linesPerMillisecond,
+                    transactionNotesParser.getCreditsPerEarthMaterial().size());
+        }
+    }
+
+    //Lines are copied, as lines read from a file would be distinct strings
+    private static List<String> mixOfLines(int percentageOfOtherLines) {
+        Random random = new Random(percentageOfOtherLines);
+        List<String> lines = new ArrayList<>(NUMBER_OF_LINES);
+        for (int i = 0; i < NUMBER_OF_LINES; i++) {
+            String[] pool = random.nextInt(100) < percentageOfOtherLines ? OTHER_LINES : TRANSACTIONS;
+            lines.add(new String(pool[random.nextInt(pool.length)].toCharArray()));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,97 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * Tests looking words up in front coded blocks
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AFrontCodedWordIndex {
+
+    private FrontCodedWordIndex frontCodedWordIndex = new FrontCodedWordIndex("Gold", "iron", "silver");
+
+    @Test
+    public void looksWordsUpIgnoringCase() {
+        //then
+        assertEquals(3, frontCodedWordIndex.size());
+        assertEquals(0, frontCodedWordIndex.idOf("GOLD", 0, 4));
+        assertEquals(1, frontCodedWordIndex.idOf("glob prok Iron ?", 10, 14));
+        assertEquals(2, frontCodedWordIndex.idOf(new Tokenizer().tokenize("glob SILVER"), 1));
+        assertEquals("Gold", frontCodedWordIndex.wordOf(0));
+        assertEquals("iron", frontCodedWordIndex.wordOf(1));
+        assertEquals(WordLookup.UNKNOWN_WORD, frontCodedWordIndex.idOf("irons", 0, 5));
+        assertEquals(WordLookup.UNKNOWN_WORD, frontCodedWordIndex.idOf("aluminium", 0, 9));
+        assertEquals(WordLookup.UNKNOWN_WORD, frontCodedWordIndex.idOf("zinc", 0, 4));
+        assertEquals(WordLookup.UNKNOWN_WORD, frontCodedWordIndex.idOf("", 0, 0));
+        assertEquals(WordLookup.UNKNOWN_WORD, new FrontCodedWordIndex().idOf("gold", 0, 4));
+    }
+
+    @Test
+    public void findsTheSameWordsAsAHashedIndex() {
+        //Given words sharing prefixes over many blocks
+        Random random = new Random(42);
+        TreeSet<String> words = new TreeSet<>();
+        while (words.size() < 1000) {
+            StringBuilder word = new StringBuilder();
+            for (int letter = 1 + random.nextInt(6); letter > 0; letter--) {
+                word.append("abc".charAt(random.nextInt(3)));
+            }
+            words.add(word.toString());
+        }
+        String[] sortedWords = words.toArray(new String[words.size()]);
+
+        //when
+        FrontCodedWordIndex frontCoded = new FrontCodedWordIndex(sortedWords);
+        WordIndex hashed = new WordIndex(sortedWords);
+
+        //then every word and prefix or extension of one is found as in the hashed index
+        for (String word : sortedWords) {
+            assertEquals(word, frontCoded.wordOf(hashed.idOf(word, 0, word.length())));
+            for (String lookedUp : Arrays.asList(word, word.toUpperCase(), word.substring(1), word + "a", word + "d", "b" + word)) {
+                assertEquals(lookedUp, hashed.idOf(lookedUp, 0, lookedUp.length()), frontCoded.idOf(lookedUp, 0, lookedUp.length()));
+            }
+        }
+    }
+
+    @Test
+    public void findsTheFirstOfWordsDifferingOnlyInCase() {
+        //Given the same word at the end of one block and at the start of the next
+        String[] words = new String[FrontCodedWordIndex.BLOCK_SIZE + 2];
+        for (int id = 0; id < FrontCodedWordIndex.BLOCK_SIZE - 1; id++) {
+            words[id] = "a" + (char) ('a' + id);
+        }
+        words[FrontCodedWordIndex.BLOCK_SIZE - 1] = "glob";
+        words[FrontCodedWordIndex.BLOCK_SIZE] = "GLOB";
+        words[FrontCodedWordIndex.BLOCK_SIZE + 1] = "prok";
+
+        //when
+        FrontCodedWordIndex wordsDifferingInCase = new FrontCodedWordIndex(words);
+
+        //then
+        assertEquals(FrontCodedWordIndex.BLOCK_SIZE - 1, wordsDifferingInCase.idOf("Glob", 0, 4));
+        assertEquals(FrontCodedWordIndex.BLOCK_SIZE + 1, wordsDifferingInCase.idOf("prok", 0, 4));
+        assertEquals("GLOB", wordsDifferingInCase.wordOf(FrontCodedWordIndex.BLOCK_SIZE));
+        assertEquals("glob", wordsDifferingInCase.wordOf(FrontCodedWordIndex.BLOCK_SIZE - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refusesWordsOutOfAlphabeticalOrder() {
+        //when
+        new FrontCodedWordIndex("prok", "glob");
+    }
+
+    @Test
+    public void comparesIgnoringCase() {
+        //then
+        assertEquals(0, AsciiCase.compare("Glob", "gLOB"));
+        assertEquals(true, AsciiCase.compare("glob", "Prok") < 0);
+        assertEquals(true, AsciiCase.compare("globs", "GLOB") > 0);
+    }
+}
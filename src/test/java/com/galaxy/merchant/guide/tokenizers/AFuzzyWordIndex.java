@@ -0,0 +1,119 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests finding the word a misspelled one was meant to be
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AFuzzyWordIndex {
+
+    private FuzzyWordIndex fuzzyWordIndex = new FuzzyWordIndex("glob", "prok", "pish", "tegj", "Quasar");
+
+    @Test
+    public void findsWordsWithinOneEdit() {
+        //then substituted, inserted, deleted and swapped letters are corrected
+        assertEquals(0, fuzzyWordIndex.idOfClosest("glub", 0, 4));
+        assertEquals(1, fuzzyWordIndex.idOfClosest("proak", 0, 5));
+        assertEquals(2, fuzzyWordIndex.idOfClosest("psh", 0, 3));
+        assertEquals(3, fuzzyWordIndex.idOfClosest("tejg", 0, 4));
+        assertEquals(4, fuzzyWordIndex.idOfClosest("how much is QUASRA ?", 12, 18));
+        assertEquals("Quasar", fuzzyWordIndex.wordOf(4));
+    }
+
+    @Test
+    public void findsNothingForWordsFurtherThanOneEdit() {
+        //then
+        assertEquals(FuzzyWordIndex.UNKNOWN_WORD, fuzzyWordIndex.idOfClosest("gulb", 0, 4));
+        assertEquals(FuzzyWordIndex.UNKNOWN_WORD, fuzzyWordIndex.idOfClosest("quasarss", 0, 8));
+        assertEquals(FuzzyWordIndex.UNKNOWN_WORD, fuzzyWordIndex.idOfClosest("silver", 0, 6));
+    }
+
+    @Test
+    public void doesNotCorrectWordsTooShortToTellWhatTheyWereMeantToBe() {
+        //Given
+        FuzzyWordIndex shortWords = new FuzzyWordIndex("ab", "abc");
+
+        //then
+        assertEquals(FuzzyWordIndex.UNKNOWN_WORD, shortWords.idOfClosest("ax", 0, 2));
+        assertEquals(FuzzyWordIndex.UNKNOWN_WORD, shortWords.idOfClosest("ab", 0, 2));
+        assertEquals(1, shortWords.idOfClosest("abd", 0, 3));
+    }
+
+    @Test
+    public void prefersTheWordSpeltTheSameThenTheLowestId() {
+        //Given
+        FuzzyWordIndex closeWords = new FuzzyWordIndex("glab", "glub", "glob");
+
+        //then
+        assertEquals(2, closeWords.idOfClosest("GLOB", 0, 4));
+        assertEquals(0, closeWords.idOfClosest("gleb", 0, 4));
+    }
+
+    @Test
+    public void indexesWordsWithRepeatedLetters() {
+        //Given
+        FuzzyWordIndex repeatedLetters = new FuzzyWordIndex("pissh", "aaaa");
+
+        //then
+        assertEquals(0, repeatedLetters.idOfClosest("pish", 0, 4));
+        assertEquals(0, repeatedLetters.idOfClosest("pisssh", 0, 6));
+        assertEquals(1, repeatedLetters.idOfClosest("aaa", 0, 3));
+        assertEquals(1, repeatedLetters.idOfClosest("aaaaa", 0, 5));
+    }
+
+    @Test
+    public void findsTheSameWordAsCheckingEveryWord() {
+        //Given words of few letters, so that most of them have runs of the same letter and share their deletions
+        Random random = new Random(42);
+        String[] words = new String[500];
+        for (int id = 0; id < words.length; id++) {
+            words[id] = randomWord(random, 3 + random.nextInt(5));
+        }
+        FuzzyWordIndex fewLetters = new FuzzyWordIndex(words);
+
+        for (int i = 0; i < 20_000; i++) {
+            //when
+            String word = randomWord(random, 3 + random.nextInt(6));
+
+            //then
+            int closest = FuzzyWordIndex.UNKNOWN_WORD;
+            int distanceOfClosest = 2;
+            for (int id = 0; id < words.length; id++) {
+                int distance = FuzzyWordIndex.editDistanceUpToOne(words[id].toCharArray(), 0, words[id].length(), word, 0, word.length());
+                if (distance < distanceOfClosest) {
+                    closest = id;
+                    distanceOfClosest = distance;
+                }
+            }
+            assertEquals(word, closest, fewLetters.idOfClosest(word, 0, word.length()));
+        }
+    }
+
+    @Test
+    public void measuresEditDistanceUpToOne() {
+        //Given
+        char[] letters = "glob".toCharArray();
+
+        //then
+        assertEquals(0, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "GLOB", 0, 4));
+        assertEquals(1, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "lgob", 0, 4));
+        assertEquals(1, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "globe", 0, 5));
+        assertEquals(1, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "gob", 0, 3));
+        assertEquals(2, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "gbol", 0, 4));
+        assertEquals(2, FuzzyWordIndex.editDistanceUpToOne(letters, 0, 4, "gl", 0, 2));
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append("abc".charAt(random.nextInt(3)));
+        }
+        return word.toString();
+    }
+}
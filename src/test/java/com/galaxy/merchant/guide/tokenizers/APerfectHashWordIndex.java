@@ -0,0 +1,67 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests looking words up in a hash compiled for them
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class APerfectHashWordIndex {
+
+    private PerfectHashWordIndex perfectHashWordIndex = new PerfectHashWordIndex("silver", "Gold", "iron");
+
+    @Test
+    public void looksWordsUpIgnoringCase() {
+        //then
+        assertEquals(3, perfectHashWordIndex.size());
+        assertEquals(0, perfectHashWordIndex.idOf("SILVER", 0, 6));
+        assertEquals(1, perfectHashWordIndex.idOf("gold", 0, 4));
+        assertEquals(2, perfectHashWordIndex.idOf(new Tokenizer().tokenize("glob prok Iron ?"), 2));
+        assertEquals("Gold", perfectHashWordIndex.wordOf(1));
+        assertEquals(WordLookup.UNKNOWN_WORD, perfectHashWordIndex.idOf("irons", 0, 5));
+        assertEquals(WordLookup.UNKNOWN_WORD, perfectHashWordIndex.idOf("", 0, 0));
+        assertEquals(WordLookup.UNKNOWN_WORD, new PerfectHashWordIndex().idOf("gold", 0, 4));
+    }
+
+    @Test
+    public void findsTheSameWordsAsAHashedIndex() {
+        //Given
+        Random random = new Random(42);
+        LinkedHashSet<String> words = new LinkedHashSet<>();
+        while (words.size() < 10_000) {
+            StringBuilder word = new StringBuilder();
+            for (int letter = 1 + random.nextInt(8); letter > 0; letter--) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words.add(word.toString());
+        }
+        String[] allWords = words.toArray(new String[words.size()]);
+
+        //when
+        PerfectHashWordIndex perfectHashed = new PerfectHashWordIndex(allWords);
+        WordIndex hashed = new WordIndex(allWords);
+
+        //then
+        for (String word : allWords) {
+            for (String lookedUp : new String[] {word, word.toUpperCase(), word + "a", word.substring(1)}) {
+                assertEquals(lookedUp, hashed.idOf(lookedUp, 0, lookedUp.length()), perfectHashed.idOf(lookedUp, 0, lookedUp.length()));
+            }
+        }
+    }
+
+    @Test
+    public void keepsTheFirstOfWordsDifferingOnlyInCase() {
+        //Given
+        PerfectHashWordIndex wordsDifferingInCase = new PerfectHashWordIndex("glob", "GLOB", "prok", "Glob");
+
+        //then
+        assertEquals(0, wordsDifferingInCase.idOf("Glob", 0, 4));
+        assertEquals(2, wordsDifferingInCase.idOf("PROK", 0, 4));
+    }
+}
@@ -0,0 +1,111 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the tokenizer shared by the parsers, converters and query responder
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class ATokenizer {
+
+    private Tokenizer tokenizer = new Tokenizer();
+
+    @Test
+    public void splitsALineIntoWordsSeparatedByRunsOfSpacesAndTabs() {
+        //Given
+        String line = "  glob glob\tsilver  is \t34 credits ";
+
+        //when
+        tokenizer.tokenize(line);
+
+        //then
+        assertEquals(6, tokenizer.size());
+        assertEquals("glob", tokenizer.asString(0));
+        assertEquals("silver", tokenizer.asString(2));
+        assertEquals("credits", tokenizer.asString(5));
+        assertEquals(2, tokenizer.start(0));
+        assertEquals(6, tokenizer.end(0));
+        assertEquals("glob glob\tsilver", tokenizer.asString(0, 3));
+        assertEquals("", tokenizer.asString(3, 3));
+    }
+
+    @Test
+    public void splitsPartOfALine() {
+        //Given
+        String query = "how much is pish tegj glob glob ?";
+
+        //when
+        tokenizer.tokenize(query, 11, 32);
+
+        //then
+        assertEquals(4, tokenizer.size());
+        assertEquals("pish tegj glob glob", tokenizer.asString(0, 4));
+    }
+
+    @Test
+    public void findsNoWordsInABlankLine() {
+        //then
+        assertEquals(0, tokenizer.tokenize("").size());
+        assertEquals(0, tokenizer.tokenize(" \t ").size());
+    }
+
+    @Test
+    public void comparesAndFindsWordsWithoutSubstrings() {
+        //Given
+        tokenizer.tokenize("glob globx silver is 34 credits");
+
+        //then
+        assertTrue(tokenizer.is(0, "glob"));
+        assertFalse(tokenizer.is(1, "glob"));
+        assertEquals(3, tokenizer.indexOf("is"));
+        assertEquals(-1, tokenizer.indexOf("gold"));
+    }
+
+    @Test
+    public void comparesWordsIgnoringCase() {
+        //Given
+        tokenizer.tokenize("how many Credits is GLOB prok\tSilver ?");
+
+        //then
+        assertTrue(tokenizer.is(2, "credits"));
+        assertTrue(tokenizer.is(4, "glob"));
+        assertEquals(2, tokenizer.indexOf("CREDITS"));
+        assertEquals("glob prok\tsilver", tokenizer.asLowerCaseString(4, 7));
+        assertEquals("", tokenizer.asLowerCaseString(4, 4));
+    }
+
+    @Test
+    public void readsWordsOfDigitsAsNumbers() {
+        //Given
+        tokenizer.tokenize("34 3x4 9223372036854775807 9223372036854775808");
+
+        //then
+        assertEquals(34, tokenizer.asNumber(0));
+        assertEquals(Tokenizer.NOT_A_NUMBER, tokenizer.asNumber(1));
+        assertEquals(Long.MAX_VALUE, tokenizer.asNumber(2));
+        assertEquals(Tokenizer.NOT_A_NUMBER, tokenizer.asNumber(3));
+    }
+
+    @Test
+    public void isReusedForLinesWithMoreWordsThanItStartedWith() {
+        //Given
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longLine.append("glob ");
+        }
+
+        //when
+        tokenizer.tokenize(longLine);
+        tokenizer.tokenize("glob prok");
+
+        //then
+        assertEquals(2, tokenizer.size());
+        assertEquals("prok", tokenizer.asString(1));
+        assertEquals(100, tokenizer.tokenize(longLine).size());
+    }
+}
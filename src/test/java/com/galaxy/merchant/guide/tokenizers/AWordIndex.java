@@ -0,0 +1,57 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests looking words up ignoring case
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class AWordIndex {
+
+    private WordIndex wordIndex = new WordIndex("silver", "Gold", "iron");
+
+    @Test
+    public void looksWordsUpIgnoringCase() {
+        //then
+        assertEquals(3, wordIndex.size());
+        assertEquals(0, wordIndex.idOf("SILVER", 0, 6));
+        assertEquals(1, wordIndex.idOf("gold", 0, 4));
+        assertEquals(2, wordIndex.idOf("glob prok Iron ?", 10, 14));
+        assertEquals("Gold", wordIndex.wordOf(1));
+        assertEquals(WordIndex.UNKNOWN_WORD, wordIndex.idOf("irons", 0, 5));
+        assertEquals(WordIndex.UNKNOWN_WORD, wordIndex.idOf("", 0, 0));
+    }
+
+    @Test
+    public void looksWordsOfATokenizerUp() {
+        //Given
+        Tokenizer tokenizer = new Tokenizer().tokenize("glob prok GOLD ?");
+
+        //then
+        assertEquals(1, wordIndex.idOf(tokenizer, 2));
+        assertEquals(WordIndex.UNKNOWN_WORD, wordIndex.idOf(tokenizer, 3));
+    }
+
+    @Test
+    public void keepsTheFirstOfWordsDifferingOnlyInCase() {
+        //Given
+        WordIndex wordsDifferingInCase = new WordIndex("glob", "GLOB", "prok");
+
+        //then
+        assertEquals(0, wordsDifferingInCase.idOf("Glob", 0, 4));
+        assertEquals(2, wordsDifferingInCase.idOf("prok", 0, 4));
+    }
+
+    @Test
+    public void hashesTheSameAsTheLowerCaseString() {
+        //then
+        assertEquals("glob prok".hashCode(), AsciiCase.hashCode("GLOB Prok", 0, 9));
+        assertTrue(AsciiCase.startsWith("How much is glob ?", "how much"));
+        assertEquals(12, AsciiCase.indexOf("how much is GLOB ?", "glob", 0));
+        assertEquals(-1, AsciiCase.indexOf("how much is GLOB ?", "?", 18));
+    }
+}
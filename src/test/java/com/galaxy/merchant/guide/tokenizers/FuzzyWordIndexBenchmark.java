@@ -0,0 +1,109 @@
+package com.galaxy.merchant.guide.tokenizers;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures how long it takes to find the word a misspelled one was meant to be, as the number of words grows to 200k,
+ * for words with one edit, words far from any word and words spelt right.
+ * Run with gradle benchmark -PbenchmarkClass=com.galaxy.merchant.guide.tokenizers.FuzzyWordIndexBenchmark
+ *
+ * @author Gayathri Thiyagarajan
+ */
+public class FuzzyWordIndexBenchmark {
+
+    private static final int[] NUMBERS_OF_WORDS = {1_000, 10_000, 100_000, 200_000};
+
+    private static final int NUMBER_OF_LOOKUPS = 100_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    public static void main(String[] args) {
+
+        System.out.println("     words    build ms    misspelled ns/word    unknown ns/word    exact ns/word");
+        for (int numberOfWords : NUMBERS_OF_WORDS) {
+            Random random = new Random(numberOfWords);
+            String[] words = randomWords(random, numberOfWords);
+
+            long start = System.nanoTime();
+            FuzzyWordIndex fuzzyWordIndex = new FuzzyWordIndex(words);
+            long buildTime = System.nanoTime() - start;
+
+            String[] misspelledWords = new String[NUMBER_OF_LOOKUPS];
+            String[] unknownWords = new String[NUMBER_OF_LOOKUPS];
+            String[] exactWords = new String[NUMBER_OF_LOOKUPS];
+            for (int i = 0; i < NUMBER_OF_LOOKUPS; i++) {
+                String word = words[random.nextInt(words.length)];
+                misspelledWords[i] = misspell(random, word);
+                unknownWords[i] = randomWord(random, 12);
+                exactWords[i] = new String(word);
+            }
+
+            System.out.printf("%10d    %8.0f    %18.0f    %15.0f    %13.0f%n", numberOfWords, buildTime / 1_000_000d,
+                    nanosecondsPerLookup(fuzzyWordIndex, misspelledWords),
+                    nanosecondsPerLookup(fuzzyWordIndex, unknownWords),
+                    nanosecondsPerLookup(fuzzyWordIndex, exactWords));
+        }
+    }
+
+    private static double nanosecondsPerLookup(FuzzyWordIndex fuzzyWordIndex, String[] words) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            lookUpAll(fuzzyWordIndex, words);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            checksum += lookUpAll(fuzzyWordIndex, words);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum == 42)
+            System.out.println("(checksum " + checksum + ")");
+        return (double) elapsed / ((long) MEASURED_ROUNDS * words.length);
+    }
+
+    private static long lookUpAll(FuzzyWordIndex fuzzyWordIndex, String[] words) {
+        long checksum = 0;
+        for (String word : words) {
+            checksum += fuzzyWordIndex.idOfClosest(word, 0, word.length());
+        }
+        return checksum;
+    }
+
+    //Distinct words of 4 to 10 letters
+    private static String[] randomWords(Random random, int numberOfWords) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < numberOfWords) {
+            words.add(randomWord(random, 4 + random.nextInt(7)));
+        }
+        return words.toArray(new String[numberOfWords]);
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    //The word with one letter substituted, inserted, deleted or swapped with the next one
+    private static String misspell(Random random, String word) {
+        StringBuilder misspelled = new StringBuilder(word);
+        int position = random.nextInt(word.length() - 1);
+        char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        switch (random.nextInt(4)) {
+            case 0: misspelled.setCharAt(position, letter); break;
+            case 1: misspelled.insert(position, letter); break;
+            case 2: misspelled.deleteCharAt(position); break;
+            default:
+                misspelled.setCharAt(position, word.charAt(position + 1));
+                misspelled.setCharAt(position + 1, word.charAt(position));
+        }
+        return misspelled.toString();
+    }
+}